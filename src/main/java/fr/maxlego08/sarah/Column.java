@@ -26,4 +26,24 @@ public @interface Column {
      * (for MySQL/MariaDB) instead of VARCHAR. SQLite will fallback to TEXT.
      */
     boolean useNativeEnum() default false;
+
+    /**
+     * When true and the field is an {@link java.time.Instant}, a {@link java.time.LocalDateTime}, a {@link java.time.LocalDate}
+     * or a {@link java.util.Date}, the value is stored in a BIGINT column as milliseconds since the epoch.
+     * Local dates and times are converted with the system time zone.
+     */
+    boolean epochMillis() default false;
+
+    /**
+     * The name of the {@link fr.maxlego08.sarah.codec.BlobCodec} storing this field in a BLOB column,
+     * see {@link fr.maxlego08.sarah.codec.BlobCodecs}. The same codec decodes the column when rows are mapped to objects.
+     */
+    String codec() default "";
+
+    /**
+     * The name of the sequence used to assign the value of this column before inserts,
+     * see {@link fr.maxlego08.sarah.sequence.SequenceAllocator}. The field must be a {@code long} or an {@code int},
+     * and is only assigned when it is null or zero. Do not combine it with {@link #autoIncrement()}.
+     */
+    String sequence() default "";
 }
@@ -1,10 +1,17 @@
 package fr.maxlego08.sarah;
 
+import fr.maxlego08.sarah.codec.BlobCodecs;
+import fr.maxlego08.sarah.converter.TypeConverters;
 import fr.maxlego08.sarah.database.Schema;
+import fr.maxlego08.sarah.lazy.Lazy;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.UUID;
@@ -31,6 +38,9 @@ public class ConsumerConstructor {
      * for the columns. If the object is not null, the consumer will use the values of the fields
      * of the object to define the columns of the schema.
      * <p>
+     * A field of type {@link Lazy} defines the column of its type argument. A lazy value of the object that was never
+     * loaded is left out of the schema. Fields annotated with {@link Relation} have no column.
+     * <p>
      * @param template the template class
      * @param data an optional object that can be used to provide values for the columns
      * @return a consumer that can be used to define a schema
@@ -61,7 +71,14 @@ public class ConsumerConstructor {
             for (int i = 0; i < fields.length; i++) {
                 Field field = fields[i];
                 field.setAccessible(true);
+                // Relations are rows of other tables
+                if (field.isAnnotationPresent(Relation.class)) continue;
                 Type type = field.getType();
+                if (type == Lazy.class) {
+                    // A lazy value that was never loaded is left out, so that the database keeps its value
+                    if (data != null && !isLoaded(field, data)) continue;
+                    type = getLazyType(field);
+                }
                 String name = field.getName();
                 String typeName = type.getTypeName().substring(type.getTypeName().lastIndexOf('.') + 1);
                 Column column = null;
@@ -91,11 +108,20 @@ public class ConsumerConstructor {
                 } else {
                     try {
                         Class<?> fieldType = (Class<?>) type;
-                        if (isEnumType(fieldType)) {
+                        if (column != null && !column.codec().isEmpty()) {
+                            Object value = getValue(field, data);
+                            if (value == null) {
+                                schema.blob(name).nullable();
+                            } else {
+                                schema.blob(name, value, BlobCodecs.get(column.codec()));
+                            }
+                        } else if (column != null && column.epochMillis()) {
+                            handleEpochMillis(schema, name, getValue(field, data));
+                        } else if (isEnumType(fieldType)) {
                             boolean useNativeEnum = column != null && column.useNativeEnum();
-                            handleEnumType(schema, name, fieldType, data == null ? null : field.get(data), useNativeEnum);
+                            handleEnumType(schema, name, fieldType, getValue(field, data), useNativeEnum);
                         } else {
-                            schemaFromType(schema, typeName, name, data == null ? null : field.get(data));
+                            schemaFromType(schema, typeName, name, getValue(field, data));
                         }
                     } catch (IllegalAccessException e) {
                         throw new RuntimeException(e);
@@ -132,19 +158,46 @@ public class ConsumerConstructor {
         };
     }
 
+    private static Object getValue(Field field, Object data) throws IllegalAccessException {
+        if (data == null) return null;
+        Object value = field.get(data);
+        return value instanceof Lazy ? ((Lazy<?>) value).get() : value;
+    }
+
+    private static boolean isLoaded(Field field, Object data) {
+        try {
+            Lazy<?> lazy = (Lazy<?>) field.get(data);
+            return lazy == null || lazy.isLoaded();
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Class<?> getLazyType(Field field) {
+        Type type = field.getGenericType();
+        if (type instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (argument instanceof ParameterizedType) argument = ((ParameterizedType) argument).getRawType();
+            if (argument instanceof Class) return (Class<?>) argument;
+        }
+        throw new IllegalArgumentException("Lazy field " + field.getName() + " must declare its value type");
+    }
+
     /**
      * Converts a type to a schema column.
      * <p>
      * The type is converted to a column in the schema as follows:
      * <ul>
      *     <li>{@code string}: a string column with a length of 255 characters if the object is null, otherwise a string column with the length of the object.toString()</li>
-     *     <li>{@code longtext}: a long text column</li>
+     *     <li>{@code longtext}: a long text column if the object is null, otherwise a long text column with the value of the object</li>
      *     <li>{@code integer}, {@code int}, {@code long}, {@code bigint}: a big int column if the object is null, otherwise a big int column with the value of the object as a long</li>
      *     <li>{@code boolean}: a boolean column if the object is null, otherwise a boolean column with the value of the object as a boolean</li>
-     *     <li>{@code double}, {@code float}, {@code bigdecimal}: a decimal column if the object is null, otherwise a decimal column with the value of the object as a double</li>
+     *     <li>{@code double}, {@code float}, {@code bigdecimal}: a decimal column if the object is null, otherwise a decimal column with the value of the object</li>
      *     <li>{@code uuid}: a uuid column if the object is null, otherwise a uuid column with the value of the object as a uuid</li>
      *     <li>{@code date}: a date column with the value of the object as a date</li>
      *     <li>{@code timestamp}: a timestamp column with the value of the object as a date</li>
+     *     <li>{@code instant}, {@code localdatetime}: a datetime column if the object is null, otherwise a datetime column with the value of the object</li>
+     *     <li>{@code localdate}: a date column if the object is null, otherwise a date column with the value of the object</li>
      * </ul>
      * <p>
      * If the type is not supported, an {@link IllegalArgumentException} is thrown.
@@ -164,7 +217,11 @@ public class ConsumerConstructor {
                 schema.string(name, object.toString());
                 break;
             case "longtext":
-                schema.longText(name);
+                if (object == null) {
+                    schema.longText(name);
+                    break;
+                }
+                schema.longText(name, object.toString());
                 break;
             case "integer":
             case "int":
@@ -174,7 +231,7 @@ public class ConsumerConstructor {
                     schema.bigInt(name);
                     break;
                 }
-                schema.bigInt(name, Long.parseLong(object.toString()));
+                schema.bigInt(name, object instanceof Number ? ((Number) object).longValue() : Long.parseLong(object.toString()));
                 break;
             case "boolean":
                 if (object == null) {
@@ -190,7 +247,7 @@ public class ConsumerConstructor {
                     schema.decimal(name);
                     break;
                 }
-                schema.decimal(name, (Double) object);
+                schema.decimal(name, (Number) object);
                 break;
             case "uuid":
                 if (object == null) {
@@ -205,11 +262,88 @@ public class ConsumerConstructor {
             case "timestamp":
                 schema.timestamp(name).nullable();
                 break;
+            case "instant":
+                if (object == null) {
+                    schema.dateTime(name).nullable();
+                    break;
+                }
+                schema.instant(name, (Instant) object);
+                break;
+            case "localdatetime":
+                if (object == null) {
+                    schema.dateTime(name).nullable();
+                    break;
+                }
+                schema.dateTime(name, (LocalDateTime) object);
+                break;
+            case "localdate":
+                if (object == null) {
+                    schema.localDate(name).nullable();
+                    break;
+                }
+                schema.localDate(name, (LocalDate) object);
+                break;
             default:
                 throw new IllegalArgumentException("Type " + type + " is not supported");
         }
     }
 
+    /**
+     * Adds a column storing a date as milliseconds since the epoch, see {@link Column#epochMillis()}.
+     *
+     * @param schema the schema to add the column to
+     * @param name   the name of the column
+     * @param object the date value, or null if no value is provided
+     */
+    private static void handleEpochMillis(Schema schema, String name, Object object) {
+        if (object == null) {
+            schema.epochMillis(name).nullable();
+        } else if (object instanceof Instant) {
+            schema.epochMillis(name, (Instant) object);
+        } else if (object instanceof LocalDateTime) {
+            schema.epochMillis(name, ((LocalDateTime) object).atZone(TypeConverters.getTimeZone()).toInstant());
+        } else if (object instanceof LocalDate) {
+            schema.epochMillis(name, ((LocalDate) object).atStartOfDay(TypeConverters.getTimeZone()).toInstant());
+        } else if (object instanceof Date) {
+            schema.epochMillis(name, Instant.ofEpochMilli(((Date) object).getTime()));
+        } else {
+            throw new IllegalArgumentException("Epoch millis storage is not supported for " + object.getClass().getName());
+        }
+    }
+
+    /**
+     * Gets the name of the column mapped to the given field.
+     * The name is the value of the {@link Column} annotation if present, otherwise the field name.
+     *
+     * @param field the field
+     * @return the name of the column
+     */
+    public static String getColumnName(Field field) {
+        Column column = field.getAnnotation(Column.class);
+        if (column != null && !column.value().isEmpty()) {
+            return column.value();
+        }
+        return field.getName();
+    }
+
+    /**
+     * Finds the field of the template class mapped to the given column.
+     *
+     * @param template   the template class
+     * @param columnName the name of the column
+     * @return the accessible field mapped to the column
+     * @throws IllegalArgumentException if no field is mapped to the column
+     */
+    public static Field getColumnField(Class<?> template, String columnName) {
+        for (Field field : template.getDeclaredFields()) {
+            if (!field.isSynthetic() && getColumnName(field).equals(columnName)) {
+                field.setAccessible(true);
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("No field mapped to column " + columnName + " in " + template.getName());
+    }
+
     /**
      * Checks if the given class is an enum type.
      *
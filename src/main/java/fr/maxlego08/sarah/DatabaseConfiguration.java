@@ -2,6 +2,9 @@ package fr.maxlego08.sarah;
 
 import fr.maxlego08.sarah.database.DatabaseType;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -20,6 +23,7 @@ public class DatabaseConfiguration {
     private final DatabaseType databaseType;
     private final Integer maximumPoolSize;
     private final Integer minimumIdle;
+    private final List<DatabaseEndpoint> readReplicas;
 
     public DatabaseConfiguration(String tablePrefix, String user, String password, int port, String host,
                                  String database, boolean debug, DatabaseType databaseType) {
@@ -29,6 +33,12 @@ public class DatabaseConfiguration {
     public DatabaseConfiguration(String tablePrefix, String user, String password, int port, String host,
                                  String database, boolean debug, DatabaseType databaseType,
                                  Integer maximumPoolSize, Integer minimumIdle) {
+        this(tablePrefix, user, password, port, host, database, debug, databaseType, maximumPoolSize, minimumIdle, Collections.emptyList());
+    }
+
+    public DatabaseConfiguration(String tablePrefix, String user, String password, int port, String host,
+                                 String database, boolean debug, DatabaseType databaseType,
+                                 Integer maximumPoolSize, Integer minimumIdle, List<DatabaseEndpoint> readReplicas) {
         this.tablePrefix = tablePrefix;
         this.user = user;
         this.password = password;
@@ -39,6 +49,7 @@ public class DatabaseConfiguration {
         this.databaseType = databaseType;
         this.maximumPoolSize = maximumPoolSize;
         this.minimumIdle = minimumIdle;
+        this.readReplicas = Collections.unmodifiableList(new ArrayList<>(readReplicas));
     }
 
     public static DatabaseConfiguration create(String user, String password, int port, String host, String database, DatabaseType databaseType) {
@@ -121,9 +132,33 @@ public class DatabaseConfiguration {
         return minimumIdle;
     }
 
+    /**
+     * Gets the read replicas, selects are routed to them by {@link HikariDatabaseConnection}.
+     *
+     * @return the read replicas, empty if every query uses the primary
+     */
+    public List<DatabaseEndpoint> getReadReplicas() {
+        return readReplicas;
+    }
+
     public DatabaseConfiguration withPoolSettings(Integer maximumPoolSize, Integer minimumIdle) {
         return new DatabaseConfiguration(this.tablePrefix, this.user, this.password, this.port, this.host,
-                this.database, this.debug, this.databaseType, maximumPoolSize, minimumIdle);
+                this.database, this.debug, this.databaseType, maximumPoolSize, minimumIdle, this.readReplicas);
+    }
+
+    /**
+     * Returns a copy of this configuration with an additional read replica.
+     * The replica uses the same user, password and database as the primary.
+     *
+     * @param host the host of the replica
+     * @param port the port of the replica
+     * @return a new configuration including the replica
+     */
+    public DatabaseConfiguration withReadReplica(String host, int port) {
+        List<DatabaseEndpoint> replicas = new ArrayList<>(this.readReplicas);
+        replicas.add(new DatabaseEndpoint(host, port));
+        return new DatabaseConfiguration(this.tablePrefix, this.user, this.password, this.port, this.host,
+                this.database, this.debug, this.databaseType, this.maximumPoolSize, this.minimumIdle, replicas);
     }
 
     @Override
@@ -140,12 +175,13 @@ public class DatabaseConfiguration {
                 Objects.equals(database, that.database) &&
                 databaseType == that.databaseType &&
                 Objects.equals(maximumPoolSize, that.maximumPoolSize) &&
-                Objects.equals(minimumIdle, that.minimumIdle);
+                Objects.equals(minimumIdle, that.minimumIdle) &&
+                Objects.equals(readReplicas, that.readReplicas);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(tablePrefix, user, password, port, host, database, debug, databaseType, maximumPoolSize, minimumIdle);
+        return Objects.hash(tablePrefix, user, password, port, host, database, debug, databaseType, maximumPoolSize, minimumIdle, readReplicas);
     }
 
     @Override
@@ -161,6 +197,7 @@ public class DatabaseConfiguration {
                 ", databaseType=" + databaseType +
                 ", maximumPoolSize=" + maximumPoolSize +
                 ", minimumIdle=" + minimumIdle +
+                ", readReplicas=" + readReplicas +
                 '}';
     }
 }
@@ -1,8 +1,12 @@
 package fr.maxlego08.sarah;
 
+import fr.maxlego08.sarah.batching.GroupCommitter;
+import fr.maxlego08.sarah.coalescing.SelectCoalescer;
 import fr.maxlego08.sarah.database.DatabaseType;
+import fr.maxlego08.sarah.diagnostics.RepeatedQueryDetector;
 import fr.maxlego08.sarah.exceptions.DatabaseException;
 import fr.maxlego08.sarah.logger.Logger;
+import fr.maxlego08.sarah.requests.ReturningRequest;
 import fr.maxlego08.sarah.transaction.Transaction;
 
 import java.sql.Connection;
@@ -16,7 +20,12 @@ public abstract class DatabaseConnection {
 
     protected final DatabaseConfiguration databaseConfiguration;
     protected final Logger logger;
+    protected final SelectCoalescer selectCoalescer = new SelectCoalescer();
     protected Connection connection;
+    private volatile boolean selectCoalescing = false;
+    private volatile GroupCommitter groupCommitter;
+    private volatile Boolean returningSupported;
+    private volatile RepeatedQueryDetector queryDetector;
 
     public DatabaseConnection(DatabaseConfiguration databaseConfiguration, Logger logger) {
         this.databaseConfiguration = databaseConfiguration;
@@ -32,6 +41,127 @@ public abstract class DatabaseConnection {
         return databaseConfiguration;
     }
 
+    /**
+     * Checks if identical concurrent selects share a single query.
+     *
+     * @return true if select coalescing is enabled, false otherwise
+     */
+    public boolean isSelectCoalescing() {
+        return selectCoalescing;
+    }
+
+    /**
+     * Enables or disables select coalescing.
+     * When enabled, concurrent selects with the same SQL and the same parameters share one in-flight query
+     * and its result instead of each taking a connection. Results are not cached once the query completes.
+     *
+     * @param selectCoalescing true to enable select coalescing
+     */
+    public void setSelectCoalescing(boolean selectCoalescing) {
+        this.selectCoalescing = selectCoalescing;
+    }
+
+    /**
+     * Gets the coalescer sharing in-flight selects of this connection.
+     *
+     * @return the select coalescer
+     */
+    public SelectCoalescer getSelectCoalescer() {
+        return selectCoalescer;
+    }
+
+    /**
+     * Gets the group committer used by single-row inserts and upserts.
+     *
+     * @return the group committer, or null if group commit is disabled
+     */
+    public GroupCommitter getGroupCommitter() {
+        return groupCommitter;
+    }
+
+    /**
+     * Enables group commit for single-row inserts and upserts.
+     * Concurrent writes with the same SQL are collected for up to {@code windowMillis} milliseconds,
+     * or until {@code maxRows} rows are waiting, then executed together in one transaction.
+     * Each caller still receives its own result or exception.
+     *
+     * @param windowMillis the maximum time a write waits for other writes, in milliseconds
+     * @param maxRows      the number of waiting writes that executes a group immediately
+     */
+    public void enableGroupCommit(long windowMillis, int maxRows) {
+        this.groupCommitter = new GroupCommitter(windowMillis, maxRows);
+    }
+
+    /**
+     * Disables group commit, single-row writes are executed immediately.
+     */
+    public void disableGroupCommit() {
+        this.groupCommitter = null;
+    }
+
+    /**
+     * Gets the detector of repeated queries.
+     *
+     * @return the detector, or null if query detection is disabled
+     */
+    public RepeatedQueryDetector getQueryDetector() {
+        return queryDetector;
+    }
+
+    /**
+     * Enables the detection of N+1 query patterns, meant for debugging and instrumentation.
+     * Selects and single-row writes are grouped by the shape of their SQL, ignoring their values, and a warning with
+     * the stack trace of the caller is logged when a shape runs more than {@code threshold} times within
+     * {@code windowMillis} milliseconds or within one {@link Transaction}.
+     *
+     * @param threshold    the number of executions of a statement allowed within the window or a transaction
+     * @param windowMillis the length of the window, in milliseconds
+     * @see RepeatedQueryDetector
+     */
+    public void enableQueryDetection(int threshold, long windowMillis) {
+        this.queryDetector = new RepeatedQueryDetector(threshold, windowMillis);
+    }
+
+    /**
+     * Disables the detection of N+1 query patterns.
+     */
+    public void disableQueryDetection() {
+        this.queryDetector = null;
+    }
+
+    /**
+     * Records the execution of a statement in the detector of repeated queries, if it is enabled.
+     *
+     * @param sql    the SQL of the statement
+     * @param logger the logger receiving the warnings
+     */
+    public void recordQuery(String sql, Logger logger) {
+        RepeatedQueryDetector detector = this.queryDetector;
+        if (detector != null) {
+            detector.record(sql, logger);
+        }
+    }
+
+    /**
+     * Checks if the database supports {@code INSERT ... RETURNING}.
+     * The server version is read once, on the first call.
+     *
+     * @return true if the RETURNING clause is supported
+     */
+    public boolean isReturningSupported() {
+        Boolean supported = this.returningSupported;
+        if (supported == null) {
+            try (Connection connection = getConnection()) {
+                supported = ReturningRequest.isReturningSupported(this.databaseConfiguration.getDatabaseType(), connection.getMetaData().getDatabaseProductVersion());
+            } catch (SQLException exception) {
+                this.logger.info("Failed to read the database version: " + exception.getMessage());
+                return false;
+            }
+            this.returningSupported = supported;
+        }
+        return supported;
+    }
+
     /**
      * Checks if the connection to the database is valid.
      *
@@ -120,6 +250,16 @@ public abstract class DatabaseConnection {
         return connection;
     }
 
+    /**
+     * Gets a connection for read-only queries.
+     * Connections with read replicas return a replica connection, others return {@link #getConnection()}.
+     *
+     * @return a connection suitable for selects
+     */
+    public Connection getReadConnection() {
+        return getConnection();
+    }
+
     /**
      * Begins a new database transaction.
      * Use try-with-resources to ensure proper cleanup:
@@ -134,9 +274,12 @@ public abstract class DatabaseConnection {
      * @throws DatabaseException if the transaction cannot be started
      */
     public Transaction beginTransaction() {
+        RepeatedQueryDetector detector = this.queryDetector;
+        Runnable endDetection = detector == null ? null : detector.beginTransaction();
         try {
-            return new Transaction(getConnection());
+            return new Transaction(getConnection(), endDetection);
         } catch (SQLException exception) {
+            if (endDetection != null) endDetection.run();
             this.logger.info("Failed to begin transaction: " + exception.getMessage());
             throw new DatabaseException("begin-transaction", exception);
         }
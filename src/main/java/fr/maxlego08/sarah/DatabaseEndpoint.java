@@ -0,0 +1,44 @@
+package fr.maxlego08.sarah;
+
+import java.util.Objects;
+
+/**
+ * Represents the address of a database server, used to declare read replicas.
+ * Replicas share the user, password and database name of the primary {@link DatabaseConfiguration}.
+ */
+public class DatabaseEndpoint {
+
+    private final String host;
+    private final int port;
+
+    public DatabaseEndpoint(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DatabaseEndpoint that = (DatabaseEndpoint) o;
+        return port == that.port && Objects.equals(host, that.host);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(host, port);
+    }
+
+    @Override
+    public String toString() {
+        return host + ":" + port;
+    }
+}
@@ -9,7 +9,9 @@ import fr.maxlego08.sarah.logger.Logger;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -26,6 +28,8 @@ public class HikariDatabaseConnection extends DatabaseConnection {
     private static final long CONNECTION_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
     private static final long LEAK_DETECTION_THRESHOLD = TimeUnit.SECONDS.toMillis(10);
 
+    private final List<HikariDataSource> replicaDataSources = new ArrayList<>();
+    private final AtomicInteger replicaCounter = new AtomicInteger(0);
     private HikariDataSource dataSource;
 
     public HikariDatabaseConnection(DatabaseConfiguration databaseConfiguration, Logger logger) {
@@ -34,18 +38,30 @@ public class HikariDatabaseConnection extends DatabaseConnection {
     }
 
     private void initializeDataSource() {
+        int poolId = POOL_COUNTER.getAndIncrement();
+        this.dataSource = this.createDataSource("sarah-" + poolId, databaseConfiguration.getHost(), databaseConfiguration.getPort(), false);
+
+        List<DatabaseEndpoint> readReplicas = databaseConfiguration.getReadReplicas();
+        for (int i = 0; i < readReplicas.size(); i++) {
+            DatabaseEndpoint replica = readReplicas.get(i);
+            this.replicaDataSources.add(this.createDataSource("sarah-" + poolId + "-replica-" + i, replica.getHost(), replica.getPort(), true));
+        }
+    }
+
+    private HikariDataSource createDataSource(String poolName, String host, int port, boolean readOnly) {
         HikariConfig config = new HikariConfig();
-        config.setPoolName("sarah-" + POOL_COUNTER.getAndIncrement());
+        config.setPoolName(poolName);
+        config.setReadOnly(readOnly);
 
         DatabaseType databaseType = databaseConfiguration.getDatabaseType();
 
         // URL + Driver
         final String jdbcUrl;
         if (databaseType == DatabaseType.MARIADB) {
-            jdbcUrl = "jdbc:mariadb://" + databaseConfiguration.getHost() + ":" + databaseConfiguration.getPort() + "/" + databaseConfiguration.getDatabase() + "?allowMultiQueries=true";
+            jdbcUrl = "jdbc:mariadb://" + host + ":" + port + "/" + databaseConfiguration.getDatabase() + "?allowMultiQueries=true";
             config.setDriverClassName("org.mariadb.jdbc.Driver");
         } else {
-            jdbcUrl = "jdbc:mysql://" + databaseConfiguration.getHost() + ":" + databaseConfiguration.getPort() + "/" + databaseConfiguration.getDatabase() + "?allowMultiQueries=true";
+            jdbcUrl = "jdbc:mysql://" + host + ":" + port + "/" + databaseConfiguration.getDatabase() + "?allowMultiQueries=true";
             config.setDriverClassName("com.mysql.cj.jdbc.Driver");
         }
         config.setJdbcUrl(jdbcUrl);
@@ -98,7 +114,7 @@ public class HikariDatabaseConnection extends DatabaseConnection {
             config.addDataSourceProperty(e.getKey(), e.getValue());
         }
 
-        this.dataSource = new HikariDataSource(config);
+        return new HikariDataSource(config);
     }
 
     @Override
@@ -116,6 +132,11 @@ public class HikariDatabaseConnection extends DatabaseConnection {
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
         }
+        for (HikariDataSource replicaDataSource : this.replicaDataSources) {
+            if (!replicaDataSource.isClosed()) {
+                replicaDataSource.close();
+            }
+        }
     }
 
     @Override
@@ -133,6 +154,27 @@ public class HikariDatabaseConnection extends DatabaseConnection {
         }
     }
 
+    /**
+     * Gets a connection from the read replicas, chosen in round-robin.
+     * Falls back to the primary when no replica is configured or the replica is unavailable.
+     *
+     * @return a connection suitable for selects
+     */
+    @Override
+    public Connection getReadConnection() {
+        if (this.replicaDataSources.isEmpty()) {
+            return getConnection();
+        }
+
+        int index = Math.floorMod(this.replicaCounter.getAndIncrement(), this.replicaDataSources.size());
+        try {
+            return this.replicaDataSources.get(index).getConnection();
+        } catch (SQLException exception) {
+            this.logger.info("Failed to get connection from replica pool, falling back to primary: " + exception.getMessage());
+            return getConnection();
+        }
+    }
+
     @Override
     protected boolean isConnected(Connection connection) {
         try {
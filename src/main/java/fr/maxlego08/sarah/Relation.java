@@ -0,0 +1,33 @@
+package fr.maxlego08.sarah;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Marks a {@code List<Child>} field holding the rows of another table that reference the row of the object.
+ * The field has no column, it is filled by {@link RequestHelper#selectGraph(String, Class, java.util.function.Consumer)}
+ * with one query per relation for the whole result, see {@link fr.maxlego08.sarah.graph.GraphLoader}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Relation {
+
+    /**
+     * The table of the children.
+     */
+    String table();
+
+    /**
+     * The column of the child table referencing the parent.
+     */
+    String foreignKey();
+
+    /**
+     * The column of the parent referenced by the children, the primary key of the parent by default.
+     */
+    String key() default "";
+
+    /**
+     * The column ordering the children of a parent, none by default.
+     */
+    String orderBy() default "";
+}
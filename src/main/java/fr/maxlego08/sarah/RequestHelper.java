@@ -1,28 +1,82 @@
 package fr.maxlego08.sarah;
 
-import fr.maxlego08.sarah.database.DatabaseType;
+import fr.maxlego08.sarah.conditions.ColumnDefinition;
+import fr.maxlego08.sarah.converter.RowMapper;
 import fr.maxlego08.sarah.database.Schema;
+import fr.maxlego08.sarah.database.SchemaType;
 import fr.maxlego08.sarah.exceptions.DatabaseException;
+import fr.maxlego08.sarah.graph.GraphLoader;
 import fr.maxlego08.sarah.logger.Logger;
+import fr.maxlego08.sarah.requests.BulkUpdateRequest;
+import fr.maxlego08.sarah.requests.DeleteBatchRequest;
 import fr.maxlego08.sarah.requests.InsertBatchRequest;
+import fr.maxlego08.sarah.requests.StreamingBatchRequest;
 import fr.maxlego08.sarah.requests.UpdateBatchRequest;
 import fr.maxlego08.sarah.requests.UpsertBatchRequest;
+import fr.maxlego08.sarah.result.ColumnarResult;
+import fr.maxlego08.sarah.result.CompactRow;
+import fr.maxlego08.sarah.result.DoubleArray;
+import fr.maxlego08.sarah.result.IntArray;
+import fr.maxlego08.sarah.result.LongArray;
+import fr.maxlego08.sarah.result.RowHandler;
+import fr.maxlego08.sarah.result.RowHeader;
+import fr.maxlego08.sarah.sequence.SequenceAllocator;
+import fr.maxlego08.sarah.stream.StreamHandler;
+import fr.maxlego08.sarah.tracking.ChangeTracker;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 public class RequestHelper {
 
+    // Above this size, larger IN lists only make statements bigger without reducing round-trips significantly
+    private static final int KEY_CHUNK_SIZE = 1000;
+
     private final DatabaseConnection connection;
     private final Logger logger;
+    private final Executor executor;
+    private ChangeTracker changeTracker;
+    private SequenceAllocator sequenceAllocator;
 
     public RequestHelper(DatabaseConnection connection, Logger logger) {
+        this(connection, logger, null);
+    }
+
+    /**
+     * Creates a request helper that runs independent chunks of multi-key operations concurrently.
+     * The executor should only be provided with a pooled connection, such as {@link HikariDatabaseConnection}.
+     *
+     * @param connection the database connection
+     * @param logger     the logger
+     * @param executor   the executor used to run chunks concurrently, or null to run them sequentially
+     */
+    public RequestHelper(DatabaseConnection connection, Logger logger, Executor executor) {
         this.connection = connection;
         this.logger = logger;
+        this.executor = executor;
     }
 
     /**
@@ -36,7 +90,28 @@ public class RequestHelper {
      * @param data      the data to be inserted or updated
      */
     public <T> void upsert(String tableName, Class<T> clazz, T data) {
-        this.upsert(tableName, ConsumerConstructor.createConsumerFromTemplate(clazz, data));
+        if (this.changeTracker == null) {
+            this.upsert(tableName, ConsumerConstructor.createConsumerFromTemplate(clazz, data));
+            return;
+        }
+
+        Schema schema = SchemaBuilder.upsert(tableName, ConsumerConstructor.createConsumerFromTemplate(clazz, data));
+        try {
+            if (this.changeTracker.isTracked(schema)) {
+                Schema changes = this.changeTracker.diff(schema);
+                if (changes == null) return;
+                // The row may have been deleted since its snapshot, in that case it is written again
+                if (changes.execute(this.connection, this.logger) > 0) {
+                    this.changeTracker.record(schema);
+                    return;
+                }
+            }
+            schema.execute(this.connection, this.logger);
+            this.changeTracker.record(schema);
+        } catch (SQLException exception) {
+            this.logger.info("Upsert operation failed on table: " + tableName + " - " + exception.getMessage());
+            throw new DatabaseException("upsert", tableName, exception);
+        }
     }
 
     /**
@@ -82,7 +157,25 @@ public class RequestHelper {
      * @param data      the data to be inserted
      */
     public <T> void insert(String tableName, Class<T> clazz, T data) {
-        this.insert(tableName, ConsumerConstructor.createConsumerFromTemplate(clazz, data));
+        this.assignSequenceIds(tableName, clazz, Collections.singletonList(data));
+        if (this.changeTracker == null) {
+            this.insert(tableName, ConsumerConstructor.createConsumerFromTemplate(clazz, data));
+            return;
+        }
+
+        Schema schema = SchemaBuilder.insert(tableName, ConsumerConstructor.createConsumerFromTemplate(clazz, data));
+        try {
+            schema.execute(this.connection, this.logger);
+        } catch (SQLException exception) {
+            this.logger.info("Insert operation failed on table: " + tableName + " - " + exception.getMessage());
+            throw new DatabaseException("insert", tableName, exception);
+        }
+        // A key generated by the database is not in the schema, the row is tracked once it is loaded
+        for (ColumnDefinition column : schema.getColumns()) {
+            Object value = column.getObject();
+            if (column.isPrimaryKey() && (value == null || value instanceof Number && ((Number) value).longValue() == 0)) return;
+        }
+        this.changeTracker.record(schema);
     }
 
     /**
@@ -132,6 +225,72 @@ public class RequestHelper {
         }
     }
 
+    /**
+     * Inserts a DTO and returns the inserted row, with its generated keys and default values, in one round-trip
+     * when the database supports {@code RETURNING}.
+     *
+     * @param tableName the name of the table
+     * @param clazz     the class template
+     * @param data      the data to be inserted
+     * @param <T>       the type of the DTO
+     * @return the inserted row
+     * @see Schema#executeReturning(DatabaseConnection, Logger, String...)
+     */
+    public <T> T insertReturning(String tableName, Class<T> clazz, T data) {
+        this.assignSequenceIds(tableName, clazz, Collections.singletonList(data));
+        return this.mapReturning(tableName, clazz, this.insertReturning(tableName, ConsumerConstructor.createConsumerFromTemplate(clazz, data)));
+    }
+
+    /**
+     * Inserts a row and returns the chosen columns of the inserted row.
+     *
+     * @param tableName the name of the table
+     * @param consumer  the consumer that defines the columns and values to be inserted
+     * @param columns   the columns to return, or no column to return every column
+     * @return the inserted row, mapped by column name
+     */
+    public Map<String, Object> insertReturning(String tableName, Consumer<Schema> consumer, String... columns) {
+        return SchemaBuilder.insert(tableName, consumer).executeReturning(this.connection, this.logger, columns);
+    }
+
+    /**
+     * Inserts or updates a DTO and returns the resulting row, in one round-trip when the database supports
+     * {@code RETURNING} for upserts.
+     *
+     * @param tableName the name of the table
+     * @param clazz     the class template
+     * @param data      the data to be inserted or updated
+     * @param <T>       the type of the DTO
+     * @return the row after the upsert
+     * @see Schema#executeReturning(DatabaseConnection, Logger, String...)
+     */
+    public <T> T upsertReturning(String tableName, Class<T> clazz, T data) {
+        return this.mapReturning(tableName, clazz, this.upsertReturning(tableName, ConsumerConstructor.createConsumerFromTemplate(clazz, data)));
+    }
+
+    /**
+     * Inserts or updates a row and returns the chosen columns of the resulting row.
+     *
+     * @param tableName the name of the table
+     * @param consumer  the consumer that defines the columns and values to be inserted or updated
+     * @param columns   the columns to return, or no column to return every column
+     * @return the row after the upsert, mapped by column name
+     */
+    public Map<String, Object> upsertReturning(String tableName, Consumer<Schema> consumer, String... columns) {
+        return SchemaBuilder.upsert(tableName, consumer).executeReturning(this.connection, this.logger, columns);
+    }
+
+    private <T> T mapReturning(String tableName, Class<T> clazz, Map<String, Object> row) {
+        if (row.isEmpty()) return null;
+        try {
+            // The returned row is the state of the database after the write, read from the primary
+            return this.trackLoaded(tableName, clazz, true, SchemaBuilder.select(tableName).transformResults(Collections.singletonList(row), clazz)).get(0);
+        } catch (Exception exception) {
+            this.logger.info("Returning operation failed on table: " + tableName + " - " + exception.getMessage());
+            throw new DatabaseException("returning", tableName, exception);
+        }
+    }
+
     /**
      * Executes a select count(*) query on the specified table using the given schema.
      * The schema builder should have a consumer that defines the columns and values to be used in the query.
@@ -152,6 +311,43 @@ public class RequestHelper {
         return 0L;
     }
 
+    /**
+     * Checks whether at least one row of the specified table matches the given schema.
+     * Unlike {@link #count(String, Consumer)}, the query stops at the first matching row.
+     *
+     * @param tableName the name of the table
+     * @param consumer  the consumer that defines the columns and values to be used in the query
+     * @return true if at least one row matches, false otherwise
+     */
+    public boolean exists(String tableName, Consumer<Schema> consumer) {
+        Schema schema = SchemaBuilder.select(tableName);
+        consumer.accept(schema);
+        try {
+            return schema.executeExists(this.connection, this.logger);
+        } catch (SQLException exception) {
+            this.logger.info("Exists operation failed on table: " + tableName + " - " + exception.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves an approximate number of rows of the specified table from the database statistics.
+     * This is much cheaper than {@link #count(String, Consumer)} on large tables, but the value may be outdated.
+     * An exact count is executed when the database has no statistics for the table.
+     *
+     * @param tableName the name of the table
+     * @return the approximate number of rows
+     */
+    public long approximateCount(String tableName) {
+        Schema schema = SchemaBuilder.selectCount(tableName);
+        try {
+            return schema.executeApproximateCount(this.connection, this.logger);
+        } catch (SQLException exception) {
+            this.logger.info("Approximate count operation failed on table: " + tableName + " - " + exception.getMessage());
+        }
+        return 0L;
+    }
+
     /**
      * Executes a select query on the specified table using the given schema.
      * The schema builder should have a consumer that defines the columns and values to be used in the query.
@@ -165,14 +361,47 @@ public class RequestHelper {
     public <T> List<T> select(String tableName, Class<T> clazz, Consumer<Schema> consumer) {
         Schema schema = SchemaBuilder.select(tableName);
         consumer.accept(schema);
+        // Only complete rows can be used as snapshots, lazy columns are left out of them
+        boolean completeRows = schema.getSelectColumns().isEmpty();
         try {
-            return schema.executeSelect(clazz, this.connection, this.logger);
+            List<T> results = schema.executeSelect(clazz, this.connection, this.logger);
+            if (completeRows) {
+                this.trackLoaded(tableName, clazz, schema.isReadFromPrimary(), results);
+            }
+            return results;
         } catch (Exception exception) {
             this.logger.info("Select operation failed on table: " + tableName + " - " + exception.getMessage());
         }
         return new ArrayList<>();
     }
 
+    /**
+     * Executes a select query on the specified table and maps the rows to objects with their {@link Relation} fields.
+     * The children of each relation are loaded for all the rows with one {@code IN} query per chunk of keys,
+     * instead of one query per row, and their own relations are loaded the same way.
+     *
+     * @param tableName the name of the table
+     * @param clazz     the class type of the objects in the result list
+     * @param consumer  the consumer that defines the conditions of the query
+     * @return the objects with their children, or an empty list if the query fails
+     * @see GraphLoader
+     */
+    public <T> List<T> selectGraph(String tableName, Class<T> clazz, Consumer<Schema> consumer) {
+        Schema schema = SchemaBuilder.select(tableName);
+        consumer.accept(schema);
+        boolean completeRows = schema.getSelectColumns().isEmpty();
+        try {
+            List<T> results = new GraphLoader(this.connection, this.logger).load(schema, clazz);
+            if (completeRows) {
+                this.trackLoaded(tableName, clazz, schema.isReadFromPrimary(), results);
+            }
+            return results;
+        } catch (Exception exception) {
+            this.logger.info("SelectGraph operation failed on table: " + tableName + " - " + exception.getMessage());
+        }
+        return new ArrayList<>();
+    }
+
     /**
      * Executes a select query on the specified table using the given schema.
      * The schema builder should have a consumer that defines the columns and values to be used in the query.
@@ -205,13 +434,375 @@ public class RequestHelper {
     public <T> List<T> selectAll(String tableName, Class<T> clazz) {
         Schema schema = SchemaBuilder.select(tableName);
         try {
-            return schema.executeSelect(clazz, this.connection, this.logger);
+            return this.trackLoaded(tableName, clazz, false, schema.executeSelect(clazz, this.connection, this.logger));
         } catch (Exception exception) {
             this.logger.info("SelectAll operation failed on table: " + tableName + " - " + exception.getMessage());
         }
         return new ArrayList<>();
     }
 
+    /**
+     * Selects the rows matching the given keys and maps them by key.
+     * The keys are split into chunks that respect the bind parameter limit of the database, each chunk is
+     * executed with a typed {@code WHERE key IN (...)}, concurrently when an executor is configured.
+     * The keys must have the same type as the field mapped to the key column.
+     *
+     * @param tableName the name of the table
+     * @param clazz     the class type of the objects in the result
+     * @param keyColumn the name of the key column
+     * @param keys      the keys to select
+     * @param <K>       the type of the keys
+     * @param <T>       the type of the objects
+     * @return the selected objects, mapped by key
+     */
+    @SuppressWarnings("unchecked")
+    public <K, T> Map<K, T> selectByKeys(String tableName, Class<T> clazz, String keyColumn, Collection<K> keys) {
+        Map<K, T> results = new LinkedHashMap<>();
+        if (keys.isEmpty()) return results;
+
+        try {
+            Field keyField = ConsumerConstructor.getColumnField(clazz, keyColumn);
+            List<List<K>> chunks = this.partition(keys, this.getKeyChunkSize(1));
+            List<T> rows = this.executeChunks(chunks, chunk -> {
+                Schema schema = SchemaBuilder.select(tableName);
+                schema.whereIn(keyColumn, chunk);
+                // The chunks run the same statement, only the first one counts as a query of the caller
+                if (chunk != chunks.get(0)) schema.skipQueryDetection();
+                return schema.executeSelect(clazz, this.connection, this.logger);
+            });
+            for (T row : rows) {
+                results.put((K) keyField.get(row), row);
+            }
+            this.trackLoaded(tableName, clazz, false, rows);
+        } catch (Exception exception) {
+            this.logger.info("SelectByKeys operation failed on table: " + tableName + " - " + exception.getMessage());
+            results.clear();
+        }
+        return results;
+    }
+
+    /**
+     * Selects the rows matching the given composite keys and maps them by key.
+     * Each chunk is executed with a tuple {@code WHERE (key1, key2) IN ((?, ?), ...)}.
+     * Each key must contain one value per key column, with the same types as the mapped fields.
+     *
+     * @param tableName  the name of the table
+     * @param clazz      the class type of the objects in the result
+     * @param keyColumns the names of the key columns
+     * @param keys       the composite keys to select
+     * @param <T>        the type of the objects
+     * @return the selected objects, mapped by composite key
+     */
+    public <T> Map<List<Object>, T> selectByKeys(String tableName, Class<T> clazz, List<String> keyColumns, Collection<? extends List<?>> keys) {
+        Map<List<Object>, T> results = new LinkedHashMap<>();
+        if (keys.isEmpty()) return results;
+
+        try {
+            List<Field> keyFields = new ArrayList<>();
+            for (String keyColumn : keyColumns) {
+                keyFields.add(ConsumerConstructor.getColumnField(clazz, keyColumn));
+            }
+            List<List<List<?>>> chunks = this.partition(keys, this.getKeyChunkSize(keyColumns.size()));
+            List<T> rows = this.executeChunks(chunks, chunk -> {
+                Schema schema = SchemaBuilder.select(tableName);
+                schema.whereIn(keyColumns, chunk);
+                if (chunk != chunks.get(0)) schema.skipQueryDetection();
+                return schema.executeSelect(clazz, this.connection, this.logger);
+            });
+            for (T row : rows) {
+                List<Object> key = new ArrayList<>(keyFields.size());
+                for (Field keyField : keyFields) {
+                    key.add(keyField.get(row));
+                }
+                results.put(key, row);
+            }
+            this.trackLoaded(tableName, clazz, false, rows);
+        } catch (Exception exception) {
+            this.logger.info("SelectByKeys operation failed on table: " + tableName + " - " + exception.getMessage());
+            results.clear();
+        }
+        return results;
+    }
+
+    /**
+     * Gets the number of keys per chunk, so that a chunk never exceeds the bind parameter limit of the database.
+     *
+     * @param parametersPerKey the number of bind parameters used by each key
+     * @return the number of keys per chunk
+     */
+    private int getKeyChunkSize(int parametersPerKey) {
+        int maxParameters = this.connection.getDatabaseConfiguration().getDatabaseType().getMaxParameters();
+        return Math.max(1, Math.min(KEY_CHUNK_SIZE, maxParameters / parametersPerKey));
+    }
+
+    private <E> List<List<E>> partition(Collection<? extends E> elements, int chunkSize) {
+        List<List<E>> chunks = new ArrayList<>();
+        List<E> chunk = new ArrayList<>(Math.min(chunkSize, elements.size()));
+        for (E element : elements) {
+            chunk.add(element);
+            if (chunk.size() == chunkSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) chunks.add(chunk);
+        return chunks;
+    }
+
+    /**
+     * Executes each chunk and merges the results, concurrently on the executor if one is configured.
+     */
+    private <C, R> List<R> executeChunks(List<C> chunks, ChunkTask<C, R> task) throws Exception {
+        List<R> results = new ArrayList<>();
+        if (this.executor == null || chunks.size() == 1) {
+            for (C chunk : chunks) {
+                results.addAll(task.execute(chunk));
+            }
+            return results;
+        }
+
+        List<CompletableFuture<List<R>>> futures = new ArrayList<>(chunks.size());
+        for (C chunk : chunks) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.execute(chunk);
+                } catch (Exception exception) {
+                    throw new CompletionException(exception);
+                }
+            }, this.executor));
+        }
+
+        try {
+            for (CompletableFuture<List<R>> future : futures) {
+                results.addAll(future.join());
+            }
+        } catch (CompletionException exception) {
+            throw exception.getCause() instanceof Exception ? (Exception) exception.getCause() : exception;
+        }
+        return results;
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask<C, R> {
+        List<R> execute(C chunk) throws Exception;
+    }
+
+    /**
+     * Selects a single numeric column of the specified table into a long array, without boxing the values.
+     * NULL values are skipped.
+     *
+     * @param tableName the name of the table
+     * @param column    the column to select
+     * @param consumer  the consumer that defines the conditions of the query
+     * @return the values of the column, or an empty array if the query fails
+     */
+    public long[] selectLongs(String tableName, String column, Consumer<Schema> consumer) {
+        LongArray values = new LongArray();
+        return this.selectLongs(tableName, column, consumer, values::add) ? values.toArray() : new long[0];
+    }
+
+    /**
+     * Selects a single numeric column of the specified table and passes each value to the action as soon as it is read.
+     * No object is allocated per row. NULL values are skipped.
+     *
+     * @param tableName the name of the table
+     * @param column    the column to select
+     * @param consumer  the consumer that defines the conditions of the query
+     * @param action    the action called for each value
+     * @return true if the query succeeded, false otherwise
+     */
+    public boolean selectLongs(String tableName, String column, Consumer<Schema> consumer, LongConsumer action) {
+        return this.selectColumn(tableName, column, consumer, resultSet -> {
+            long value = resultSet.getLong(1);
+            if (!resultSet.wasNull()) action.accept(value);
+        });
+    }
+
+    /**
+     * Selects a single numeric column of the specified table into a int array, without boxing the values.
+     * NULL values are skipped.
+     *
+     * @param tableName the name of the table
+     * @param column    the column to select
+     * @param consumer  the consumer that defines the conditions of the query
+     * @return the values of the column, or an empty array if the query fails
+     */
+    public int[] selectInts(String tableName, String column, Consumer<Schema> consumer) {
+        IntArray values = new IntArray();
+        return this.selectInts(tableName, column, consumer, values::add) ? values.toArray() : new int[0];
+    }
+
+    /**
+     * Selects a single numeric column of the specified table and passes each value to the action as soon as it is read.
+     * No object is allocated per row. NULL values are skipped.
+     *
+     * @param tableName the name of the table
+     * @param column    the column to select
+     * @param consumer  the consumer that defines the conditions of the query
+     * @param action    the action called for each value
+     * @return true if the query succeeded, false otherwise
+     */
+    public boolean selectInts(String tableName, String column, Consumer<Schema> consumer, IntConsumer action) {
+        return this.selectColumn(tableName, column, consumer, resultSet -> {
+            int value = resultSet.getInt(1);
+            if (!resultSet.wasNull()) action.accept(value);
+        });
+    }
+
+    /**
+     * Selects a single numeric column of the specified table into a double array, without boxing the values.
+     * NULL values are skipped.
+     *
+     * @param tableName the name of the table
+     * @param column    the column to select
+     * @param consumer  the consumer that defines the conditions of the query
+     * @return the values of the column, or an empty array if the query fails
+     */
+    public double[] selectDoubles(String tableName, String column, Consumer<Schema> consumer) {
+        DoubleArray values = new DoubleArray();
+        return this.selectDoubles(tableName, column, consumer, values::add) ? values.toArray() : new double[0];
+    }
+
+    /**
+     * Selects a single numeric column of the specified table and passes each value to the action as soon as it is read.
+     * No object is allocated per row. NULL values are skipped.
+     *
+     * @param tableName the name of the table
+     * @param column    the column to select
+     * @param consumer  the consumer that defines the conditions of the query
+     * @param action    the action called for each value
+     * @return true if the query succeeded, false otherwise
+     */
+    public boolean selectDoubles(String tableName, String column, Consumer<Schema> consumer, DoubleConsumer action) {
+        return this.selectColumn(tableName, column, consumer, resultSet -> {
+            double value = resultSet.getDouble(1);
+            if (!resultSet.wasNull()) action.accept(value);
+        });
+    }
+
+    /**
+     * Selects a single text column of the specified table. NULL values are skipped.
+     *
+     * @param tableName the name of the table
+     * @param column    the column to select
+     * @param consumer  the consumer that defines the conditions of the query
+     * @return the values of the column, or an empty list if the query fails
+     */
+    public List<String> selectStrings(String tableName, String column, Consumer<Schema> consumer) {
+        List<String> values = new ArrayList<>();
+        return this.selectStrings(tableName, column, consumer, values::add) ? values : new ArrayList<>();
+    }
+
+    /**
+     * Selects a single text column of the specified table and passes each value to the action as soon as it is read.
+     * NULL values are skipped.
+     *
+     * @param tableName the name of the table
+     * @param column    the column to select
+     * @param consumer  the consumer that defines the conditions of the query
+     * @param action    the action called for each value
+     * @return true if the query succeeded, false otherwise
+     */
+    public boolean selectStrings(String tableName, String column, Consumer<Schema> consumer, Consumer<String> action) {
+        return this.selectColumn(tableName, column, consumer, resultSet -> {
+            String value = resultSet.getString(1);
+            if (value != null) action.accept(value);
+        });
+    }
+
+    /**
+     * Selects a single BLOB column of the specified table and passes the value of each row as a stream,
+     * with {@link java.sql.ResultSet#getBinaryStream(int)}, so that large values can be copied without
+     * being loaded into a byte array. NULL values are skipped.
+     *
+     * @param tableName the name of the table
+     * @param column    the column to select
+     * @param consumer  the consumer that defines the conditions of the query
+     * @param handler   the handler reading each value, the stream is closed after the call
+     * @return true if the query and every handler succeeded, false otherwise
+     */
+    public boolean selectBinaryStream(String tableName, String column, Consumer<Schema> consumer, StreamHandler<InputStream> handler) {
+        return this.selectColumn(tableName, column, consumer, resultSet -> {
+            try (InputStream stream = resultSet.getBinaryStream(1)) {
+                if (stream != null) handler.handle(stream);
+            } catch (IOException exception) {
+                throw new SQLException("Failed to read the stream of column " + column + ": " + exception.getMessage(), exception);
+            }
+        });
+    }
+
+    /**
+     * Selects a single text column of the specified table and passes the value of each row as a reader,
+     * with {@link java.sql.ResultSet#getCharacterStream(int)}, so that large values can be copied without
+     * being loaded into a string. NULL values are skipped.
+     *
+     * @param tableName the name of the table
+     * @param column    the column to select
+     * @param consumer  the consumer that defines the conditions of the query
+     * @param handler   the handler reading each value, the reader is closed after the call
+     * @return true if the query and every handler succeeded, false otherwise
+     */
+    public boolean selectCharacterStream(String tableName, String column, Consumer<Schema> consumer, StreamHandler<Reader> handler) {
+        return this.selectColumn(tableName, column, consumer, resultSet -> {
+            try (Reader reader = resultSet.getCharacterStream(1)) {
+                if (reader != null) handler.handle(reader);
+            } catch (IOException exception) {
+                throw new SQLException("Failed to read the stream of column " + column + ": " + exception.getMessage(), exception);
+            }
+        });
+    }
+
+    /**
+     * Executes a select query on the specified table and stores the result column by column.
+     * This uses much less memory than a list of maps for large results with few columns.
+     *
+     * @param tableName the name of the table
+     * @param consumer  the consumer that defines the columns and conditions of the query
+     * @return the result of the query, or an empty result if the query fails
+     */
+    public ColumnarResult selectColumnar(String tableName, Consumer<Schema> consumer) {
+        ColumnarResult result = new ColumnarResult();
+        return this.selectColumnar(tableName, consumer, result) ? result : new ColumnarResult();
+    }
+
+    /**
+     * Executes a select query on the specified table and appends its rows to an existing columnar result,
+     * so that a large table can be read chunk by chunk. Every chunk must select the same columns.
+     * The result should not be used anymore if the query fails.
+     *
+     * @param tableName the name of the table
+     * @param consumer  the consumer that defines the columns and conditions of the query
+     * @param result    the result the rows are appended to
+     * @return true if the query succeeded, false otherwise
+     */
+    public boolean selectColumnar(String tableName, Consumer<Schema> consumer, ColumnarResult result) {
+        Schema schema = SchemaBuilder.select(tableName);
+        consumer.accept(schema);
+        try {
+            schema.executeSelect(this.connection, this.logger, result);
+            return true;
+        } catch (SQLException exception) {
+            this.logger.info("Select operation failed on table: " + tableName + " - " + exception.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Selects a single column and streams its rows to the handler.
+     */
+    private boolean selectColumn(String tableName, String column, Consumer<Schema> consumer, RowHandler handler) {
+        Schema schema = SchemaBuilder.select(tableName);
+        schema.addSelect(column);
+        consumer.accept(schema);
+        try {
+            schema.executeSelect(this.connection, this.logger, handler);
+            return true;
+        } catch (SQLException exception) {
+            this.logger.info("Select operation failed on table: " + tableName + " - " + exception.getMessage());
+        }
+        return false;
+    }
+
     /**
      * Deletes rows from the specified table using the given schema.
      * The schema builder should have a consumer that defines the columns and values to be used in the query.
@@ -231,6 +822,41 @@ public class RequestHelper {
         }
     }
 
+    /**
+     * Executes a delete operation on a batch of schemas.
+     * The schemas are executed with JDBC batches on a single connection, inside one transaction:
+     * either every row is deleted, or none is.
+     *
+     * @param schemas a list of delete schemas
+     * @return the total number of deleted rows
+     */
+    public int deleteMultiple(List<Schema> schemas) {
+        DeleteBatchRequest request = new DeleteBatchRequest(schemas);
+        return request.execute(this.connection, this.connection.getDatabaseConfiguration(), this.logger);
+    }
+
+    /**
+     * Deletes the rows matching the given keys.
+     * The keys are split into {@code WHERE key IN (...)} chunks that respect the bind parameter limit of the database,
+     * and the chunks are executed as one JDBC batch inside one transaction.
+     *
+     * @param tableName the name of the table
+     * @param keyColumn the name of the key column
+     * @param keys      the keys of the rows to delete
+     * @return the total number of deleted rows
+     */
+    public int deleteByKeys(String tableName, String keyColumn, Collection<?> keys) {
+        if (keys.isEmpty()) return 0;
+
+        List<Schema> schemas = new ArrayList<>();
+        for (List<?> chunk : this.partition(keys, this.getKeyChunkSize(1))) {
+            Schema schema = SchemaBuilder.delete(tableName);
+            schema.whereIn(keyColumn, chunk);
+            schemas.add(schema);
+        }
+        return this.deleteMultiple(schemas);
+    }
+
     /**
      * Executes an upsert operation on a batch of schemas.
      * This method utilizes an UpsertBatchRequest to perform the upsert operation
@@ -261,7 +887,42 @@ public class RequestHelper {
             Schema schema = SchemaBuilder.upsert(tableName, ConsumerConstructor.createConsumerFromTemplate(clazz, data));
             schemas.add(schema);
         }
-        this.upsertMultiple(schemas);
+        if (this.changeTracker == null) {
+            this.upsertMultiple(schemas);
+            return;
+        }
+
+        List<Schema> untracked = new ArrayList<>();
+        List<Schema> changed = new ArrayList<>();
+        List<Schema> changes = new ArrayList<>();
+        for (Schema schema : schemas) {
+            if (!this.changeTracker.isTracked(schema)) {
+                untracked.add(schema);
+                continue;
+            }
+            Schema change = this.changeTracker.diff(schema);
+            if (change != null) {
+                changed.add(schema);
+                changes.add(change);
+            }
+        }
+
+        if (!changes.isEmpty()) {
+            UpdateBatchRequest request = new UpdateBatchRequest(changes);
+            int[] counts = request.executeCounts(this.connection, this.connection.getDatabaseConfiguration(), this.logger);
+            for (int i = 0; i < counts.length; i++) {
+                // The row may have been deleted since its snapshot, in that case it is written again, like a row whose count is unknown
+                if (counts[i] > 0) {
+                    this.changeTracker.record(changed.get(i));
+                } else {
+                    untracked.add(changed.get(i));
+                }
+            }
+        }
+        if (!untracked.isEmpty()) {
+            this.upsertMultiple(untracked);
+            untracked.forEach(this.changeTracker::record);
+        }
     }
 
     /**
@@ -289,6 +950,7 @@ public class RequestHelper {
      * @param <T>       the type of the DTO
      */
     public <T> void insertMultiple(String tableName, Class<T> clazz, List<T> dataList) {
+        this.assignSequenceIds(tableName, clazz, dataList);
         List<Schema> schemas = new ArrayList<>();
         for (T data : dataList) {
             Schema schema = SchemaBuilder.insert(tableName, ConsumerConstructor.createConsumerFromTemplate(clazz, data));
@@ -297,6 +959,85 @@ public class RequestHelper {
         this.insertMultiple(schemas);
     }
 
+    /**
+     * Inserts DTOs read from an iterator, in fixed-size chunks.
+     * Each DTO is converted to a row only when its chunk is built, so the whole data set is never held in memory.
+     * This is the method to use for imports of millions of rows.
+     *
+     * @param tableName the name of the table
+     * @param clazz     the class type of the DTOs
+     * @param iterator  the DTOs to be inserted
+     * @param <T>       the type of the DTO
+     */
+    public <T> void insertMultiple(String tableName, Class<T> clazz, Iterator<T> iterator) {
+        StreamingBatchRequest request = new StreamingBatchRequest(tableName, this.toSchemas(tableName, clazz, iterator, (table, data) -> {
+            this.assignSequenceIds(tableName, clazz, Collections.singletonList(data));
+            return SchemaBuilder.insert(table, ConsumerConstructor.createConsumerFromTemplate(clazz, data));
+        }), SchemaType.INSERT, StreamingBatchRequest.DEFAULT_CHUNK_SIZE);
+        request.execute(this.connection, this.connection.getDatabaseConfiguration(), this.logger);
+    }
+
+    /**
+     * Inserts DTOs read from a stream, in fixed-size chunks. The stream is closed once consumed.
+     *
+     * @param tableName the name of the table
+     * @param clazz     the class type of the DTOs
+     * @param stream    the DTOs to be inserted
+     * @param <T>       the type of the DTO
+     * @see #insertMultiple(String, Class, Iterator)
+     */
+    public <T> void insertMultiple(String tableName, Class<T> clazz, Stream<T> stream) {
+        try (Stream<T> closeable = stream) {
+            this.insertMultiple(tableName, clazz, closeable.iterator());
+        }
+    }
+
+    /**
+     * Inserts or updates DTOs read from an iterator, in fixed-size chunks.
+     * Each DTO is converted to a row only when its chunk is built, so the whole data set is never held in memory.
+     *
+     * @param tableName the name of the table
+     * @param clazz     the class type of the DTOs
+     * @param iterator  the DTOs to be upserted
+     * @param <T>       the type of the DTO
+     */
+    public <T> void upsertMultiple(String tableName, Class<T> clazz, Iterator<T> iterator) {
+        StreamingBatchRequest request = new StreamingBatchRequest(tableName, this.toSchemas(tableName, clazz, iterator, (table, data) -> SchemaBuilder.upsert(table, ConsumerConstructor.createConsumerFromTemplate(clazz, data))), SchemaType.UPSERT, StreamingBatchRequest.DEFAULT_CHUNK_SIZE);
+        request.execute(this.connection, this.connection.getDatabaseConfiguration(), this.logger);
+    }
+
+    /**
+     * Inserts or updates DTOs read from a stream, in fixed-size chunks. The stream is closed once consumed.
+     *
+     * @param tableName the name of the table
+     * @param clazz     the class type of the DTOs
+     * @param stream    the DTOs to be upserted
+     * @param <T>       the type of the DTO
+     * @see #upsertMultiple(String, Class, Iterator)
+     */
+    public <T> void upsertMultiple(String tableName, Class<T> clazz, Stream<T> stream) {
+        try (Stream<T> closeable = stream) {
+            this.upsertMultiple(tableName, clazz, closeable.iterator());
+        }
+    }
+
+    /**
+     * Lazily converts DTOs to schemas, one at a time.
+     */
+    private <T> Iterator<Schema> toSchemas(String tableName, Class<T> clazz, Iterator<T> iterator, BiFunction<String, T, Schema> factory) {
+        return new Iterator<Schema>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Schema next() {
+                return factory.apply(tableName, iterator.next());
+            }
+        };
+    }
+
     /**
      * Executes an update operation on a batch of schemas.
      * This method utilizes an UpdateBatchRequest to perform the update operation
@@ -304,20 +1045,17 @@ public class RequestHelper {
      * Each schema in the list is updated in
      * the associated database table, allowing for modifications to existing rows
      * based on the specified schema definitions.
+     * <p>
+     * When the schemas identify their row with primary key columns instead of where conditions,
+     * as the schemas created from DTOs do, a {@link BulkUpdateRequest} updates the rows with a few large statements.
      *
      * @param schemas a list of Schema objects representing the data to be updated
      */
     public void updateMultiple(List<Schema> schemas) {
 
-        if (this.connection.getDatabaseConfiguration().getDatabaseType() == DatabaseType.SQLITE) {
-            for (Schema schema : schemas) {
-                try {
-                    schema.execute(this.connection, this.logger);
-                } catch (SQLException exception) {
-                    this.logger.info("UpdateMultiple operation failed for schema: " + schema.getTableName() + " - " + exception.getMessage());
-                    throw new DatabaseException("updateMultiple", schema.getTableName(), exception);
-                }
-            }
+        if (BulkUpdateRequest.isApplicable(schemas)) {
+            BulkUpdateRequest request = new BulkUpdateRequest(schemas);
+            request.execute(this.connection, this.connection.getDatabaseConfiguration(), this.logger);
             return;
         }
 
@@ -329,9 +1067,7 @@ public class RequestHelper {
      * Executes an update operation on a batch of DTOs.
      * This method converts each DTO to a Schema and then performs batch update operation,
      * allowing for modifications to existing rows based on the DTO data.
-     *
-     * <p>Note: For SQLite databases, updates are executed sequentially rather than in a single batch
-     * due to driver limitations.</p>
+     * The rows are matched by their primary key column and updated with a {@link BulkUpdateRequest}.
      *
      * @param tableName the name of the table
      * @param clazz     the class type of the DTOs
@@ -344,7 +1080,237 @@ public class RequestHelper {
             Schema schema = SchemaBuilder.update(tableName, ConsumerConstructor.createConsumerFromTemplate(clazz, data));
             schemas.add(schema);
         }
-        this.updateMultiple(schemas);
+        if (this.changeTracker == null) {
+            this.updateMultiple(schemas);
+            return;
+        }
+
+        List<Schema> changes = new ArrayList<>();
+        List<Schema> untracked = this.splitChanges(schemas, changes);
+        if (!untracked.isEmpty()) this.updateMultiple(untracked);
+        if (!changes.isEmpty()) this.updateMultiple(changes);
+        schemas.forEach(this.changeTracker::record);
+    }
+
+    /**
+     * Synchronizes a table with an in-memory collection, writing only the difference.
+     * The stored rows are streamed from the primary and compared with the collection by key: missing rows are inserted
+     * with one batch, rows with different values are updated with one bulk update, and stored rows absent from the collection
+     * are deleted with chunked {@code WHERE key IN (...)} statements. Rows that did not change are not written.
+     * <p>
+     * Only the values of the compared columns are kept for each stored row. {@link fr.maxlego08.sarah.lazy.Lazy} columns
+     * are not loaded and not compared, a loaded lazy value is written with the other columns when the row changed.
+     * <p>
+     * The key column must identify the rows of the table and be the primary key of the DTO, and must not be auto increment.
+     * The operations are not executed in a single transaction.
+     *
+     * @param tableName the name of the table
+     * @param clazz     the class type of the DTOs
+     * @param keyColumn the name of the key column
+     * @param dataList  the rows that the table must contain after the synchronization
+     * @param <T>       the type of the DTO
+     * @return the number of inserted, updated, deleted and unchanged rows
+     */
+    public <T> SyncResult sync(String tableName, Class<T> clazz, String keyColumn, Collection<T> dataList) {
+        Field keyField = ConsumerConstructor.getColumnField(clazz, keyColumn);
+        RowMapper<T> mapper = RowMapper.of(clazz);
+        List<String> columns = mapper.getEagerColumns();
+        int keyIndex = columns.indexOf(keyColumn);
+        if (keyIndex == -1) {
+            throw new IllegalArgumentException("The key column " + keyColumn + " of " + clazz.getName() + " cannot be lazy");
+        }
+
+        Map<Object, Object[]> storedRows = new HashMap<>();
+        Schema select = SchemaBuilder.select(tableName);
+        columns.forEach(select::addSelect);
+        // The difference is written to the primary, a lagging replica would insert existing rows or miss deleted ones
+        select.readFromPrimary();
+        try {
+            select.executeSelect(this.connection, this.logger, new RowHandler() {
+
+                private RowHeader header;
+
+                @Override
+                public void start(ResultSetMetaData metaData) throws SQLException {
+                    this.header = RowHeader.of(metaData);
+                }
+
+                @Override
+                public void handle(ResultSet resultSet) throws SQLException {
+                    Object[] values = new Object[this.header.getColumnCount()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = resultSet.getObject(i + 1);
+                    }
+                    try {
+                        // The row goes through the DTO so that its values are compared in the form they are written
+                        T row = mapper.map(new CompactRow(this.header, values));
+                        Schema storedRow = SchemaBuilder.insert(tableName, ConsumerConstructor.createConsumerFromTemplate(clazz, row));
+                        storedRows.put(keyField.get(row), getValues(storedRow, columns));
+                    } catch (Exception exception) {
+                        throw new SQLException("Failed to map row: " + exception.getMessage(), exception);
+                    }
+                }
+            });
+        } catch (SQLException exception) {
+            this.logger.info("Sync operation failed on table: " + tableName + " - " + exception.getMessage());
+            throw new DatabaseException("sync", tableName, exception);
+        }
+
+        List<Schema> inserts = new ArrayList<>();
+        List<Schema> updates = new ArrayList<>();
+        List<Schema> written = new ArrayList<>();
+        int unchanged = 0;
+        try {
+            for (T data : dataList) {
+                Object key = keyField.get(data);
+                Schema schema = SchemaBuilder.insert(tableName, ConsumerConstructor.createConsumerFromTemplate(clazz, data));
+                Object[] storedValues = storedRows.remove(key);
+                if (storedValues == null) {
+                    inserts.add(schema);
+                } else if (!Objects.deepEquals(storedValues, getValues(schema, columns))) {
+                    updates.add(SchemaBuilder.update(tableName, ConsumerConstructor.createConsumerFromTemplate(clazz, data)));
+                } else {
+                    unchanged++;
+                    continue;
+                }
+                written.add(schema);
+            }
+        } catch (IllegalAccessException exception) {
+            throw new RuntimeException(exception);
+        }
+
+        if (!updates.isEmpty() && !BulkUpdateRequest.isApplicable(updates)) {
+            throw new IllegalArgumentException("Sync requires a primary key column that is not auto increment in " + clazz.getName());
+        }
+
+        if (!inserts.isEmpty()) this.insertMultiple(inserts);
+        if (!updates.isEmpty()) this.updateMultiple(updates);
+        if (!storedRows.isEmpty()) this.deleteByKeys(tableName, keyColumn, storedRows.keySet());
+
+        if (this.changeTracker != null) {
+            written.forEach(this.changeTracker::record);
+            for (Object[] storedValues : storedRows.values()) {
+                this.changeTracker.forget(tableName, Collections.singletonList(storedValues[keyIndex]));
+            }
+        }
+        return new SyncResult(inserts.size(), updates.size(), storedRows.size(), unchanged);
+    }
+
+    /**
+     * Gets the values of the given columns of a schema, null for the columns it does not define.
+     */
+    private static Object[] getValues(Schema schema, List<String> columns) {
+        Map<String, Object> valuesByColumn = new HashMap<>();
+        for (ColumnDefinition column : schema.getColumns()) {
+            valuesByColumn.put(column.getName(), column.getObject());
+        }
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = valuesByColumn.get(columns.get(i));
+        }
+        return values;
+    }
+
+    /**
+     * Splits DTO schemas between the rows that are not tracked yet, which are returned,
+     * and the updates of the changed columns of tracked rows, which are added to the given list.
+     * Tracked rows without any change are dropped.
+     */
+    private List<Schema> splitChanges(List<Schema> schemas, List<Schema> changes) {
+        List<Schema> untracked = new ArrayList<>();
+        for (Schema schema : schemas) {
+            if (!this.changeTracker.isTracked(schema)) {
+                untracked.add(schema);
+                continue;
+            }
+            Schema change = this.changeTracker.diff(schema);
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+        return untracked;
+    }
+
+    /**
+     * Records the loaded rows as snapshots. Rows that may come from a read replica are not recorded,
+     * since a replica can lag behind the primary and its row would hide writes it has not applied yet.
+     */
+    private <T> List<T> trackLoaded(String tableName, Class<T> clazz, boolean primaryRead, List<T> rows) {
+        if (this.changeTracker != null && (primaryRead || this.connection.getDatabaseConfiguration().getReadReplicas().isEmpty())) {
+            for (T row : rows) {
+                this.changeTracker.record(SchemaBuilder.upsert(tableName, ConsumerConstructor.createConsumerFromTemplate(clazz, row)));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Assigns the fields mapped to a {@link Column#sequence() sequence} that have no value yet.
+     */
+    private <T> void assignSequenceIds(String tableName, Class<T> clazz, Collection<T> dataList) {
+        for (Field field : clazz.getDeclaredFields()) {
+            Column column = field.getAnnotation(Column.class);
+            if (column == null || column.sequence().isEmpty()) continue;
+            if (this.sequenceAllocator == null) {
+                throw new IllegalStateException("Field " + field.getName() + " of " + clazz.getName() + " uses a sequence but no SequenceAllocator is set");
+            }
+
+            field.setAccessible(true);
+            try {
+                List<T> missing = new ArrayList<>();
+                for (T data : dataList) {
+                    Object value = field.get(data);
+                    if (value == null || ((Number) value).longValue() == 0) {
+                        missing.add(data);
+                    }
+                }
+                if (missing.isEmpty()) continue;
+
+                this.sequenceAllocator.initialize(column.sequence(), tableName, ConsumerConstructor.getColumnName(field));
+                long[] ids = this.sequenceAllocator.nextIds(column.sequence(), missing.size());
+                for (int i = 0; i < ids.length; i++) {
+                    Class<?> type = field.getType();
+                    if (type == int.class || type == Integer.class) {
+                        field.set(missing.get(i), Math.toIntExact(ids[i]));
+                    } else {
+                        field.set(missing.get(i), ids[i]);
+                    }
+                }
+            } catch (IllegalAccessException exception) {
+                throw new RuntimeException(exception);
+            }
+        }
+    }
+
+    /**
+     * Sets the allocator that assigns the fields annotated with a {@link Column#sequence() sequence} before inserts.
+     * The assigned identifiers are written to the DTOs, so they are known before the rows are inserted,
+     * for example to insert the rows of a child table in the same batch.
+     *
+     * @param sequenceAllocator the sequence allocator
+     */
+    public void setSequenceAllocator(SequenceAllocator sequenceAllocator) {
+        this.sequenceAllocator = sequenceAllocator;
+    }
+
+    public SequenceAllocator getSequenceAllocator() {
+        return sequenceAllocator;
+    }
+
+    /**
+     * Enables dirty tracking of the DTOs written and loaded by this helper.
+     * Once a row is tracked, {@link #upsert(String, Class, Object)}, {@link #upsertMultiple(String, Class, List)}
+     * and {@link #updateMultiple(String, Class, List)} only write the columns that changed since the row was last
+     * loaded or written, and skip the rows that did not change.
+     *
+     * @param changeTracker the change tracker, or null to write every column again
+     */
+    public void setChangeTracker(ChangeTracker changeTracker) {
+        this.changeTracker = changeTracker;
+    }
+
+    public ChangeTracker getChangeTracker() {
+        return changeTracker;
     }
 
     /**
@@ -1,15 +1,19 @@
 package fr.maxlego08.sarah;
 
+import fr.maxlego08.sarah.codec.BlobCodec;
 import fr.maxlego08.sarah.conditions.ColumnDefinition;
 import fr.maxlego08.sarah.conditions.JoinCondition;
 import fr.maxlego08.sarah.conditions.SelectCondition;
 import fr.maxlego08.sarah.conditions.WhereCondition;
+import fr.maxlego08.sarah.converter.RowMapper;
+import fr.maxlego08.sarah.converter.TypeConverters;
 import fr.maxlego08.sarah.database.DatabaseType;
 import fr.maxlego08.sarah.database.Executor;
 import fr.maxlego08.sarah.database.Migration;
 import fr.maxlego08.sarah.database.Schema;
 import fr.maxlego08.sarah.database.SchemaType;
 import fr.maxlego08.sarah.exceptions.SarahException;
+import fr.maxlego08.sarah.lazy.LazyGroup;
 import fr.maxlego08.sarah.logger.Logger;
 import fr.maxlego08.sarah.requests.AlterRequest;
 import fr.maxlego08.sarah.requests.CreateIndexRequest;
@@ -19,30 +23,31 @@ import fr.maxlego08.sarah.requests.DropTableRequest;
 import fr.maxlego08.sarah.requests.InsertRequest;
 import fr.maxlego08.sarah.requests.ModifyRequest;
 import fr.maxlego08.sarah.requests.RenameExecutor;
+import fr.maxlego08.sarah.requests.ReturningRequest;
 import fr.maxlego08.sarah.requests.UpdateRequest;
 import fr.maxlego08.sarah.requests.UpsertRequest;
-import fr.maxlego08.sarah.security.SecureObjectInputStream;
+import fr.maxlego08.sarah.result.CompactRow;
+import fr.maxlego08.sarah.result.RowHandler;
+import fr.maxlego08.sarah.result.RowHeader;
+import fr.maxlego08.sarah.stream.StreamValue;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
+import java.io.InputStream;
 import java.io.ObjectOutputStream;
-import java.io.Serializable;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.math.BigDecimal;
+import java.io.Reader;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -63,6 +68,8 @@ public class SchemaBuilder implements Schema {
     private String orderBy;
     private Migration migration;
     private boolean isDistinct;
+    private boolean readFromPrimary;
+    private boolean skipQueryDetection;
 
     private SchemaBuilder(String tableName, SchemaType schemaType) {
         this.tableName = tableName;
@@ -81,6 +88,8 @@ public class SchemaBuilder implements Schema {
         schema.orderBy = oldSchema.getOrderBy();
         schema.migration = oldSchema.getMigration();
         schema.isDistinct = oldSchema.isDistinct();
+        schema.readFromPrimary = oldSchema.isReadFromPrimary();
+        schema.skipQueryDetection = oldSchema.isQueryDetectionSkipped();
         schema.newTableName = oldSchema.getNewTableName();
 
         return schema;
@@ -208,6 +217,11 @@ public class SchemaBuilder implements Schema {
         return this;
     }
 
+    @Override
+    public Schema whereEpochMillis(String columnName, String operator, Instant value) {
+        return this.where(null, columnName, operator, value == null ? null : value.toEpochMilli());
+    }
+
     @Override
     public Schema whereNotNull(String columnName) {
         this.whereConditions.add(new WhereCondition(columnName, WhereCondition.WhereAction.IS_NOT_NULL));
@@ -241,6 +255,32 @@ public class SchemaBuilder implements Schema {
         return this;
     }
 
+    @Override
+    public Schema whereIn(String columnName, Collection<?> values) {
+        List<Object> valuesList = values.stream().map(this::toBindValue).collect(Collectors.toList());
+        this.whereConditions.add(new WhereCondition(null, columnName, valuesList));
+        return this;
+    }
+
+    @Override
+    public Schema whereIn(List<String> columnNames, Collection<? extends List<?>> tuples) {
+        List<List<Object>> tuplesList = new ArrayList<>(tuples.size());
+        for (List<?> tuple : tuples) {
+            tuplesList.add(tuple.stream().map(this::toBindValue).collect(Collectors.toList()));
+        }
+        this.whereConditions.add(new WhereCondition(null, columnNames, tuplesList));
+        return this;
+    }
+
+    /**
+     * Converts a value to the form stored in the database, UUIDs as strings and enums by name.
+     */
+    private Object toBindValue(Object value) {
+        if (value instanceof UUID) return value.toString();
+        if (value instanceof Enum<?>) return ((Enum<?>) value).name();
+        return value;
+    }
+
     @Override
     public Schema uuid(String columnName) {
         this.string(columnName, 36);
@@ -267,6 +307,16 @@ public class SchemaBuilder implements Schema {
         return addColumn(new ColumnDefinition(columnName, "LONGTEXT"));
     }
 
+    @Override
+    public Schema longText(String columnName, String value) {
+        return this.addColumn(new ColumnDefinition(columnName, "LONGTEXT").setObject(value));
+    }
+
+    @Override
+    public Schema longText(String columnName, Reader reader, long length) {
+        return this.addColumn(new ColumnDefinition(columnName, "LONGTEXT").setObject(StreamValue.characters(reader, length)));
+    }
+
     @Override
     public Schema decimal(String columnName) {
         return this.decimal(columnName, 65, 30);
@@ -292,6 +342,41 @@ public class SchemaBuilder implements Schema {
         return this.addColumn(new ColumnDefinition(columnName).setObject(value));
     }
 
+    @Override
+    public Schema dateTime(String columnName) {
+        return addColumn(new ColumnDefinition(columnName, "DATETIME"));
+    }
+
+    @Override
+    public Schema dateTime(String columnName, LocalDateTime value) {
+        return this.addColumn(new ColumnDefinition(columnName).setObject(value));
+    }
+
+    @Override
+    public Schema instant(String columnName, Instant value) {
+        return this.addColumn(new ColumnDefinition(columnName).setObject(value));
+    }
+
+    @Override
+    public Schema localDate(String columnName) {
+        return addColumn(new ColumnDefinition(columnName, "DATE"));
+    }
+
+    @Override
+    public Schema localDate(String columnName, LocalDate value) {
+        return this.addColumn(new ColumnDefinition(columnName).setObject(value));
+    }
+
+    @Override
+    public Schema epochMillis(String columnName) {
+        return addColumn(new ColumnDefinition(columnName, "BIGINT"));
+    }
+
+    @Override
+    public Schema epochMillis(String columnName, Instant value) {
+        return this.addColumn(new ColumnDefinition(columnName).setObject(value == null ? null : value.toEpochMilli()));
+    }
+
     @Override
     public Schema object(String columnName, Object object) {
         return this.addColumn(new ColumnDefinition(columnName).setObject(object));
@@ -337,6 +422,11 @@ public class SchemaBuilder implements Schema {
         return this.addColumn(new ColumnDefinition(columnName, "BLOB").setObject(value));
     }
 
+    @Override
+    public Schema blob(String columnName, InputStream stream, long length) {
+        return this.addColumn(new ColumnDefinition(columnName, "BLOB").setObject(StreamValue.binary(stream, length)));
+    }
+
     @Override
     public Schema enumValue(String columnName) {
         return addColumn(new ColumnDefinition(columnName, "VARCHAR").setLength(255));
@@ -367,6 +457,15 @@ public class SchemaBuilder implements Schema {
         }
     }
 
+    @Override
+    public Schema blob(String columnName, Object object, BlobCodec codec) {
+        try {
+            return this.addColumn(new ColumnDefinition(columnName, "BLOB").setObject(object == null ? null : codec.encode(object)));
+        } catch (IOException exception) {
+            throw new SarahException("An error occurred while encoding object for BLOB column: " + columnName, exception);
+        }
+    }
+
     @Override
     public Schema foreignKey(String referenceTable) {
         if (this.columns.isEmpty()) throw new IllegalStateException("No column defined to apply foreign key.");
@@ -492,10 +591,15 @@ public class SchemaBuilder implements Schema {
 
     @Override
     public void whereConditions(StringBuilder sql) {
+        this.whereConditions(sql, DatabaseType.MYSQL);
+    }
+
+    @Override
+    public void whereConditions(StringBuilder sql, DatabaseType databaseType) {
         if (!this.whereConditions.isEmpty()) {
             List<String> conditions = new ArrayList<>();
             for (WhereCondition condition : this.whereConditions) {
-                conditions.add(condition.getCondition());
+                conditions.add(condition.getCondition(databaseType));
             }
             sql.append(" WHERE ").append(String.join(" AND ", conditions));
         }
@@ -504,21 +608,22 @@ public class SchemaBuilder implements Schema {
     @Override
     public long executeSelectCount(DatabaseConnection databaseConnection, Logger logger) throws SQLException {
         StringBuilder selectQuery = new StringBuilder("SELECT COUNT(*) FROM " + tableName);
-        this.whereConditions(selectQuery);
+        this.whereConditions(selectQuery, databaseConnection.getDatabaseConfiguration().getDatabaseType());
 
         String finalQuery = databaseConnection.getDatabaseConfiguration().replacePrefix(selectQuery.toString());
         if (databaseConnection.getDatabaseConfiguration().isDebug()) {
             logger.info("Executing SQL: " + finalQuery);
         }
+        if (!this.skipQueryDetection) databaseConnection.recordQuery(finalQuery, logger);
 
-        try (Connection connection = databaseConnection.getConnection();
+        try (Connection connection = this.getSelectConnection(databaseConnection);
              PreparedStatement preparedStatement = connection.prepareStatement(finalQuery)) {
 
             applyWhereConditions(preparedStatement, 1);
 
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
-                    return resultSet.getInt(1);
+                    return resultSet.getLong(1);
                 }
             }
         } catch (SQLException exception) {
@@ -528,10 +633,128 @@ public class SchemaBuilder implements Schema {
         return 0;
     }
 
+    @Override
+    public boolean executeExists(DatabaseConnection databaseConnection, Logger logger) throws SQLException {
+        StringBuilder selectQuery = new StringBuilder("SELECT 1 FROM " + this.tableName);
+
+        for (JoinCondition join : this.joinConditions) {
+            selectQuery.append(" ").append(join.getJoinClause());
+        }
+
+        this.whereConditions(selectQuery, databaseConnection.getDatabaseConfiguration().getDatabaseType());
+        selectQuery.append(" LIMIT 1");
+
+        String finalQuery = databaseConnection.getDatabaseConfiguration().replacePrefix(selectQuery.toString());
+        if (databaseConnection.getDatabaseConfiguration().isDebug()) {
+            logger.info("Executing SQL: " + finalQuery);
+        }
+        if (!this.skipQueryDetection) databaseConnection.recordQuery(finalQuery, logger);
+
+        try (Connection connection = this.getSelectConnection(databaseConnection);
+             PreparedStatement preparedStatement = connection.prepareStatement(finalQuery)) {
+
+            applyWhereConditions(preparedStatement, 1);
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next();
+            }
+        } catch (SQLException exception) {
+            logger.info("Failed to execute schema exists: " + exception.getMessage());
+            throw new SQLException("Failed to execute schema exists: " + exception.getMessage(), exception);
+        }
+    }
+
+    @Override
+    public long executeApproximateCount(DatabaseConnection databaseConnection, Logger logger) throws SQLException {
+        DatabaseConfiguration databaseConfiguration = databaseConnection.getDatabaseConfiguration();
+        String rawTableName = databaseConfiguration.replacePrefix(this.tableName).replace("`", "");
+
+        String statisticsQuery;
+        if (databaseConfiguration.getDatabaseType() == DatabaseType.SQLITE) {
+            // The row without index holds the row count, else the largest index count, since a partial index counts fewer rows
+            statisticsQuery = "SELECT stat FROM sqlite_stat1 WHERE tbl = ? ORDER BY idx IS NULL DESC, CAST(stat AS INTEGER) DESC LIMIT 1";
+        } else {
+            statisticsQuery = "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+        }
+
+        if (databaseConfiguration.isDebug()) {
+            logger.info("Executing SQL: " + statisticsQuery);
+        }
+
+        Long approximateCount = null;
+        try (Connection connection = this.getSelectConnection(databaseConnection)) {
+
+            if (databaseConfiguration.getDatabaseType() != DatabaseType.SQLITE || hasSqliteStatistics(connection)) {
+                try (PreparedStatement preparedStatement = connection.prepareStatement(statisticsQuery)) {
+                    preparedStatement.setString(1, rawTableName);
+                    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                        if (resultSet.next()) {
+                            approximateCount = parseApproximateCount(resultSet.getObject(1));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException exception) {
+            logger.info("Failed to execute schema approximate count: " + exception.getMessage());
+            throw new SQLException("Failed to execute schema approximate count: " + exception.getMessage(), exception);
+        }
+
+        if (approximateCount != null) {
+            return approximateCount;
+        }
+
+        // No statistics available for this table, fallback to an exact count
+        return SchemaBuilder.selectCount(this.tableName).executeSelectCount(databaseConnection, logger);
+    }
+
+    private boolean hasSqliteStatistics(Connection connection) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'sqlite_stat1'");
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            return resultSet.next();
+        }
+    }
+
+    /**
+     * Reads the row count from a statistics value.
+     * MySQL returns a number, SQLite returns a string whose first integer is the row count (e.g. {@code "1500 2 1"}).
+     */
+    private Long parseApproximateCount(Object value) {
+        if (value == null) return null;
+        if (value instanceof Number) return ((Number) value).longValue();
+
+        String stat = value.toString().trim();
+        int end = stat.indexOf(' ');
+        try {
+            return Long.parseLong(end == -1 ? stat : stat.substring(0, end));
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
     @Override
     public List<Map<String, Object>> executeSelect(DatabaseConnection databaseConnection, Logger logger) throws SQLException {
-        List<Map<String, Object>> results = new ArrayList<>();
+        DatabaseConfiguration databaseConfiguration = databaseConnection.getDatabaseConfiguration();
+        String finalQuery = this.buildSelectQuery(databaseConfiguration);
+
+        if (databaseConfiguration.isDebug()) {
+            logger.info("Executing SQL: " + finalQuery);
+        }
+        if (!this.skipQueryDetection) databaseConnection.recordQuery(finalQuery, logger);
 
+        // A select reading its own writes must not join a query that may have started before the write
+        if (databaseConnection.isSelectCoalescing() && !this.readFromPrimary) {
+            return databaseConnection.getSelectCoalescer().execute(finalQuery, this.getWhereValues(), () -> this.fetchRows(databaseConnection, finalQuery, logger));
+        }
+        return this.fetchRows(databaseConnection, finalQuery, logger);
+    }
+
+    /**
+     * Builds the final SELECT query of this schema, with the table prefix replaced.
+     *
+     * @param databaseConfiguration the database configuration
+     * @return the final SELECT query
+     */
+    private String buildSelectQuery(DatabaseConfiguration databaseConfiguration) {
         String selectedValues = "*";
         if (!this.selectColumns.isEmpty()) {
             selectedValues = this.selectColumns.stream()
@@ -552,39 +775,91 @@ public class SchemaBuilder implements Schema {
             }
         }
 
-        this.whereConditions(selectQuery);
+        this.whereConditions(selectQuery, databaseConfiguration.getDatabaseType());
 
         if (this.orderBy != null) {
             selectQuery.append(" ").append(this.orderBy);
         }
 
+        return databaseConfiguration.replacePrefix(selectQuery.toString());
+    }
+
+    @Override
+    public void executeSelect(DatabaseConnection databaseConnection, Logger logger, RowHandler handler) throws SQLException {
         DatabaseConfiguration databaseConfiguration = databaseConnection.getDatabaseConfiguration();
-        String finalQuery = databaseConfiguration.replacePrefix(selectQuery.toString());
+        String finalQuery = this.buildSelectQuery(databaseConfiguration);
 
         if (databaseConfiguration.isDebug()) {
             logger.info("Executing SQL: " + finalQuery);
         }
+        if (!this.skipQueryDetection) databaseConnection.recordQuery(finalQuery, logger);
+
+        this.readRows(databaseConnection, finalQuery, logger, handler);
+    }
+
+    private List<Map<String, Object>> fetchRows(DatabaseConnection databaseConnection, String finalQuery, Logger logger) throws SQLException {
+        List<Map<String, Object>> results = new ArrayList<>();
+
+        this.readRows(databaseConnection, finalQuery, logger, new RowHandler() {
+
+            private RowHeader header;
+
+            @Override
+            public void start(ResultSetMetaData metaData) throws SQLException {
+                // The metadata is read once, every row shares the same header
+                this.header = RowHeader.of(metaData);
+            }
+
+            @Override
+            public void handle(ResultSet resultSet) throws SQLException {
+                Object[] values = new Object[this.header.getColumnCount()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = resultSet.getObject(i + 1);
+                }
+                results.add(new CompactRow(this.header, values));
+            }
+        });
+
+        return results;
+    }
 
-        try (Connection connection = databaseConnection.getConnection();
+    private void readRows(DatabaseConnection databaseConnection, String finalQuery, Logger logger, RowHandler handler) throws SQLException {
+        try (Connection connection = this.getSelectConnection(databaseConnection);
              PreparedStatement preparedStatement = connection.prepareStatement(finalQuery)) {
 
             applyWhereConditions(preparedStatement, 1);
 
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                handler.start(resultSet.getMetaData());
                 while (resultSet.next()) {
-                    Map<String, Object> row = new HashMap<>();
-                    for (int i = 1; i <= resultSet.getMetaData().getColumnCount(); i++) {
-                        row.put(resultSet.getMetaData().getColumnName(i), resultSet.getObject(i));
-                    }
-                    results.add(row);
+                    handler.handle(resultSet);
                 }
             }
         } catch (SQLException exception) {
             logger.info("Failed to execute schema select: " + exception.getMessage());
             throw new SQLException("Failed to execute schema select: " + exception.getMessage(), exception);
         }
+    }
 
-        return results;
+    /**
+     * Gets the values bound by the WHERE conditions, in the order of their placeholders.
+     *
+     * @return the values bound by the WHERE conditions
+     */
+    private List<Object> getWhereValues() {
+        List<Object> values = new ArrayList<>();
+        for (WhereCondition condition : this.whereConditions) {
+            if (condition.getWhereAction() == WhereCondition.WhereAction.NORMAL) {
+                values.add(condition.getValue());
+            } else if (condition.getWhereAction() == WhereCondition.WhereAction.IN) {
+                values.addAll(condition.getValues());
+            } else if (condition.getWhereAction() == WhereCondition.WhereAction.IN_TUPLE) {
+                for (List<Object> tuple : condition.getTuples()) {
+                    values.addAll(tuple);
+                }
+            }
+        }
+        return values;
     }
 
     @Override
@@ -594,85 +869,68 @@ public class SchemaBuilder implements Schema {
                 preparedStatement.setObject(index, condition.getValue());
                 index += 1;
             } else if (condition.getWhereAction() == WhereCondition.WhereAction.IN) {
-                for (String value : condition.getValues()) {
+                for (Object value : condition.getValues()) {
                     preparedStatement.setObject(index, value);
                     index += 1;
                 }
+            } else if (condition.getWhereAction() == WhereCondition.WhereAction.IN_TUPLE) {
+                for (List<Object> tuple : condition.getTuples()) {
+                    for (Object value : tuple) {
+                        preparedStatement.setObject(index, value);
+                        index += 1;
+                    }
+                }
             }
         }
     }
 
     @Override
     public <T> List<T> executeSelect(Class<T> clazz, DatabaseConnection databaseConnection, Logger logger) throws Exception {
+        RowMapper<T> mapper = RowMapper.of(clazz);
+        if (!mapper.hasLazyFields() || !this.selectColumns.isEmpty() || !this.joinConditions.isEmpty()) {
+            List<Map<String, Object>> results = executeSelect(databaseConnection, logger);
+            return transformResults(results, clazz);
+        }
+
+        // The lazy columns are left out of the select and loaded for the whole result on first access
+        for (String column : mapper.getEagerColumns()) {
+            this.addSelect(column);
+        }
+        LazyGroup lazyGroup = new LazyGroup(databaseConnection, logger, this.tableName, mapper.getKeyColumn());
         List<Map<String, Object>> results = executeSelect(databaseConnection, logger);
-        return transformResults(results, clazz);
+        List<T> transformedResults = new ArrayList<>(results.size());
+        for (Map<String, Object> row : results) {
+            transformedResults.add(mapper.map(row, lazyGroup));
+        }
+        return transformedResults;
     }
 
-    private <T> List<T> transformResults(List<Map<String, Object>> results, Class<T> clazz) throws Exception {
-        List<T> transformedResults = new ArrayList<>();
-        Constructor<?>[] constructors = clazz.getDeclaredConstructors();
-        Constructor<?> firstConstructor = constructors[0];
-        firstConstructor.setAccessible(true);
+    @Override
+    public Map<String, Object> executeReturning(DatabaseConnection databaseConnection, Logger logger, String... columns) {
+        ReturningRequest request = new ReturningRequest(this, columns);
+        return request.execute(databaseConnection, databaseConnection.getDatabaseConfiguration(), logger);
+    }
 
+    @Override
+    public <T> List<T> transformResults(List<Map<String, Object>> results, Class<T> clazz) throws Exception {
+        List<T> transformedResults = new ArrayList<>(results.size());
+        RowMapper<T> mapper = RowMapper.of(clazz);
         for (Map<String, Object> row : results) {
-            Object[] params = new Object[firstConstructor.getParameterCount()];
-            Field[] fields = clazz.getDeclaredFields();
-
-            for (int i = 0; i < fields.length; i++) {
-                Field field = fields[i];
-                if (field.isAnnotationPresent(Column.class)) {
-                    Column column = field.getAnnotation(Column.class);
-                    params[i] = convertToRequiredType(row.get(column.value()), field.getType());
-                } else {
-                    params[i] = convertToRequiredType(row.get(field.getName()), field.getType());
-                }
-            }
-            T instance = (T) firstConstructor.newInstance(params);
-            transformedResults.add(instance);
+            transformedResults.add(mapper.map(row));
         }
         return transformedResults;
     }
 
+    /**
+     * Converts a value read from the database to the type of a field.
+     *
+     * @param value the value
+     * @param type  the type of the field
+     * @return the converted value
+     * @see TypeConverters
+     */
     protected Object convertToRequiredType(Object value, Class<?> type) {
-        if (value == null) {
-            return null;
-        } else if (type.isEnum()) {
-            return Enum.valueOf((Class<Enum>) type, (String) value);
-        } else if (type == BigDecimal.class) {
-            return new BigDecimal(value.toString());
-        } else if (type == UUID.class) {
-            return UUID.fromString((String) value);
-        } else if (type == Boolean.class || type == boolean.class) {
-            String stringValue = value.toString();
-            return stringValue.equalsIgnoreCase("true") || stringValue.equalsIgnoreCase("1");
-        } else if (type == Long.class || type == long.class) {
-            return Long.parseLong(value.toString());
-        } else if (type == Double.class || type == double.class) {
-            return Double.parseDouble(value.toString());
-        } else if (type == Integer.class || type == int.class) {
-            return Integer.parseInt(value.toString());
-        } else if (Serializable.class.isAssignableFrom(type) && value instanceof byte[]) {
-            return deserializeObject((byte[]) value, type);
-        } else if (type == Date.class) {
-            if (value instanceof String) {
-                SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-                try {
-                    return formatter.parse((String) value);
-                } catch (ParseException exception) {
-                    throw new SarahException("Failed to parse date: " + value, exception);
-                }
-            }
-            if (value instanceof Number) {
-                return new Date(((Number) value).longValue());
-            }
-
-            if (value instanceof Timestamp) {
-                return (Date) value;
-            }
-            return null;
-        } else {
-            return value;
-        }
+        return TypeConverters.convert(value, type);
     }
 
     protected byte[] serializeObject(Object object) throws IOException {
@@ -697,20 +955,7 @@ public class SchemaBuilder implements Schema {
      * @throws SarahException if deserialization fails or an unauthorized class is detected
      */
     protected <T> T deserializeObject(byte[] data, Class<T> type) {
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(data);
-             SecureObjectInputStream ois = new SecureObjectInputStream(bais, type)) {
-
-            // Automatically allow the package of the requested type
-            // This allows library users to deserialize their own model classes
-            if (type.getPackage() != null) {
-                String packageName = type.getPackage().getName();
-                ois.allowPackagePrefix(packageName);
-            }
-
-            return type.cast(ois.readObject());
-        } catch (IOException | ClassNotFoundException exception) {
-            throw new SarahException("Failed to deserialize BLOB: " + exception.getMessage(), exception);
-        }
+        return TypeConverters.deserialize(data, type);
     }
 
     @Override
@@ -798,6 +1043,33 @@ public class SchemaBuilder implements Schema {
         return this.isDistinct;
     }
 
+    @Override
+    public void readFromPrimary() {
+        this.readFromPrimary = true;
+    }
+
+    @Override
+    public boolean isReadFromPrimary() {
+        return this.readFromPrimary;
+    }
+
+    @Override
+    public void skipQueryDetection() {
+        this.skipQueryDetection = true;
+    }
+
+    @Override
+    public boolean isQueryDetectionSkipped() {
+        return this.skipQueryDetection;
+    }
+
+    /**
+     * Gets the connection used by selects, a read replica unless the schema must read from the primary.
+     */
+    private Connection getSelectConnection(DatabaseConnection databaseConnection) {
+        return this.readFromPrimary ? databaseConnection.getConnection() : databaseConnection.getReadConnection();
+    }
+
     @Override
     public int execute(DatabaseConnection databaseConnection, Logger logger) throws SQLException {
         Executor executor;
@@ -0,0 +1,47 @@
+package fr.maxlego08.sarah;
+
+/**
+ * The number of rows written by a table synchronization.
+ *
+ * @see RequestHelper#sync(String, Class, String, java.util.Collection)
+ */
+public class SyncResult {
+
+    private final int inserted;
+    private final int updated;
+    private final int deleted;
+    private final int unchanged;
+
+    public SyncResult(int inserted, int updated, int deleted, int unchanged) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.deleted = deleted;
+        this.unchanged = unchanged;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncResult{" +
+                "inserted=" + inserted +
+                ", updated=" + updated +
+                ", deleted=" + deleted +
+                ", unchanged=" + unchanged +
+                '}';
+    }
+}
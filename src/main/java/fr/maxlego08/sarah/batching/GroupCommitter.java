@@ -0,0 +1,241 @@
+package fr.maxlego08.sarah.batching;
+
+import fr.maxlego08.sarah.DatabaseConnection;
+import fr.maxlego08.sarah.converter.TypeConverters;
+import fr.maxlego08.sarah.database.DatabaseType;
+import fr.maxlego08.sarah.logger.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups concurrent single-row writes sharing the same SQL into one transaction.
+ * <p>
+ * The first caller of a group waits for the commit window, or until the group is full, then executes every
+ * collected row on one connection inside one transaction. The other callers block until their own row is executed,
+ * so each caller still receives its own result (generated key or affected rows) or its own exception.
+ * If the grouped transaction fails, each row is retried on its own so that only the failing rows report an error.
+ */
+public class GroupCommitter {
+
+    private final long windowNanos;
+    private final int maxRows;
+    private final Object lock = new Object();
+    private final Map<String, Group> groups = new HashMap<>();
+
+    /**
+     * Creates a group committer.
+     *
+     * @param windowMillis the maximum time the first row of a group waits for other rows, in milliseconds
+     * @param maxRows      the number of rows that executes a group immediately
+     */
+    public GroupCommitter(long windowMillis, int maxRows) {
+        if (windowMillis < 0) throw new IllegalArgumentException("Window must be positive");
+        if (maxRows < 1) throw new IllegalArgumentException("Max rows must be at least 1");
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Submits a single-row write and waits for the grouped transaction that executes it.
+     *
+     * @param databaseConnection  the database connection
+     * @param sql                 the final SQL of the write
+     * @param values              the values bound to the SQL, without {@link fr.maxlego08.sarah.stream.StreamValue}s
+     * @param returnGeneratedKeys true to return the generated key instead of the affected rows
+     * @param logger              the logger
+     * @return the generated key if requested (0 if none), otherwise the number of affected rows
+     * @throws SQLException if the write of this row fails
+     */
+    public int submit(DatabaseConnection databaseConnection, String sql, List<Object> values, boolean returnGeneratedKeys, Logger logger) throws SQLException {
+        PendingRow row = new PendingRow(values);
+        Group group;
+        boolean leader = false;
+
+        synchronized (this.lock) {
+            group = this.groups.get(sql);
+            if (group == null) {
+                group = new Group();
+                this.groups.put(sql, group);
+                leader = true;
+            }
+            group.rows.add(row);
+            if (group.rows.size() >= this.maxRows) {
+                this.close(sql, group);
+            }
+        }
+
+        if (leader) {
+            this.awaitGroup(sql, group);
+            this.execute(databaseConnection, sql, group.rows, returnGeneratedKeys, logger);
+        }
+
+        return row.await();
+    }
+
+    private void awaitGroup(String sql, Group group) {
+        long deadline = System.nanoTime() + this.windowNanos;
+        synchronized (this.lock) {
+            long remaining;
+            while (!group.closed && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this.lock, remaining);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            this.close(sql, group);
+        }
+    }
+
+    private void close(String sql, Group group) {
+        if (group.closed) return;
+        group.closed = true;
+        this.groups.remove(sql, group);
+        this.lock.notifyAll();
+    }
+
+    private void execute(DatabaseConnection databaseConnection, String sql, List<PendingRow> rows, boolean returnGeneratedKeys, Logger logger) {
+        if (databaseConnection.getDatabaseConfiguration().isDebug()) {
+            logger.info("Executing SQL Group (" + rows.size() + " rows): " + sql);
+        }
+
+        // With rewriteBatchedStatements, MySQL drivers report SUCCESS_NO_INFO instead of the affected rows of each row,
+        // so only the generated keys, which they still return, are read from a batch
+        boolean batch = returnGeneratedKeys && databaseConnection.getDatabaseConfiguration().getDatabaseType() != DatabaseType.SQLITE;
+        try (Connection connection = databaseConnection.getConnection()) {
+            boolean originalAutoCommit = connection.getAutoCommit();
+            try {
+                connection.setAutoCommit(false);
+                int[] results = batch ? this.executeBatch(connection, sql, rows) : this.executeEach(connection, sql, rows, returnGeneratedKeys);
+                connection.commit();
+                for (int i = 0; i < rows.size(); i++) {
+                    rows.get(i).future.complete(results[i]);
+                }
+            } catch (SQLException exception) {
+                connection.rollback();
+                if (rows.size() == 1) {
+                    rows.get(0).future.completeExceptionally(exception);
+                } else {
+                    logger.info("Group commit failed, retrying " + rows.size() + " rows individually - " + exception.getMessage());
+                    connection.setAutoCommit(true);
+                    this.executeIndividually(connection, sql, rows, returnGeneratedKeys);
+                }
+            } finally {
+                connection.setAutoCommit(originalAutoCommit);
+            }
+        } catch (SQLException | RuntimeException exception) {
+            for (PendingRow row : rows) {
+                row.future.completeExceptionally(exception);
+            }
+        }
+    }
+
+    /**
+     * Executes the rows with a JDBC batch and returns their generated keys, used for inserts on MySQL and MariaDB
+     * where batches save round-trips.
+     */
+    private int[] executeBatch(Connection connection, String sql, List<PendingRow> rows) throws SQLException {
+        try (PreparedStatement preparedStatement = this.prepare(connection, sql, true)) {
+            for (PendingRow row : rows) {
+                this.bind(preparedStatement, row);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+
+            int[] keys = new int[rows.size()];
+            try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                for (int i = 0; i < keys.length && generatedKeys.next(); i++) {
+                    keys[i] = generatedKeys.getInt(1);
+                }
+            }
+            return keys;
+        }
+    }
+
+    /**
+     * Executes the rows one by one in the current transaction, used on SQLite whose driver only returns
+     * the last generated key of a batch, and for writes whose callers receive their affected rows.
+     * The rows still share one transaction, whose commit is the expensive part.
+     */
+    private int[] executeEach(Connection connection, String sql, List<PendingRow> rows, boolean returnGeneratedKeys) throws SQLException {
+        int[] results = new int[rows.size()];
+        try (PreparedStatement preparedStatement = this.prepare(connection, sql, returnGeneratedKeys)) {
+            for (int i = 0; i < rows.size(); i++) {
+                results[i] = this.executeRow(preparedStatement, rows.get(i), returnGeneratedKeys);
+            }
+        }
+        return results;
+    }
+
+    private void executeIndividually(Connection connection, String sql, List<PendingRow> rows, boolean returnGeneratedKeys) throws SQLException {
+        try (PreparedStatement preparedStatement = this.prepare(connection, sql, returnGeneratedKeys)) {
+            for (PendingRow row : rows) {
+                try {
+                    row.future.complete(this.executeRow(preparedStatement, row, returnGeneratedKeys));
+                } catch (SQLException exception) {
+                    row.future.completeExceptionally(exception);
+                }
+            }
+        }
+    }
+
+    private int executeRow(PreparedStatement preparedStatement, PendingRow row, boolean returnGeneratedKeys) throws SQLException {
+        this.bind(preparedStatement, row);
+        int updatedRows = preparedStatement.executeUpdate();
+        if (!returnGeneratedKeys) return updatedRows;
+
+        try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+            return generatedKeys.next() ? generatedKeys.getInt(1) : 0;
+        }
+    }
+
+    private PreparedStatement prepare(Connection connection, String sql, boolean returnGeneratedKeys) throws SQLException {
+        return returnGeneratedKeys ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS) : connection.prepareStatement(sql);
+    }
+
+    private void bind(PreparedStatement preparedStatement, PendingRow row) throws SQLException {
+        for (int i = 0; i < row.values.size(); i++) {
+            TypeConverters.bind(preparedStatement, i + 1, row.values.get(i));
+        }
+    }
+
+    private static class Group {
+        private final List<PendingRow> rows = new ArrayList<>();
+        private boolean closed;
+    }
+
+    private static class PendingRow {
+        private final List<Object> values;
+        private final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        private PendingRow(List<Object> values) {
+            this.values = values;
+        }
+
+        private int await() throws SQLException {
+            try {
+                return this.future.get();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for the group commit", exception);
+            } catch (ExecutionException exception) {
+                Throwable cause = exception.getCause();
+                if (cause instanceof SQLException) throw (SQLException) cause;
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                throw new SQLException(cause);
+            }
+        }
+    }
+}
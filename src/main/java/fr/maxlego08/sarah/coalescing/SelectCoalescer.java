@@ -0,0 +1,95 @@
+package fr.maxlego08.sarah.coalescing;
+
+import fr.maxlego08.sarah.result.CompactRow;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Shares one in-flight select between concurrent callers executing the same query with the same parameters.
+ * The first caller executes the query, the others wait for its result instead of taking their own connection.
+ * Nothing is kept once the query completes, so a select started after that always reads fresh data.
+ */
+public class SelectCoalescer {
+
+    private final Map<List<Object>, CompletableFuture<List<Map<String, Object>>>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Executes the select, or waits for an identical select that is already running.
+     * The executing caller and the waiting callers receive the same read-only rows, each in its own list.
+     *
+     * @param sql        the final SQL query
+     * @param parameters the values bound to the query
+     * @param loader     the loader executing the query
+     * @return the rows of the query
+     * @throws SQLException if the query fails, for the executing caller and every waiting caller
+     */
+    public List<Map<String, Object>> execute(String sql, List<Object> parameters, SelectLoader loader) throws SQLException {
+        List<Object> key = Arrays.asList(sql, parameters);
+        CompletableFuture<List<Map<String, Object>>> future = new CompletableFuture<>();
+        CompletableFuture<List<Map<String, Object>>> existing = this.inFlight.putIfAbsent(key, future);
+
+        if (existing != null) {
+            return new ArrayList<>(await(existing));
+        }
+
+        try {
+            List<Map<String, Object>> rows = readOnly(loader.load());
+            future.complete(rows);
+            return new ArrayList<>(rows);
+        } catch (Throwable throwable) {
+            // Errors too, a waiting caller would otherwise block forever
+            future.completeExceptionally(throwable);
+            throw throwable;
+        } finally {
+            this.inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Gets the number of selects currently running.
+     *
+     * @return the number of in-flight selects
+     */
+    public int getInFlightCount() {
+        return this.inFlight.size();
+    }
+
+    private List<Map<String, Object>> await(CompletableFuture<List<Map<String, Object>>> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for an in-flight select", exception);
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof SQLException) throw new SQLException(cause.getMessage(), cause);
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new SQLException(cause);
+        }
+    }
+
+    /**
+     * The rows are shared between the callers, rows that are not already read-only are wrapped.
+     */
+    private List<Map<String, Object>> readOnly(List<Map<String, Object>> rows) {
+        List<Map<String, Object>> readOnlyRows = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            readOnlyRows.add(row instanceof CompactRow ? row : Collections.unmodifiableMap(row));
+        }
+        return Collections.unmodifiableList(readOnlyRows);
+    }
+
+    @FunctionalInterface
+    public interface SelectLoader {
+        List<Map<String, Object>> load() throws SQLException;
+    }
+}
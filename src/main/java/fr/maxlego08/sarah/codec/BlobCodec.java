@@ -0,0 +1,31 @@
+package fr.maxlego08.sarah.codec;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Encodes the values of a BLOB column. A codec is selected per column with {@link fr.maxlego08.sarah.Column#codec()},
+ * by the name it was registered with in {@link BlobCodecs}.
+ */
+public interface BlobCodec {
+
+    /**
+     * Encodes a value.
+     *
+     * @param value the value, never null
+     * @return the bytes stored in the column
+     * @throws IOException if the value cannot be encoded
+     */
+    byte[] encode(Object value) throws IOException;
+
+    /**
+     * Decodes the bytes of a column.
+     *
+     * @param data the bytes stored in the column, never null
+     * @param type the type of the field, possibly a parameterized type
+     * @return the decoded value
+     * @throws IOException if the bytes cannot be decoded
+     */
+    Object decode(byte[] data, Type type) throws IOException;
+
+}
@@ -0,0 +1,59 @@
+package fr.maxlego08.sarah.codec;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registry of the codecs that can be selected with {@link fr.maxlego08.sarah.Column#codec()}.
+ * <ul>
+ *     <li>{@value #RAW}: byte arrays stored as they are</li>
+ *     <li>{@value #SERIALIZED}: Java serialization, the format of {@link fr.maxlego08.sarah.database.Schema#blob(String, Object)}</li>
+ *     <li>{@value #COMPACT}: a compact binary encoding without class descriptors</li>
+ *     <li>{@value #DEFLATE}: the compact encoding compressed with Deflate</li>
+ * </ul>
+ */
+public final class BlobCodecs {
+
+    public static final String RAW = "raw";
+    public static final String SERIALIZED = "serialized";
+    public static final String COMPACT = "compact";
+    public static final String DEFLATE = "deflate";
+
+    private static final Map<String, BlobCodec> CODECS = new ConcurrentHashMap<>();
+
+    static {
+        CompactBlobCodec compact = new CompactBlobCodec();
+        CODECS.put(RAW, new RawBlobCodec());
+        CODECS.put(SERIALIZED, new SerializedBlobCodec());
+        CODECS.put(COMPACT, compact);
+        CODECS.put(DEFLATE, new DeflateBlobCodec(compact));
+    }
+
+    private BlobCodecs() {
+    }
+
+    /**
+     * Registers a codec, replacing any codec registered with the same name.
+     *
+     * @param name  the name used in {@link fr.maxlego08.sarah.Column#codec()}
+     * @param codec the codec
+     */
+    public static void register(String name, BlobCodec codec) {
+        CODECS.put(name, codec);
+    }
+
+    /**
+     * Gets a codec by its name.
+     *
+     * @param name the name of the codec
+     * @return the codec
+     * @throws IllegalArgumentException if no codec is registered with this name
+     */
+    public static BlobCodec get(String name) {
+        BlobCodec codec = CODECS.get(name);
+        if (codec == null) {
+            throw new IllegalArgumentException("No blob codec registered with the name " + name);
+        }
+        return codec;
+    }
+}
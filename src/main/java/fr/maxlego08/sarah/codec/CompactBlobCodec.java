@@ -0,0 +1,576 @@
+package fr.maxlego08.sarah.codec;
+
+import fr.maxlego08.sarah.converter.TypeConverters;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A compact binary encoding without class descriptors. Each value is written as a one byte tag followed by its data,
+ * integers as variable length numbers. Objects are written as the values of their fields, in declaration order,
+ * and are decoded through the constructor taking every field in that order, like DTOs,
+ * or through a no-argument constructor.
+ * <p>
+ * Supported values are booleans, numbers, characters, strings, enums, UUIDs, byte arrays, arrays, collections, maps,
+ * {@link Date} and its {@code java.sql} subclasses, {@link Instant}, {@link LocalDate}, {@link LocalTime}, {@link LocalDateTime},
+ * {@link OffsetDateTime}, {@link ZonedDateTime}, {@link Duration}, and objects made of these values. Other classes of the
+ * platform, whose fields are not part of their API, are rejected when encoding.
+ * <p>
+ * Decoding uses the type of the field, including the type arguments of collections and maps. A collection or a map is
+ * created with the class of the field when it is concrete, otherwise with a class implementing the interface of the field.
+ */
+public class CompactBlobCodec implements BlobCodec {
+
+    private static final int NULL = 0;
+    private static final int FALSE = 1;
+    private static final int TRUE = 2;
+    private static final int LONG = 3;
+    private static final int DOUBLE = 4;
+    private static final int FLOAT = 5;
+    private static final int STRING = 6;
+    private static final int BYTES = 7;
+    private static final int UUID_VALUE = 8;
+    private static final int LIST = 9;
+    private static final int MAP = 10;
+    private static final int OBJECT = 11;
+    private static final int DATE = 12;
+    private static final int INSTANT = 13;
+    private static final int LOCAL_DATE = 14;
+    private static final int LOCAL_TIME = 15;
+    private static final int LOCAL_DATE_TIME = 16;
+    private static final int OFFSET_DATE_TIME = 17;
+    private static final int ZONED_DATE_TIME = 18;
+    private static final int DURATION = 19;
+    private static final int BIG_DECIMAL = 20;
+    private static final int BIG_INTEGER = 21;
+
+    private static final ClassValue<ObjectLayout> LAYOUTS = new ClassValue<ObjectLayout>() {
+        @Override
+        protected ObjectLayout computeValue(Class<?> type) {
+            return new ObjectLayout(type);
+        }
+    };
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            write(output, value);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] data, Type type) throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(data))) {
+            return shape(read(input), type);
+        }
+    }
+
+    private void write(DataOutputStream output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL);
+        } else if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            output.writeByte(LONG);
+            writeVarLong(output, zigZag(((Number) value).longValue()));
+        } else if (value instanceof Double) {
+            output.writeByte(DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            output.writeByte(FLOAT);
+            output.writeFloat((Float) value);
+        } else if (value instanceof String || value instanceof Character) {
+            writeString(output, value.toString());
+        } else if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            output.writeByte(BIG_DECIMAL);
+            writeVarLong(output, zigZag(decimal.scale()));
+            writeByteArray(output, decimal.unscaledValue().toByteArray());
+        } else if (value instanceof BigInteger) {
+            output.writeByte(BIG_INTEGER);
+            writeByteArray(output, ((BigInteger) value).toByteArray());
+        } else if (value instanceof Timestamp) {
+            // A timestamp keeps its nanoseconds
+            writeInstant(output, ((Timestamp) value).toInstant());
+        } else if (value instanceof Date) {
+            output.writeByte(DATE);
+            writeVarLong(output, zigZag(((Date) value).getTime()));
+        } else if (value instanceof Instant) {
+            writeInstant(output, (Instant) value);
+        } else if (value instanceof LocalDate) {
+            output.writeByte(LOCAL_DATE);
+            writeVarLong(output, zigZag(((LocalDate) value).toEpochDay()));
+        } else if (value instanceof LocalTime) {
+            output.writeByte(LOCAL_TIME);
+            writeVarLong(output, ((LocalTime) value).toNanoOfDay());
+        } else if (value instanceof LocalDateTime) {
+            output.writeByte(LOCAL_DATE_TIME);
+            writeLocalDateTime(output, (LocalDateTime) value);
+        } else if (value instanceof OffsetDateTime) {
+            OffsetDateTime dateTime = (OffsetDateTime) value;
+            output.writeByte(OFFSET_DATE_TIME);
+            writeLocalDateTime(output, dateTime.toLocalDateTime());
+            writeVarLong(output, zigZag(dateTime.getOffset().getTotalSeconds()));
+        } else if (value instanceof ZonedDateTime) {
+            ZonedDateTime dateTime = (ZonedDateTime) value;
+            output.writeByte(ZONED_DATE_TIME);
+            writeLocalDateTime(output, dateTime.toLocalDateTime());
+            writeVarLong(output, zigZag(dateTime.getOffset().getTotalSeconds()));
+            writeByteArray(output, dateTime.getZone().getId().getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Duration) {
+            Duration duration = (Duration) value;
+            output.writeByte(DURATION);
+            writeVarLong(output, zigZag(duration.getSeconds()));
+            writeVarLong(output, duration.getNano());
+        } else if (value instanceof Enum) {
+            writeString(output, ((Enum<?>) value).name());
+        } else if (value instanceof byte[]) {
+            output.writeByte(BYTES);
+            writeByteArray(output, (byte[]) value);
+        } else if (value instanceof UUID) {
+            UUID uuid = (UUID) value;
+            output.writeByte(UUID_VALUE);
+            output.writeLong(uuid.getMostSignificantBits());
+            output.writeLong(uuid.getLeastSignificantBits());
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            output.writeByte(LIST);
+            writeVarLong(output, collection.size());
+            for (Object element : collection) {
+                write(output, element);
+            }
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            output.writeByte(LIST);
+            writeVarLong(output, length);
+            for (int i = 0; i < length; i++) {
+                write(output, Array.get(value, i));
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            output.writeByte(MAP);
+            writeVarLong(output, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(output, entry.getKey());
+                write(output, entry.getValue());
+            }
+        } else if (isPlatformClass(value.getClass())) {
+            throw new IOException("Values of type " + value.getClass().getName() + " are not supported");
+        } else {
+            ObjectLayout layout = LAYOUTS.get(value.getClass());
+            output.writeByte(OBJECT);
+            writeVarLong(output, layout.fields.length);
+            for (Field field : layout.fields) {
+                try {
+                    write(output, field.get(value));
+                } catch (IllegalAccessException exception) {
+                    throw new IOException("Cannot read field " + field.getName() + " of " + value.getClass().getName(), exception);
+                }
+            }
+        }
+    }
+
+    private void writeString(DataOutputStream output, String value) throws IOException {
+        output.writeByte(STRING);
+        writeByteArray(output, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeByteArray(DataOutputStream output, byte[] bytes) throws IOException {
+        writeVarLong(output, bytes.length);
+        output.write(bytes);
+    }
+
+    private static void writeInstant(DataOutputStream output, Instant instant) throws IOException {
+        output.writeByte(INSTANT);
+        writeVarLong(output, zigZag(instant.getEpochSecond()));
+        writeVarLong(output, instant.getNano());
+    }
+
+    private static void writeLocalDateTime(DataOutputStream output, LocalDateTime dateTime) throws IOException {
+        writeVarLong(output, zigZag(dateTime.toLocalDate().toEpochDay()));
+        writeVarLong(output, dateTime.toLocalTime().toNanoOfDay());
+    }
+
+    /**
+     * Checks whether a class belongs to the Java platform. Their fields are implementation details,
+     * and cannot be read by reflection on Java 16 and later.
+     */
+    private static boolean isPlatformClass(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.");
+    }
+
+    /**
+     * Reads a value as a boolean, a long, a double, a float, a string, a byte array, a UUID, a big number,
+     * a date or time, a list, a map or the field values of an object.
+     */
+    private Object read(DataInputStream input) throws IOException {
+        int tag = input.readUnsignedByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case FALSE:
+                return false;
+            case TRUE:
+                return true;
+            case LONG:
+                return unZigZag(readVarLong(input));
+            case DOUBLE:
+                return input.readDouble();
+            case FLOAT:
+                return input.readFloat();
+            case STRING:
+                return new String(readBytes(input), StandardCharsets.UTF_8);
+            case BYTES:
+                return readBytes(input);
+            case UUID_VALUE:
+                return new UUID(input.readLong(), input.readLong());
+            case DATE:
+                return new Date(unZigZag(readVarLong(input)));
+            case INSTANT:
+                return Instant.ofEpochSecond(unZigZag(readVarLong(input)), readVarLong(input));
+            case LOCAL_DATE:
+                return LocalDate.ofEpochDay(unZigZag(readVarLong(input)));
+            case LOCAL_TIME:
+                return LocalTime.ofNanoOfDay(readVarLong(input));
+            case LOCAL_DATE_TIME:
+                return readLocalDateTime(input);
+            case OFFSET_DATE_TIME:
+                return OffsetDateTime.of(readLocalDateTime(input), ZoneOffset.ofTotalSeconds((int) unZigZag(readVarLong(input))));
+            case ZONED_DATE_TIME: {
+                LocalDateTime dateTime = readLocalDateTime(input);
+                ZoneOffset offset = ZoneOffset.ofTotalSeconds((int) unZigZag(readVarLong(input)));
+                ZoneId zone = ZoneId.of(new String(readBytes(input), StandardCharsets.UTF_8));
+                return ZonedDateTime.ofLocal(dateTime, zone, offset);
+            }
+            case DURATION:
+                return Duration.ofSeconds(unZigZag(readVarLong(input)), readVarLong(input));
+            case BIG_DECIMAL: {
+                int scale = (int) unZigZag(readVarLong(input));
+                return new BigDecimal(new BigInteger(readBytes(input)), scale);
+            }
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(input));
+            case LIST:
+            case OBJECT: {
+                int size = readSize(input);
+                List<Object> values = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    values.add(read(input));
+                }
+                return tag == LIST ? values : new FieldValues(values);
+            }
+            case MAP: {
+                int size = readSize(input);
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    map.put(read(input), read(input));
+                }
+                return map;
+            }
+            default:
+                throw new IOException("Unknown tag " + tag);
+        }
+    }
+
+    /**
+     * Converts a value read from the bytes to the type of a field.
+     */
+    private Object shape(Object value, Type type) throws IOException {
+        if (value == null) {
+            return null;
+        }
+
+        Class<?> rawType = rawType(type);
+        if (rawType == Object.class) {
+            return value instanceof FieldValues ? ((FieldValues) value).values : value;
+        }
+
+        if (value instanceof FieldValues) {
+            return LAYOUTS.get(rawType).create(this, ((FieldValues) value).values);
+        }
+
+        if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            if (rawType.isArray()) {
+                Object array = Array.newInstance(rawType.getComponentType(), list.size());
+                for (int i = 0; i < list.size(); i++) {
+                    Array.set(array, i, shape(list.get(i), rawType.getComponentType()));
+                }
+                return array;
+            }
+            Collection<Object> collection = newCollection(rawType, type, list.size());
+            Type elementType = typeArgument(type, 0);
+            for (Object element : list) {
+                collection.add(shape(element, elementType));
+            }
+            return collection;
+        }
+
+        if (value instanceof Map) {
+            Map<Object, Object> map = newMap(rawType, type);
+            Type keyType = typeArgument(type, 0);
+            Type valueType = typeArgument(type, 1);
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(shape(entry.getKey(), keyType), shape(entry.getValue(), valueType));
+            }
+            return map;
+        }
+
+        if ((rawType == char.class || rawType == Character.class) && value instanceof String) {
+            return ((String) value).charAt(0);
+        }
+        if (rawType == BigInteger.class) {
+            return new BigInteger(value.toString());
+        }
+        if (value instanceof Instant && (rawType == Date.class || rawType == Timestamp.class)) {
+            return rawType == Date.class ? Date.from((Instant) value) : Timestamp.from((Instant) value);
+        }
+        if (value instanceof Date && rawType == java.sql.Date.class) {
+            return new java.sql.Date(((Date) value).getTime());
+        }
+        if (value instanceof Date && rawType == Time.class) {
+            return new Time(((Date) value).getTime());
+        }
+        if (value instanceof Date && rawType == Timestamp.class) {
+            return new Timestamp(((Date) value).getTime());
+        }
+        return TypeConverters.convert(value, rawType);
+    }
+
+    /**
+     * Creates the collection of a field, of the class of the field when it is concrete.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Collection<Object> newCollection(Class<?> rawType, Type type, int size) throws IOException {
+        if (rawType == EnumSet.class) {
+            Class<?> elementType = rawType(typeArgument(type, 0));
+            if (!elementType.isEnum()) {
+                throw new IOException("The element type of an EnumSet must be an enum, got " + elementType.getName());
+            }
+            return (Collection<Object>) EnumSet.noneOf((Class<Enum>) elementType);
+        }
+        if (Collection.class.isAssignableFrom(rawType) && isConcrete(rawType)) {
+            return (Collection<Object>) instantiate(rawType);
+        }
+        if (rawType.isAssignableFrom(ArrayList.class)) return new ArrayList<>(size);
+        if (rawType.isAssignableFrom(LinkedHashSet.class)) return new LinkedHashSet<>();
+        if (rawType.isAssignableFrom(TreeSet.class)) return new TreeSet<>();
+        if (rawType.isAssignableFrom(LinkedList.class)) return new LinkedList<>();
+        throw new IOException("Cannot create a collection of type " + rawType.getName());
+    }
+
+    /**
+     * Creates the map of a field, of the class of the field when it is concrete.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<Object, Object> newMap(Class<?> rawType, Type type) throws IOException {
+        if (rawType == EnumMap.class) {
+            Class<?> keyType = rawType(typeArgument(type, 0));
+            if (!keyType.isEnum()) {
+                throw new IOException("The key type of an EnumMap must be an enum, got " + keyType.getName());
+            }
+            return new EnumMap(keyType);
+        }
+        if (Map.class.isAssignableFrom(rawType) && isConcrete(rawType)) {
+            return (Map<Object, Object>) instantiate(rawType);
+        }
+        if (rawType.isAssignableFrom(LinkedHashMap.class)) return new LinkedHashMap<>();
+        if (rawType.isAssignableFrom(TreeMap.class)) return new TreeMap<>();
+        if (rawType.isAssignableFrom(ConcurrentHashMap.class)) return new ConcurrentHashMap<>();
+        if (rawType.isAssignableFrom(ConcurrentSkipListMap.class)) return new ConcurrentSkipListMap<>();
+        throw new IOException("Cannot create a map of type " + rawType.getName());
+    }
+
+    private static boolean isConcrete(Class<?> type) {
+        return !type.isInterface() && !Modifier.isAbstract(type.getModifiers());
+    }
+
+    private static Object instantiate(Class<?> type) throws IOException {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException | RuntimeException exception) {
+            throw new IOException("Cannot create " + type.getName() + " without arguments", exception);
+        }
+    }
+
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class) return (Class<?>) type;
+        if (type instanceof ParameterizedType) return (Class<?>) ((ParameterizedType) type).getRawType();
+        return Object.class;
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) return arguments[index];
+        }
+        return Object.class;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(DataOutputStream output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = input.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length number");
+    }
+
+    private static int readSize(DataInputStream input) throws IOException {
+        long size = readVarLong(input);
+        if (size < 0 || size > input.available()) {
+            throw new IOException("Invalid size " + size);
+        }
+        return (int) size;
+    }
+
+    private static byte[] readBytes(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[readSize(input)];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private static LocalDateTime readLocalDateTime(DataInputStream input) throws IOException {
+        LocalDate date = LocalDate.ofEpochDay(unZigZag(readVarLong(input)));
+        return LocalDateTime.of(date, LocalTime.ofNanoOfDay(readVarLong(input)));
+    }
+
+    /**
+     * The field values of an encoded object.
+     */
+    private static final class FieldValues {
+
+        private final List<Object> values;
+
+        private FieldValues(List<Object> values) {
+            this.values = values;
+        }
+    }
+
+    /**
+     * The fields of a class, in declaration order, and the way to create an instance from their values.
+     */
+    private static final class ObjectLayout {
+
+        private final Class<?> type;
+        private final Field[] fields;
+        private final Constructor<?> constructor;
+        private final boolean fieldConstructor;
+
+        private ObjectLayout(Class<?> type) {
+            this.type = type;
+            List<Field> fields = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!field.isSynthetic() && !Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+            this.fields = fields.toArray(new Field[0]);
+
+            Constructor<?> fieldConstructor = null;
+            Constructor<?> emptyConstructor = null;
+            for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+                if (constructor.getParameterCount() == this.fields.length && fieldConstructor == null) {
+                    fieldConstructor = constructor;
+                } else if (constructor.getParameterCount() == 0) {
+                    emptyConstructor = constructor;
+                }
+            }
+            this.fieldConstructor = fieldConstructor != null;
+            this.constructor = fieldConstructor != null ? fieldConstructor : emptyConstructor;
+            if (this.constructor != null) {
+                this.constructor.setAccessible(true);
+            }
+        }
+
+        private Object create(CompactBlobCodec codec, List<Object> values) throws IOException {
+            if (this.constructor == null) {
+                throw new IOException("No constructor of " + this.type.getName() + " takes its " + this.fields.length + " fields");
+            }
+            if (values.size() != this.fields.length) {
+                throw new IOException("Expected " + this.fields.length + " fields for " + this.type.getName() + " but got " + values.size());
+            }
+
+            try {
+                Object[] fieldValues = new Object[this.fields.length];
+                for (int i = 0; i < this.fields.length; i++) {
+                    fieldValues[i] = codec.shape(values.get(i), this.fields[i].getGenericType());
+                }
+                if (this.fieldConstructor) {
+                    return this.constructor.newInstance(fieldValues);
+                }
+                Object instance = this.constructor.newInstance();
+                for (int i = 0; i < this.fields.length; i++) {
+                    this.fields[i].set(instance, fieldValues[i]);
+                }
+                return instance;
+            } catch (ReflectiveOperationException exception) {
+                throw new IOException("Cannot create " + this.type.getName(), exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package fr.maxlego08.sarah.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compresses the bytes of another codec with Deflate.
+ */
+public class DeflateBlobCodec implements BlobCodec {
+
+    private final BlobCodec delegate;
+    private final int level;
+
+    public DeflateBlobCodec(BlobCodec delegate) {
+        this(delegate, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param delegate the codec whose bytes are compressed
+     * @param level    the compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}
+     */
+    public DeflateBlobCodec(BlobCodec delegate, int level) {
+        this.delegate = delegate;
+        this.level = level;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        byte[] data = this.delegate.encode(value);
+        Deflater deflater = new Deflater(this.level);
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(data.length / 2, 32));
+            try (DeflaterOutputStream deflaterOutput = new DeflaterOutputStream(output, deflater)) {
+                deflaterOutput.write(data);
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public Object decode(byte[] data, Type type) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(data.length * 4);
+        try (InflaterInputStream input = new InflaterInputStream(new ByteArrayInputStream(data))) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        }
+        return this.delegate.decode(output.toByteArray(), type);
+    }
+}
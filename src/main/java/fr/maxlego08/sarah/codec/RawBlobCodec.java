@@ -0,0 +1,23 @@
+package fr.maxlego08.sarah.codec;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Stores {@code byte[]} values as they are.
+ */
+public class RawBlobCodec implements BlobCodec {
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        if (!(value instanceof byte[])) {
+            throw new IOException("The raw codec only encodes byte arrays, got " + value.getClass().getName());
+        }
+        return (byte[]) value;
+    }
+
+    @Override
+    public Object decode(byte[] data, Type type) {
+        return data;
+    }
+}
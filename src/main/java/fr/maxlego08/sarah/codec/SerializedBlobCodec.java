@@ -0,0 +1,31 @@
+package fr.maxlego08.sarah.codec;
+
+import fr.maxlego08.sarah.converter.TypeConverters;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Stores values with Java serialization, the format of {@link fr.maxlego08.sarah.database.Schema#blob(String, Object)}.
+ * Values are read back with {@link fr.maxlego08.sarah.security.SecureObjectInputStream}.
+ */
+public class SerializedBlobCodec implements BlobCodec {
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream(); ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(value);
+            oos.flush();
+            return baos.toByteArray();
+        }
+    }
+
+    @Override
+    public Object decode(byte[] data, Type type) {
+        Class<?> rawType = type instanceof ParameterizedType ? (Class<?>) ((ParameterizedType) type).getRawType() : (Class<?>) type;
+        return TypeConverters.deserialize(data, rawType);
+    }
+}
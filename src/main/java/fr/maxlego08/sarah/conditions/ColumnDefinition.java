@@ -1,6 +1,7 @@
 package fr.maxlego08.sarah.conditions;
 
 import fr.maxlego08.sarah.DatabaseConfiguration;
+import fr.maxlego08.sarah.converter.TypeConverters;
 import fr.maxlego08.sarah.database.DatabaseType;
 
 import java.util.Arrays;
@@ -190,7 +191,7 @@ public class ColumnDefinition {
     }
 
     public ColumnDefinition setObject(Object object) {
-        this.object = object;
+        this.object = TypeConverters.toJdbcValue(object);
         return this;
     }
 
@@ -1,6 +1,10 @@
 package fr.maxlego08.sarah.conditions;
 
+import fr.maxlego08.sarah.converter.TypeConverters;
+import fr.maxlego08.sarah.database.DatabaseType;
+
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -11,23 +15,55 @@ public class WhereCondition {
     private final String operator;
     private final WhereAction whereAction;
 
-    private final List<String> values = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+    private final List<String> tupleColumns = new ArrayList<>();
+    private final List<List<Object>> tuples = new ArrayList<>();
 
     public WhereCondition(String prefix, String column, String operator, Object value) {
         this.column = (prefix == null ? "" : prefix + ".") + "`" + column + "`";
         this.operator = operator;
-        this.value = value;
+        this.value = TypeConverters.toJdbcValue(value);
         this.whereAction = WhereAction.NORMAL;
     }
 
-    public WhereCondition(String prefix, String column, List<String> values) {
+    public WhereCondition(String prefix, String column, Collection<?> values) {
         this.column = (prefix == null ? "" : prefix + ".") + "`" + column + "`";
         this.value = null;
         this.operator = null;
-        this.values.addAll(values);
+        for (Object value : values) {
+            this.values.add(TypeConverters.toJdbcValue(value));
+        }
         this.whereAction = WhereAction.IN;
     }
 
+    /**
+     * Creates a tuple IN condition, for example {@code (`a`, `b`) IN ((?, ?), (?, ?))}.
+     * Each tuple must contain one value per column, in the same order as the columns.
+     *
+     * @param prefix  the table prefix, or null
+     * @param columns the columns compared by the tuple
+     * @param tuples  the values of each tuple
+     */
+    public WhereCondition(String prefix, List<String> columns, Collection<? extends List<?>> tuples) {
+        for (String tupleColumn : columns) {
+            this.tupleColumns.add((prefix == null ? "" : prefix + ".") + "`" + tupleColumn + "`");
+        }
+        this.column = "(" + String.join(", ", this.tupleColumns) + ")";
+        this.value = null;
+        this.operator = null;
+        for (List<?> tuple : tuples) {
+            if (tuple.size() != columns.size()) {
+                throw new IllegalArgumentException("Tuple size " + tuple.size() + " does not match columns count " + columns.size());
+            }
+            List<Object> values = new ArrayList<>(tuple.size());
+            for (Object value : tuple) {
+                values.add(TypeConverters.toJdbcValue(value));
+            }
+            this.tuples.add(values);
+        }
+        this.whereAction = WhereAction.IN_TUPLE;
+    }
+
     public WhereCondition(String column, WhereAction whereAction) {
         this.column = column;
         this.value = null;
@@ -36,11 +72,27 @@ public class WhereCondition {
     }
 
     public String getCondition() {
+        return getCondition(DatabaseType.MYSQL);
+    }
+
+    /**
+     * Gets the SQL condition for the given database type.
+     * SQLite only accepts a subquery on the right side of a row value IN, so tuples are rendered with {@code VALUES} there.
+     *
+     * @param databaseType the type of the database
+     * @return the SQL condition
+     */
+    public String getCondition(DatabaseType databaseType) {
         if (this.whereAction == WhereAction.IS_NOT_NULL) return this.column + " IS NOT NULL";
         if (this.whereAction == WhereAction.IS_NULL) return this.column + " IS NULL";
         if (this.whereAction == WhereAction.IN) {
             return this.column + " IN (" + values.stream().map(id -> "?").collect(Collectors.joining(",")) + ")";
         }
+        if (this.whereAction == WhereAction.IN_TUPLE) {
+            String placeholder = "(" + this.tupleColumns.stream().map(c -> "?").collect(Collectors.joining(", ")) + ")";
+            String placeholders = this.tuples.stream().map(t -> placeholder).collect(Collectors.joining(", "));
+            return this.column + " IN (" + (databaseType == DatabaseType.SQLITE ? "VALUES " : "") + placeholders + ")";
+        }
         return this.column + " " + this.operator + " ?";
     }
 
@@ -60,12 +112,15 @@ public class WhereCondition {
         return whereAction;
     }
 
-    public List<String> getValues() {
+    public List<Object> getValues() {
         return values;
     }
 
+    public List<List<Object>> getTuples() {
+        return tuples;
+    }
+
     public enum WhereAction {
-        IS_NOT_NULL, IS_NULL, NORMAL, IN,
+        IS_NOT_NULL, IS_NULL, NORMAL, IN, IN_TUPLE,
     }
 }
-
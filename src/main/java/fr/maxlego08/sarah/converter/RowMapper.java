@@ -0,0 +1,220 @@
+package fr.maxlego08.sarah.converter;
+
+import fr.maxlego08.sarah.Column;
+import fr.maxlego08.sarah.ConsumerConstructor;
+import fr.maxlego08.sarah.Relation;
+import fr.maxlego08.sarah.codec.BlobCodec;
+import fr.maxlego08.sarah.codec.BlobCodecs;
+import fr.maxlego08.sarah.exceptions.SarahException;
+import fr.maxlego08.sarah.lazy.Lazy;
+import fr.maxlego08.sarah.lazy.LazyGroup;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps rows to objects of a class through its first declared constructor, whose parameters
+ * are in the same order as the declared fields. The constructor, the column names and the converters
+ * of the fields are resolved once per class and reused for every row. Fields with a {@link Column#codec()}
+ * are decoded by their codec. {@link Lazy} fields hold a value of their type argument, loaded on first access
+ * when the column is not in the row, by the primary key of the object: a class with lazy fields must mark its key with
+ * {@link Column#primary()}. {@link Relation} fields take the list stored in the row under their column name.
+ *
+ * @param <T> the type of the objects
+ */
+public final class RowMapper<T> {
+
+    private static final ClassValue<RowMapper<?>> MAPPERS = new ClassValue<RowMapper<?>>() {
+        @Override
+        protected RowMapper<?> computeValue(Class<?> type) {
+            return new RowMapper<>(type);
+        }
+    };
+
+    private final Constructor<T> constructor;
+    private final FieldMapping[] mappings;
+    private final String keyColumn;
+    private final List<String> eagerColumns;
+    private final boolean lazyFields;
+
+    @SuppressWarnings("unchecked")
+    private RowMapper(Class<T> type) {
+        this.constructor = (Constructor<T>) type.getDeclaredConstructors()[0];
+        this.constructor.setAccessible(true);
+
+        Field[] fields = type.getDeclaredFields();
+        this.mappings = new FieldMapping[fields.length];
+        List<String> eagerColumns = new ArrayList<>(fields.length);
+        String keyColumn = null;
+        boolean lazyFields = false;
+        for (int i = 0; i < fields.length; i++) {
+            Column column = fields[i].getAnnotation(Column.class);
+            BlobCodec codec = column == null || column.codec().isEmpty() ? null : BlobCodecs.get(column.codec());
+            this.mappings[i] = new FieldMapping(ConsumerConstructor.getColumnName(fields[i]), fields[i], codec);
+            if (this.mappings[i].lazy) {
+                lazyFields = true;
+            } else if (!this.mappings[i].relation) {
+                eagerColumns.add(this.mappings[i].column);
+            }
+            if (keyColumn == null && column != null && column.primary()) {
+                keyColumn = this.mappings[i].column;
+            }
+        }
+        if (lazyFields && keyColumn == null) {
+            throw new IllegalArgumentException("The class " + type.getName() + " has lazy fields, one of its fields must be marked as primary");
+        }
+        // Like ConsumerConstructor, the first field is the primary key unless a field is marked as primary
+        this.keyColumn = keyColumn != null || fields.length == 0 ? keyColumn : this.mappings[0].column;
+        this.eagerColumns = Collections.unmodifiableList(eagerColumns);
+        this.lazyFields = lazyFields;
+    }
+
+    /**
+     * Gets the mapper of a class.
+     *
+     * @param type the class of the objects
+     * @param <T>  the type of the objects
+     * @return the mapper of the class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> of(Class<T> type) {
+        return (RowMapper<T>) MAPPERS.get(type);
+    }
+
+    /**
+     * Creates an object from a row.
+     *
+     * @param row the row, mapped by column name
+     * @return the object
+     * @throws Exception if a value cannot be converted or the constructor fails
+     */
+    public T map(Map<String, Object> row) throws Exception {
+        return this.map(row, null);
+    }
+
+    /**
+     * Creates an object from a row. The {@link Lazy} fields whose column is not in the row are loaded through the group
+     * on first access; without a group they hold a null value.
+     *
+     * @param row   the row, mapped by column name
+     * @param group the group of the lazy values of the result, or null
+     * @return the object
+     * @throws Exception if a value cannot be converted or the constructor fails
+     */
+    public T map(Map<String, Object> row, LazyGroup group) throws Exception {
+        Object[] params = new Object[this.constructor.getParameterCount()];
+        for (int i = 0; i < this.mappings.length; i++) {
+            FieldMapping mapping = this.mappings[i];
+            if (mapping.relation) {
+                params[i] = row.get(mapping.column);
+            } else if (!mapping.lazy) {
+                params[i] = mapping.convert(row.get(mapping.column));
+            } else if (group == null || row.containsKey(mapping.column)) {
+                params[i] = Lazy.of(mapping.convert(row.get(mapping.column)));
+            } else {
+                params[i] = group.create(mapping.column, mapping::convert, row.get(this.keyColumn));
+            }
+        }
+        return this.constructor.newInstance(params);
+    }
+
+    /**
+     * Checks whether the class has {@link Lazy} fields.
+     *
+     * @return true if the class has lazy fields
+     */
+    public boolean hasLazyFields() {
+        return this.lazyFields;
+    }
+
+    /**
+     * Gets the columns of the fields that are neither {@link Lazy} nor {@link Relation}, in field order.
+     *
+     * @return the eager columns
+     */
+    public List<String> getEagerColumns() {
+        return this.eagerColumns;
+    }
+
+    /**
+     * Gets the primary key column, the column of the field marked as primary or else of the first field.
+     *
+     * @return the primary key column, or null if the class has no fields
+     */
+    public String getKeyColumn() {
+        return this.keyColumn;
+    }
+
+    private static final class FieldMapping {
+
+        private final String column;
+        private final Class<?> type;
+        private final Type genericType;
+        private final BlobCodec codec;
+        private final boolean lazy;
+        private final boolean relation;
+        private volatile ResolvedConverter resolved;
+
+        private FieldMapping(String column, Field field, BlobCodec codec) {
+            this.column = column;
+            this.codec = codec;
+            this.lazy = field.getType() == Lazy.class;
+            this.relation = field.isAnnotationPresent(Relation.class);
+            if (this.lazy) {
+                // The value of a Lazy field is converted to its type argument
+                Type genericType = field.getGenericType();
+                this.genericType = genericType instanceof ParameterizedType ? ((ParameterizedType) genericType).getActualTypeArguments()[0] : Object.class;
+                this.type = rawType(this.genericType);
+            } else {
+                this.type = field.getType();
+                this.genericType = field.getGenericType();
+            }
+        }
+
+        private static Class<?> rawType(Type type) {
+            if (type instanceof Class) return (Class<?>) type;
+            if (type instanceof ParameterizedType) return rawType(((ParameterizedType) type).getRawType());
+            return Object.class;
+        }
+
+        private Object convert(Object value) {
+            if (value == null) return null;
+
+            if (this.codec != null && value instanceof byte[]) {
+                try {
+                    return this.codec.decode((byte[]) value, this.genericType);
+                } catch (IOException exception) {
+                    throw new SarahException("Failed to decode column " + this.column + ": " + exception.getMessage(), exception);
+                }
+            }
+
+            // The values of a column almost always have the same class, so the last converter is kept
+            ResolvedConverter current = this.resolved;
+            if (current == null || current.valueClass != value.getClass() || current.version != TypeConverters.getVersion()) {
+                current = new ResolvedConverter(value.getClass(), TypeConverters.getVersion(), TypeConverters.find(value.getClass(), this.type));
+                this.resolved = current;
+            }
+            return current.converter.convert(value);
+        }
+    }
+
+    private static final class ResolvedConverter {
+
+        private final Class<?> valueClass;
+        private final int version;
+        private final TypeConverter<?> converter;
+
+        private ResolvedConverter(Class<?> valueClass, int version, TypeConverter<?> converter) {
+            this.valueClass = valueClass;
+            this.version = version;
+            this.converter = converter;
+        }
+    }
+}
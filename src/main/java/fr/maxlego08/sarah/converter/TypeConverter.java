@@ -0,0 +1,20 @@
+package fr.maxlego08.sarah.converter;
+
+/**
+ * Converts a value read from the database into the type of a field.
+ *
+ * @param <T> the type of the field
+ * @see TypeConverters#register(Class, TypeConverter)
+ */
+@FunctionalInterface
+public interface TypeConverter<T> {
+
+    /**
+     * Converts a value read from the database.
+     *
+     * @param value the value, never null
+     * @return the converted value
+     */
+    T convert(Object value);
+
+}
@@ -0,0 +1,386 @@
+package fr.maxlego08.sarah.converter;
+
+import fr.maxlego08.sarah.exceptions.SarahException;
+import fr.maxlego08.sarah.security.SecureObjectInputStream;
+import fr.maxlego08.sarah.stream.StreamValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registry of the converters used to map rows to objects.
+ * A converter is resolved once for each pair of value class and field type, then cached.
+ * <p>
+ * Converters registered for a field type take precedence over the built-in conversions:
+ * <pre>{@code
+ * TypeConverters.register(Location.class, value -> Location.parse((String) value));
+ * }</pre>
+ */
+public final class TypeConverters {
+
+    /**
+     * The format of the dates stored as text, separated by a space or a {@code T}, with optional fractional seconds.
+     */
+    public static final DateTimeFormatter DATE_TIME_FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd[ ]['T']HH:mm:ss")
+            .optionalStart()
+            .appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true)
+            .optionalEnd()
+            .toFormatter();
+
+    private static final Map<Class<?>, TypeConverter<?>> REGISTERED = new ConcurrentHashMap<>();
+    private static final Map<ConverterKey, TypeConverter<?>> RESOLVED = new ConcurrentHashMap<>();
+    private static volatile int version;
+    private static volatile ZoneId timeZone = ZoneId.systemDefault();
+
+    private TypeConverters() {
+    }
+
+    /**
+     * Registers a converter for a field type, replacing the built-in conversion of that type.
+     *
+     * @param type      the type of the field
+     * @param converter the converter
+     * @param <T>       the type of the field
+     */
+    public static <T> void register(Class<T> type, TypeConverter<? extends T> converter) {
+        REGISTERED.put(wrap(type), converter);
+        RESOLVED.clear();
+        version++;
+    }
+
+    /**
+     * Removes the converter registered for a field type.
+     *
+     * @param type the type of the field
+     */
+    public static void unregister(Class<?> type) {
+        REGISTERED.remove(wrap(type));
+        RESOLVED.clear();
+        version++;
+    }
+
+    /**
+     * Gets a number that changes each time a converter is registered or removed,
+     * so that callers caching converters know when to resolve them again.
+     *
+     * @return the version of the registry
+     */
+    public static int getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the time zone of the dates stored without one: text values, {@link LocalDateTime} and {@link LocalDate}
+     * values, and the {@link Timestamp} and {@link java.sql.Date} values they are bound as. Every conversion between
+     * such a date and an instant ({@link Date}, {@link Instant} or epoch millis) uses this zone, in both directions.
+     * <p>
+     * The default is the time zone of the JVM, the one drivers use for {@link Timestamp} values.
+     * On SQLite, {@code CURRENT_TIMESTAMP} is written in UTC, so set {@link ZoneOffset#UTC} to read it as an instant.
+     *
+     * @param zone the time zone
+     */
+    public static void setTimeZone(ZoneId zone) {
+        timeZone = Objects.requireNonNull(zone, "zone");
+    }
+
+    public static ZoneId getTimeZone() {
+        return timeZone;
+    }
+
+    /**
+     * Converts a value to the given type.
+     *
+     * @param value the value, may be null
+     * @param type  the target type
+     * @return the converted value, or null if the value is null
+     */
+    public static Object convert(Object value, Class<?> type) {
+        return value == null ? null : find(value.getClass(), type).convert(value);
+    }
+
+    /**
+     * Gets the converter used for values of the given class and fields of the given type.
+     *
+     * @param valueClass the class of the values read from the database
+     * @param type       the type of the field
+     * @return the converter
+     */
+    public static TypeConverter<?> find(Class<?> valueClass, Class<?> type) {
+        return RESOLVED.computeIfAbsent(new ConverterKey(valueClass, type), key -> resolve(key.valueClass, wrap(key.type)));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static TypeConverter<?> resolve(Class<?> valueClass, Class<?> type) {
+        TypeConverter<?> registered = REGISTERED.get(type);
+        if (registered != null) {
+            return registered;
+        }
+
+        if (type.isEnum()) {
+            return enumConverter((Class<Enum>) type);
+        } else if (type == BigDecimal.class) {
+            if (valueClass == BigDecimal.class) return value -> value;
+            if (isIntegral(valueClass)) return value -> BigDecimal.valueOf(((Number) value).longValue());
+            return value -> new BigDecimal(value.toString());
+        } else if (type == UUID.class) {
+            if (valueClass == UUID.class) return value -> value;
+            return value -> UUID.fromString(value.toString());
+        } else if (type == Boolean.class) {
+            if (valueClass == Boolean.class) return value -> value;
+            if (isIntegral(valueClass)) return value -> ((Number) value).longValue() == 1;
+            return value -> {
+                String stringValue = value.toString();
+                return stringValue.equalsIgnoreCase("true") || stringValue.equalsIgnoreCase("1");
+            };
+        } else if (type == Long.class) {
+            if (Number.class.isAssignableFrom(valueClass)) return value -> ((Number) value).longValue();
+            return value -> Long.parseLong(value.toString());
+        } else if (type == Integer.class) {
+            if (Number.class.isAssignableFrom(valueClass)) return value -> ((Number) value).intValue();
+            return value -> Integer.parseInt(value.toString());
+        } else if (type == Double.class) {
+            if (Number.class.isAssignableFrom(valueClass)) return value -> ((Number) value).doubleValue();
+            return value -> Double.parseDouble(value.toString());
+        } else if (type == Float.class) {
+            if (Number.class.isAssignableFrom(valueClass)) return value -> ((Number) value).floatValue();
+            return value -> Float.parseFloat(value.toString());
+        } else if (type == Short.class) {
+            if (Number.class.isAssignableFrom(valueClass)) return value -> ((Number) value).shortValue();
+            return value -> Short.parseShort(value.toString());
+        } else if (type == Byte.class) {
+            if (Number.class.isAssignableFrom(valueClass)) return value -> ((Number) value).byteValue();
+            return value -> Byte.parseByte(value.toString());
+        } else if (type == Date.class) {
+            return dateConverter(valueClass);
+        } else if (type == Instant.class) {
+            return instantConverter(valueClass);
+        } else if (type == LocalDateTime.class) {
+            return localDateTimeConverter(valueClass);
+        } else if (type == LocalDate.class) {
+            return localDateConverter(valueClass);
+        } else if (Serializable.class.isAssignableFrom(type) && valueClass == byte[].class && type != byte[].class) {
+            return value -> deserialize((byte[]) value, type);
+        }
+        return value -> value;
+    }
+
+    private static TypeConverter<?> dateConverter(Class<?> valueClass) {
+        if (Date.class.isAssignableFrom(valueClass)) {
+            return value -> value;
+        } else if (valueClass == String.class) {
+            return value -> Date.from(parseDateTime((String) value).atZone(timeZone).toInstant());
+        } else if (Number.class.isAssignableFrom(valueClass)) {
+            return value -> new Date(((Number) value).longValue());
+        } else if (valueClass == LocalDateTime.class) {
+            return value -> Date.from(((LocalDateTime) value).atZone(timeZone).toInstant());
+        }
+        return value -> null;
+    }
+
+    private static TypeConverter<?> instantConverter(Class<?> valueClass) {
+        if (valueClass == Instant.class) {
+            return value -> value;
+        } else if (Date.class.isAssignableFrom(valueClass)) {
+            return value -> Instant.ofEpochMilli(((Date) value).getTime());
+        } else if (Number.class.isAssignableFrom(valueClass)) {
+            return value -> Instant.ofEpochMilli(((Number) value).longValue());
+        } else if (valueClass == LocalDateTime.class) {
+            return value -> ((LocalDateTime) value).atZone(timeZone).toInstant();
+        } else if (valueClass == String.class) {
+            return value -> parseDateTime((String) value).atZone(timeZone).toInstant();
+        }
+        return value -> null;
+    }
+
+    private static TypeConverter<?> localDateTimeConverter(Class<?> valueClass) {
+        if (valueClass == LocalDateTime.class) {
+            return value -> value;
+        } else if (valueClass == Timestamp.class) {
+            return value -> LocalDateTime.ofInstant(((Timestamp) value).toInstant(), timeZone);
+        } else if (Date.class.isAssignableFrom(valueClass)) {
+            return value -> LocalDateTime.ofInstant(Instant.ofEpochMilli(((Date) value).getTime()), timeZone);
+        } else if (Number.class.isAssignableFrom(valueClass)) {
+            return value -> LocalDateTime.ofInstant(Instant.ofEpochMilli(((Number) value).longValue()), timeZone);
+        } else if (valueClass == String.class) {
+            return value -> parseDateTime((String) value);
+        }
+        return value -> null;
+    }
+
+    private static TypeConverter<?> localDateConverter(Class<?> valueClass) {
+        if (valueClass == LocalDate.class) {
+            return value -> value;
+        } else if (valueClass == LocalDateTime.class) {
+            return value -> ((LocalDateTime) value).toLocalDate();
+        } else if (valueClass == String.class) {
+            return value -> {
+                String text = (String) value;
+                try {
+                    return LocalDate.parse(text.length() > 10 ? text.substring(0, 10) : text);
+                } catch (DateTimeParseException exception) {
+                    throw new SarahException("Failed to parse date: " + value, exception);
+                }
+            };
+        }
+        TypeConverter<?> dateTimeConverter = localDateTimeConverter(valueClass);
+        return value -> {
+            LocalDateTime dateTime = (LocalDateTime) dateTimeConverter.convert(value);
+            return dateTime == null ? null : dateTime.toLocalDate();
+        };
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            return LocalDateTime.parse(value, DATE_TIME_FORMATTER);
+        } catch (DateTimeParseException exception) {
+            throw new SarahException("Failed to parse date: " + value, exception);
+        }
+    }
+
+    /**
+     * Converts a {@code java.time} value to the JDBC type bound by every driver:
+     * {@link Timestamp} for {@link Instant} and {@link LocalDateTime}, {@link java.sql.Date} for {@link LocalDate}.
+     * Dates without a time zone are placed in the zone of {@link #setTimeZone(ZoneId)}.
+     * Other values are returned as they are.
+     *
+     * @param value the value to bind
+     * @return the value to pass to {@link java.sql.PreparedStatement#setObject(int, Object)}
+     */
+    public static Object toJdbcValue(Object value) {
+        if (value instanceof LocalDateTime) {
+            return Timestamp.from(((LocalDateTime) value).atZone(timeZone).toInstant());
+        } else if (value instanceof Instant) {
+            return Timestamp.from((Instant) value);
+        } else if (value instanceof LocalDate) {
+            return new java.sql.Date(((LocalDate) value).atStartOfDay(timeZone).toInstant().toEpochMilli());
+        }
+        return value;
+    }
+
+    /**
+     * Binds a column value to a statement parameter. {@link StreamValue} values are bound as streams,
+     * other values with {@link PreparedStatement#setObject(int, Object)}.
+     *
+     * @param preparedStatement the statement
+     * @param index             the index of the parameter
+     * @param value             the value
+     * @throws SQLException if the value cannot be bound
+     */
+    public static void bind(PreparedStatement preparedStatement, int index, Object value) throws SQLException {
+        if (value instanceof StreamValue) {
+            ((StreamValue) value).bind(preparedStatement, index);
+        } else {
+            preparedStatement.setObject(index, value);
+        }
+    }
+
+    /**
+     * Builds the table of the constants of an enum once, instead of looking them up for each row.
+     */
+    private static <E extends Enum<E>> TypeConverter<E> enumConverter(Class<E> type) {
+        Map<String, E> constants = new HashMap<>();
+        for (E constant : type.getEnumConstants()) {
+            constants.put(constant.name(), constant);
+        }
+        return value -> {
+            E constant = constants.get(value.toString());
+            if (constant == null) {
+                throw new IllegalArgumentException("No enum constant " + type.getCanonicalName() + "." + value);
+            }
+            return constant;
+        };
+    }
+
+    /**
+     * Securely deserializes an object from a byte array, allowing only the requested type, its package and safe defaults.
+     *
+     * @param data the serialized object data
+     * @param type the expected type of the deserialized object
+     * @param <T>  the type of the object
+     * @return the deserialized object
+     * @throws SarahException if deserialization fails or an unauthorized class is detected
+     */
+    public static <T> T deserialize(byte[] data, Class<T> type) {
+        try (ByteArrayInputStream bais = new ByteArrayInputStream(data);
+             SecureObjectInputStream ois = new SecureObjectInputStream(bais, type)) {
+
+            // Automatically allow the package of the requested type
+            // This allows library users to deserialize their own model classes
+            if (type.getPackage() != null) {
+                String packageName = type.getPackage().getName();
+                ois.allowPackagePrefix(packageName);
+            }
+
+            return type.cast(ois.readObject());
+        } catch (IOException | ClassNotFoundException exception) {
+            throw new SarahException("Failed to deserialize BLOB: " + exception.getMessage(), exception);
+        }
+    }
+
+    private static boolean isIntegral(Class<?> valueClass) {
+        return valueClass == Long.class || valueClass == Integer.class || valueClass == Short.class
+                || valueClass == Byte.class || valueClass == BigInteger.class;
+    }
+
+    /**
+     * Gets the wrapper class of a primitive type.
+     */
+    static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) return type;
+        if (type == long.class) return Long.class;
+        if (type == int.class) return Integer.class;
+        if (type == double.class) return Double.class;
+        if (type == boolean.class) return Boolean.class;
+        if (type == float.class) return Float.class;
+        if (type == short.class) return Short.class;
+        if (type == byte.class) return Byte.class;
+        if (type == char.class) return Character.class;
+        return type;
+    }
+
+    private static final class ConverterKey {
+
+        private final Class<?> valueClass;
+        private final Class<?> type;
+
+        private ConverterKey(Class<?> valueClass, Class<?> type) {
+            this.valueClass = valueClass;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ConverterKey)) return false;
+            ConverterKey that = (ConverterKey) o;
+            return valueClass == that.valueClass && type == that.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(valueClass, type);
+        }
+    }
+}
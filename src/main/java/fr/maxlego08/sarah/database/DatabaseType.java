@@ -2,8 +2,25 @@ package fr.maxlego08.sarah.database;
 
 public enum DatabaseType {
 
-    MYSQL,
-    MARIADB,
-    SQLITE,
+    MYSQL(65535),
+    MARIADB(65535),
+    // SQLITE_MAX_VARIABLE_NUMBER is 999 before SQLite 3.32.0
+    SQLITE(999),
 
+    ;
+
+    private final int maxParameters;
+
+    DatabaseType(int maxParameters) {
+        this.maxParameters = maxParameters;
+    }
+
+    /**
+     * Gets the maximum number of bind parameters allowed in a single statement.
+     *
+     * @return the maximum number of bind parameters
+     */
+    public int getMaxParameters() {
+        return maxParameters;
+    }
 }
@@ -1,14 +1,22 @@
 package fr.maxlego08.sarah.database;
 
 import fr.maxlego08.sarah.DatabaseConnection;
+import fr.maxlego08.sarah.codec.BlobCodec;
 import fr.maxlego08.sarah.conditions.ColumnDefinition;
 import fr.maxlego08.sarah.conditions.JoinCondition;
 import fr.maxlego08.sarah.conditions.SelectCondition;
 import fr.maxlego08.sarah.conditions.WhereCondition;
 import fr.maxlego08.sarah.logger.Logger;
+import fr.maxlego08.sarah.result.RowHandler;
 
+import java.io.InputStream;
+import java.io.Reader;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -61,6 +69,26 @@ public interface Schema {
      */
     Schema longText(String columnName);
 
+    /**
+     * Creates a column of type LONGTEXT, with the given value.
+     *
+     * @param columnName the name of the column
+     * @param value      the value of the column
+     * @return the current schema builder
+     */
+    Schema longText(String columnName, String value);
+
+    /**
+     * Sets the value of a LONGTEXT column from a reader. The reader is only read when the statement is executed,
+     * with {@link PreparedStatement#setCharacterStream(int, java.io.Reader, long)}, and is not closed.
+     *
+     * @param columnName the name of the column
+     * @param reader     the reader of the value
+     * @param length     the number of characters of the value, or -1 if unknown
+     * @return the current schema builder
+     */
+    Schema longText(String columnName, Reader reader, long length);
+
     /**
      * Creates a column of type DECIMAL, with default values.
      *
@@ -106,6 +134,67 @@ public interface Schema {
      */
     Schema date(String columnName, Date value);
 
+    /**
+     * Creates a column of type DATETIME.
+     *
+     * @param columnName the name of the column
+     * @return the current schema builder
+     */
+    Schema dateTime(String columnName);
+
+    /**
+     * Sets the value of a DATETIME column. The value is bound as a {@link java.sql.Timestamp}.
+     *
+     * @param columnName the name of the column
+     * @param value      the date and time value of the column
+     * @return the current schema builder
+     */
+    Schema dateTime(String columnName, LocalDateTime value);
+
+    /**
+     * Sets the value of a DATETIME column from an instant. The value is bound as a {@link java.sql.Timestamp}.
+     *
+     * @param columnName the name of the column
+     * @param value      the instant value of the column
+     * @return the current schema builder
+     */
+    Schema instant(String columnName, Instant value);
+
+    /**
+     * Creates a column of type DATE, without time.
+     *
+     * @param columnName the name of the column
+     * @return the current schema builder
+     */
+    Schema localDate(String columnName);
+
+    /**
+     * Sets the value of a DATE column. The value is bound as a {@link java.sql.Date}.
+     *
+     * @param columnName the name of the column
+     * @param value      the date value of the column
+     * @return the current schema builder
+     */
+    Schema localDate(String columnName, LocalDate value);
+
+    /**
+     * Creates a BIGINT column storing instants as milliseconds since the epoch.
+     * Range conditions and indexes then compare integers on every database, instead of dates or text.
+     *
+     * @param columnName the name of the column
+     * @return the current schema builder
+     */
+    Schema epochMillis(String columnName);
+
+    /**
+     * Sets the value of a column storing instants as milliseconds since the epoch.
+     *
+     * @param columnName the name of the column
+     * @param value      the instant value of the column
+     * @return the current schema builder
+     */
+    Schema epochMillis(String columnName, Instant value);
+
     /**
      * Creates a column of type BIGINT.
      *
@@ -227,6 +316,17 @@ public interface Schema {
      */
     Schema blob(String columnName, byte[] value);
 
+    /**
+     * Sets the value of a BLOB column from a stream. The stream is only read when the statement is executed,
+     * with {@link PreparedStatement#setBinaryStream(int, InputStream, long)}, and is not closed.
+     *
+     * @param columnName the name of the column
+     * @param stream     the stream of the value
+     * @param length     the number of bytes of the value, or -1 if unknown
+     * @return the current schema builder
+     */
+    Schema blob(String columnName, InputStream stream, long length);
+
     /**
      * Creates a column of type BLOB with the given default value.
      * The given default value is an object that is serialized to a byte array using Java's built-in serialization mechanism.
@@ -238,6 +338,17 @@ public interface Schema {
      */
     Schema blob(String columnName, Object object);
 
+    /**
+     * Creates a column of type BLOB whose value is encoded with the given codec.
+     *
+     * @param columnName the name of the column
+     * @param object     the value of the column, or null
+     * @param codec      the codec encoding the value
+     * @return the current schema builder
+     * @see fr.maxlego08.sarah.codec.BlobCodecs
+     */
+    Schema blob(String columnName, Object object, BlobCodec codec);
+
     /**
      * Makes the last added column the primary key of the table.
      *
@@ -417,6 +528,17 @@ public interface Schema {
      */
     Schema where(String tablePrefix, String columnName, String operator, Object value);
 
+    /**
+     * Adds a WHERE condition on a column storing instants as milliseconds since the epoch, see {@link #epochMillis(String)}.
+     * The instant is compared as its epoch millis instead of being bound as a timestamp.
+     *
+     * @param columnName the name of the column to be used in the WHERE condition
+     * @param operator   the operator to be used in the WHERE condition
+     * @param value      the instant value of the WHERE condition
+     * @return the current schema builder
+     */
+    Schema whereEpochMillis(String columnName, String operator, Instant value);
+
     /**
      * Adds a WHERE condition to the query, which will be {@code columnName IS NOT NULL}.
      *
@@ -433,6 +555,26 @@ public interface Schema {
 
     Schema whereIn(String tablePrefix, String columnName, List<String> strings);
 
+    /**
+     * Adds a WHERE IN condition to the query, keeping the type of each value when it is bound.
+     * {@link UUID} values are bound as strings and {@link Enum} values by their name, like the other schema methods.
+     *
+     * @param columnName the name of the column to be used in the WHERE condition
+     * @param values     the values to match
+     * @return the current schema builder
+     */
+    Schema whereIn(String columnName, Collection<?> values);
+
+    /**
+     * Adds a tuple WHERE IN condition to the query, of the format {@code (column1, column2) IN ((?, ?), (?, ?))}.
+     * This allows matching rows on composite keys.
+     *
+     * @param columnNames the names of the columns compared by the tuple
+     * @param tuples      the values of each tuple, in the same order as the columns
+     * @return the current schema builder
+     */
+    Schema whereIn(List<String> columnNames, Collection<? extends List<?>> tuples);
+
     /**
      * Adds a LEFT JOIN to the query.
      * The join is of the format: {@code primaryTable LEFT JOIN foreignTable ON primaryTable.primaryColumn = foreignTable.foreignColumn}.
@@ -531,6 +673,17 @@ public interface Schema {
      */
     List<Map<String, Object>> executeSelect(DatabaseConnection databaseConnection, Logger logger) throws SQLException;
 
+    /**
+     * Executes a SELECT query on the specified database connection and passes each row to the handler
+     * as soon as it is read. No row is kept in memory, and the query is never shared with other selects.
+     *
+     * @param databaseConnection the database connection to execute the SELECT query on
+     * @param logger             the logger to log query execution details and potential errors
+     * @param handler            the handler called for each row of the result set
+     * @throws SQLException if a database access error occurs or the query execution fails
+     */
+    void executeSelect(DatabaseConnection databaseConnection, Logger logger, RowHandler handler) throws SQLException;
+
     /**
      * Executes a SELECT COUNT query on the specified database connection and retrieves the result.
      * The query is constructed based on the schema configuration and any specified conditions.
@@ -542,10 +695,37 @@ public interface Schema {
      */
     long executeSelectCount(DatabaseConnection databaseConnection, Logger logger) throws SQLException;
 
+    /**
+     * Checks whether at least one row matches the schema conditions.
+     * The query is rendered as {@code SELECT 1 ... LIMIT 1}, so the database can stop at the first matching row
+     * instead of counting every row like {@link #executeSelectCount(DatabaseConnection, Logger)}.
+     *
+     * @param databaseConnection the database connection to execute the query on
+     * @param logger             the logger to log query execution details and potential errors
+     * @return true if at least one row matches, false otherwise
+     * @throws SQLException if a database access error occurs or the query execution fails
+     */
+    boolean executeExists(DatabaseConnection databaseConnection, Logger logger) throws SQLException;
+
+    /**
+     * Retrieves an approximate number of rows of the table, read from the database statistics.
+     * MySQL and MariaDB use {@code information_schema.TABLES.TABLE_ROWS}, SQLite uses {@code sqlite_stat1}
+     * (only filled after an {@code ANALYZE}). When no statistics are available, an exact count is executed instead.
+     * The WHERE conditions of the schema are ignored.
+     *
+     * @param databaseConnection the database connection to execute the query on
+     * @param logger             the logger to log query execution details and potential errors
+     * @return the approximate count of records in the table
+     * @throws SQLException if a database access error occurs or the query execution fails
+     */
+    long executeApproximateCount(DatabaseConnection databaseConnection, Logger logger) throws SQLException;
+
     /**
      * Executes a SELECT query on the specified database connection and retrieves the results.
      * The query is constructed based on the schema configuration and any specified conditions.
      * The results are then transformed into a list of objects of the specified class.
+     * When the class has {@link fr.maxlego08.sarah.lazy.Lazy} fields and no columns or joins are selected,
+     * only the other columns are selected and the lazy columns are loaded on first access.
      *
      * @param <T>                the type of objects to be retrieved
      * @param clazz              the class of the objects to be retrieved
@@ -556,6 +736,29 @@ public interface Schema {
      */
     <T> List<T> executeSelect(Class<T> clazz, DatabaseConnection databaseConnection, Logger logger) throws Exception;
 
+    /**
+     * Executes this insert or upsert schema and returns the resulting row, with its generated keys and default values.
+     * The row is returned by the write itself with {@code RETURNING} when the database supports it,
+     * otherwise it is selected from the primary after the write.
+     *
+     * @param databaseConnection the database connection to execute the query on
+     * @param logger             the logger to log query execution details and potential errors
+     * @param columns            the columns to return, or no column to return every column
+     * @return the resulting row, mapped by column name
+     */
+    Map<String, Object> executeReturning(DatabaseConnection databaseConnection, Logger logger, String... columns);
+
+    /**
+     * Transforms rows into objects of the specified class, the same way as {@link #executeSelect(Class, DatabaseConnection, Logger)}.
+     *
+     * @param <T>     the type of objects
+     * @param results the rows, mapped by column name
+     * @param clazz   the class of the objects
+     * @return a list of objects of the specified class
+     * @throws Exception if the transformation of the results fails
+     */
+    <T> List<T> transformResults(List<Map<String, Object>> results, Class<T> clazz) throws Exception;
+
     /**
      * Gets the migration associated with this schema.
      *
@@ -590,6 +793,14 @@ public interface Schema {
      */
     void whereConditions(StringBuilder stringBuilder);
 
+    /**
+     * Appends WHERE conditions to the provided SQL query, using the syntax of the given database type.
+     *
+     * @param stringBuilder the StringBuilder to append the WHERE conditions to
+     * @param databaseType  the type of the database the query will be executed on
+     */
+    void whereConditions(StringBuilder stringBuilder, DatabaseType databaseType);
+
     /**
      * Applies the stored WHERE conditions to the provided PreparedStatement.
      * This method iterates over all the WHERE conditions configured in the schema,
@@ -668,6 +879,32 @@ public interface Schema {
      */
     boolean isDistinct();
 
+    /**
+     * Executes this select on the primary database instead of a read replica.
+     * Use it when the select must see a write that was just made (read-your-writes).
+     */
+    void readFromPrimary();
+
+    /**
+     * Checks if this select must be executed on the primary database.
+     *
+     * @return true if the select must read from the primary
+     */
+    boolean isReadFromPrimary();
+
+    /**
+     * Leaves this select out of the detection of repeated queries, see {@link fr.maxlego08.sarah.DatabaseConnection#enableQueryDetection(int, long)}.
+     * Used for the chunks of a batched load after the first, which run the same statement by design.
+     */
+    void skipQueryDetection();
+
+    /**
+     * Checks if this select is left out of the detection of repeated queries.
+     *
+     * @return true if the select is not recorded by the detector
+     */
+    boolean isQueryDetectionSkipped();
+
     /**
      * Adds a column to the SELECT clause of the SQL query.
      *
@@ -0,0 +1,146 @@
+package fr.maxlego08.sarah.diagnostics;
+
+import fr.maxlego08.sarah.logger.Logger;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Detects N+1 query patterns: the same statement executed again and again with different values, usually by a
+ * select or a write called in a loop. Statements are grouped by shape, their SQL with literals and bind placeholders
+ * reduced to {@code ?} and {@code IN} lists reduced to one element. When a shape runs more than the threshold
+ * within the window, or within one {@link fr.maxlego08.sarah.transaction.Transaction} of the current thread,
+ * a warning with the stack trace of the caller and the batched alternative is logged once for that window
+ * or transaction.
+ */
+public final class RepeatedQueryDetector {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w`\"])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern TUPLE_LIST = Pattern.compile("\\(\\?\\)(?:\\s*,\\s*\\(\\?\\))+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int STACK_TRACE_DEPTH = 15;
+
+    private final int threshold;
+    private final long windowMillis;
+    private final Map<String, ShapeWindow> windows = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<String, Integer>> transactionCounts = new ThreadLocal<>();
+
+    /**
+     * Creates a detector.
+     *
+     * @param threshold    the number of executions of a shape allowed within the window or a transaction
+     * @param windowMillis the length of the window, in milliseconds
+     */
+    public RepeatedQueryDetector(int threshold, long windowMillis) {
+        if (threshold < 1) throw new IllegalArgumentException("The threshold must be positive");
+        if (windowMillis < 1) throw new IllegalArgumentException("The window must be positive");
+        this.threshold = threshold;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Reduces a statement to its shape, the same for every execution whatever its values.
+     *
+     * @param sql the SQL of the statement
+     * @return the shape of the statement
+     */
+    public static String fingerprint(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PLACEHOLDER_LIST.matcher(shape).replaceAll("(?)");
+        shape = TUPLE_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    /**
+     * Records the execution of a statement, logging a warning when its shape runs too often.
+     *
+     * @param sql    the SQL of the statement
+     * @param logger the logger receiving the warning
+     */
+    public void record(String sql, Logger logger) {
+        String shape = fingerprint(sql);
+
+        long now = System.currentTimeMillis();
+        ShapeWindow window = this.windows.computeIfAbsent(shape, key -> new ShapeWindow());
+        int count;
+        synchronized (window) {
+            if (now - window.start >= this.windowMillis) {
+                window.start = now;
+                window.count = 0;
+            }
+            count = ++window.count;
+        }
+        if (count == this.threshold + 1) {
+            this.warn(shape, "within " + this.windowMillis + " ms", logger);
+        }
+
+        Map<String, Integer> counts = this.transactionCounts.get();
+        if (counts != null && counts.merge(shape, 1, Integer::sum) == this.threshold + 1) {
+            this.warn(shape, "within one transaction", logger);
+        }
+    }
+
+    /**
+     * Starts counting the statements of a transaction run by the current thread.
+     *
+     * @return the action ending the transaction, to run when it is closed
+     */
+    public Runnable beginTransaction() {
+        Map<String, Integer> previous = this.transactionCounts.get();
+        this.transactionCounts.set(new HashMap<>());
+        return () -> {
+            if (previous == null) {
+                this.transactionCounts.remove();
+            } else {
+                this.transactionCounts.set(previous);
+            }
+        };
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    private void warn(String shape, String scope, Logger logger) {
+        StringBuilder message = new StringBuilder("Possible N+1 query, the statement ran more than ")
+                .append(this.threshold).append(" times ").append(scope).append(": ").append(shape)
+                .append(" - ").append(suggestion(shape));
+
+        StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+        int written = 0;
+        for (StackTraceElement element : stackTrace) {
+            if (element.getClassName().equals(RepeatedQueryDetector.class.getName())) continue;
+            message.append("\n\tat ").append(element);
+            if (++written == STACK_TRACE_DEPTH) break;
+        }
+        logger.info(message.toString());
+    }
+
+    private static String suggestion(String shape) {
+        String statement = shape.toUpperCase(Locale.ROOT);
+        if (statement.startsWith("SELECT")) {
+            return "load the rows at once with whereIn or RequestHelper#selectByKeys";
+        } else if (statement.startsWith("DELETE")) {
+            return "delete the rows at once with whereIn or RequestHelper#deleteMultiple";
+        } else if (statement.startsWith("UPDATE")) {
+            return "update the rows at once with RequestHelper#updateMultiple";
+        }
+        return "write the rows at once with RequestHelper#insertMultiple or RequestHelper#upsertMultiple";
+    }
+
+    private static final class ShapeWindow {
+
+        private long start;
+        private int count;
+    }
+}
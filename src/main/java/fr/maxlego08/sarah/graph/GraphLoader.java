@@ -0,0 +1,192 @@
+package fr.maxlego08.sarah.graph;
+
+import fr.maxlego08.sarah.ConsumerConstructor;
+import fr.maxlego08.sarah.DatabaseConnection;
+import fr.maxlego08.sarah.Relation;
+import fr.maxlego08.sarah.SchemaBuilder;
+import fr.maxlego08.sarah.converter.RowMapper;
+import fr.maxlego08.sarah.database.Schema;
+import fr.maxlego08.sarah.lazy.LazyGroup;
+import fr.maxlego08.sarah.logger.Logger;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps the rows of a select to objects with their {@link Relation} fields. The children of every relation are loaded
+ * for the whole result with one {@code IN} query per chunk of parent keys, and the relations of the children are loaded
+ * the same way, so the number of queries depends on the relations and not on the number of rows.
+ * <p>
+ * Integral keys are compared as longs, since drivers may read the parent key and the foreign key as different number types.
+ */
+public final class GraphLoader {
+
+    private static final int KEY_CHUNK_SIZE = 1000;
+
+    private static final ClassValue<List<RelationMapping>> RELATIONS = new ClassValue<List<RelationMapping>>() {
+        @Override
+        protected List<RelationMapping> computeValue(Class<?> type) {
+            List<RelationMapping> relations = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                Relation relation = field.getAnnotation(Relation.class);
+                if (relation != null) {
+                    relations.add(new RelationMapping(field, relation));
+                }
+            }
+            return Collections.unmodifiableList(relations);
+        }
+    };
+
+    private final DatabaseConnection databaseConnection;
+    private final Logger logger;
+
+    /**
+     * Creates a graph loader.
+     *
+     * @param databaseConnection the connection used to run the queries
+     * @param logger             the logger
+     */
+    public GraphLoader(DatabaseConnection databaseConnection, Logger logger) {
+        this.databaseConnection = databaseConnection;
+        this.logger = logger;
+    }
+
+    /**
+     * Executes a select and maps its rows to objects, with the children of their relations.
+     *
+     * @param schema the select schema
+     * @param clazz  the class of the objects
+     * @param <T>    the type of the objects
+     * @return the objects, in the order of the rows
+     * @throws Exception if a query fails or the rows cannot be mapped
+     * @throws IllegalArgumentException if the relations of the class form a cycle
+     */
+    public <T> List<T> load(Schema schema, Class<T> clazz) throws Exception {
+        return this.load(schema, clazz, null, null, new HashSet<>());
+    }
+
+    private <T> List<T> load(Schema schema, Class<T> clazz, String foreignKey, List<Object> foreignKeys, Set<Class<?>> path) throws Exception {
+        if (!path.add(clazz)) {
+            throw new IllegalArgumentException("The relations of " + clazz.getName() + " form a cycle");
+        }
+
+        RowMapper<T> mapper = RowMapper.of(clazz);
+        List<RelationMapping> relations = RELATIONS.get(clazz);
+
+        LazyGroup lazyGroup = null;
+        if (mapper.hasLazyFields() && schema.getSelectColumns().isEmpty() && schema.getJoinConditions().isEmpty()) {
+            // Like a select of the class, the lazy columns are left out but the keys of the relations are kept
+            Set<String> columns = new LinkedHashSet<>(mapper.getEagerColumns());
+            for (RelationMapping relation : relations) {
+                columns.add(relation.getKey(mapper));
+            }
+            if (foreignKey != null) columns.add(foreignKey);
+            for (String column : columns) {
+                schema.addSelect(column);
+            }
+            lazyGroup = new LazyGroup(this.databaseConnection, this.logger, schema.getTableName(), mapper.getKeyColumn());
+        }
+
+        List<Map<String, Object>> rows = schema.executeSelect(this.databaseConnection, this.logger);
+        if (!relations.isEmpty() && !rows.isEmpty()) {
+            List<Map<String, Object>> graphRows = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                graphRows.add(new HashMap<>(row));
+            }
+            rows = graphRows;
+
+            for (RelationMapping relation : relations) {
+                String keyColumn = relation.getKey(mapper);
+                Map<Object, List<Object>> childrenByKey = this.loadChildren(relation, rows, keyColumn, path);
+                for (Map<String, Object> row : rows) {
+                    List<Object> children = childrenByKey.get(normalizeKey(row.get(keyColumn)));
+                    row.put(relation.column, children == null ? new ArrayList<>() : children);
+                }
+            }
+        }
+
+        List<T> results = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            results.add(mapper.map(row, lazyGroup));
+            if (foreignKeys != null) {
+                foreignKeys.add(normalizeKey(row.get(foreignKey)));
+            }
+        }
+
+        path.remove(clazz);
+        return results;
+    }
+
+    private Map<Object, List<Object>> loadChildren(RelationMapping relation, List<Map<String, Object>> rows, String keyColumn, Set<Class<?>> path) throws Exception {
+        Set<Object> keys = new LinkedHashSet<>();
+        for (Map<String, Object> row : rows) {
+            Object key = row.get(keyColumn);
+            if (key != null) keys.add(key);
+        }
+
+        Map<Object, List<Object>> childrenByKey = new HashMap<>();
+        List<Object> keyList = new ArrayList<>(keys);
+        int maxParameters = this.databaseConnection.getDatabaseConfiguration().getDatabaseType().getMaxParameters();
+        int chunkSize = Math.max(1, Math.min(KEY_CHUNK_SIZE, maxParameters));
+
+        for (int start = 0; start < keyList.size(); start += chunkSize) {
+            Schema schema = SchemaBuilder.select(relation.table);
+            schema.whereIn(relation.foreignKey, keyList.subList(start, Math.min(keyList.size(), start + chunkSize)));
+            if (start > 0) schema.skipQueryDetection();
+            if (!relation.orderBy.isEmpty()) {
+                schema.orderBy(relation.orderBy);
+            }
+
+            // The children of a parent are all in the same chunk, so the order of the relation is kept
+            List<Object> foreignKeys = new ArrayList<>();
+            List<?> children = this.load(schema, relation.childType, relation.foreignKey, foreignKeys, path);
+            for (int i = 0; i < children.size(); i++) {
+                childrenByKey.computeIfAbsent(foreignKeys.get(i), key -> new ArrayList<>()).add(children.get(i));
+            }
+        }
+        return childrenByKey;
+    }
+
+    private static Object normalizeKey(Object key) {
+        if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+            return ((Number) key).longValue();
+        }
+        return key;
+    }
+
+    private static final class RelationMapping {
+
+        private final String column;
+        private final String table;
+        private final String foreignKey;
+        private final String key;
+        private final String orderBy;
+        private final Class<?> childType;
+
+        private RelationMapping(Field field, Relation relation) {
+            Type type = field.getGenericType();
+            if (field.getType() != List.class || !(type instanceof ParameterizedType) || !(((ParameterizedType) type).getActualTypeArguments()[0] instanceof Class)) {
+                throw new IllegalArgumentException("Relation field " + field.getName() + " must be a List of a class");
+            }
+            this.column = ConsumerConstructor.getColumnName(field);
+            this.table = relation.table();
+            this.foreignKey = relation.foreignKey();
+            this.key = relation.key();
+            this.orderBy = relation.orderBy();
+            this.childType = (Class<?>) ((ParameterizedType) type).getActualTypeArguments()[0];
+        }
+
+        private String getKey(RowMapper<?> mapper) {
+            return this.key.isEmpty() ? mapper.getKeyColumn() : this.key;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package fr.maxlego08.sarah.lazy;
+
+/**
+ * A field value that is only read from the database when it is first accessed. A {@code Lazy} field is left out
+ * of the select that maps the object, so list screens do not fetch large BLOB or LONGTEXT columns they never show.
+ * The first {@link #get()} loads the column for every object of the same result in one keyed query, see {@link LazyGroup}.
+ * The key is the field marked with {@link fr.maxlego08.sarah.Column#primary()}, which a class with lazy fields must have.
+ * <p>
+ * When the object is written, a loaded value is stored like a field of type {@code T}, and a value that was
+ * never loaded is left out of the statement, so that it keeps the value of the database.
+ *
+ * @param <T> the type of the value
+ */
+public final class Lazy<T> {
+
+    private final LazyGroup group;
+    private final LazyGroup.LazyColumn column;
+    private final Object key;
+    private volatile boolean loaded;
+    private T value;
+
+    Lazy(LazyGroup group, LazyGroup.LazyColumn column, Object key) {
+        this.group = group;
+        this.column = column;
+        this.key = key;
+    }
+
+    private Lazy(T value) {
+        this(null, null, null);
+        this.value = value;
+        this.loaded = true;
+    }
+
+    /**
+     * Creates a value that is already loaded.
+     *
+     * @param value the value
+     * @param <T>   the type of the value
+     * @return the loaded value
+     */
+    public static <T> Lazy<T> of(T value) {
+        return new Lazy<>(value);
+    }
+
+    /**
+     * Gets the value, loading it on the first call.
+     *
+     * @return the value
+     * @throws fr.maxlego08.sarah.exceptions.DatabaseException if the value cannot be loaded
+     */
+    public T get() {
+        if (!this.loaded) {
+            this.group.load(this.column);
+        }
+        return this.value;
+    }
+
+    /**
+     * Checks whether the value has been loaded.
+     *
+     * @return true if {@link #get()} will not query the database
+     */
+    public boolean isLoaded() {
+        return this.loaded;
+    }
+
+    Object getKey() {
+        return this.key;
+    }
+
+    @SuppressWarnings("unchecked")
+    void set(Object value) {
+        this.value = (T) value;
+        this.loaded = true;
+    }
+
+    @Override
+    public String toString() {
+        return this.loaded ? "Lazy{" + this.value + "}" : "Lazy{not loaded}";
+    }
+}
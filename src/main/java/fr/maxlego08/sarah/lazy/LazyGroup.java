@@ -0,0 +1,116 @@
+package fr.maxlego08.sarah.lazy;
+
+import fr.maxlego08.sarah.DatabaseConnection;
+import fr.maxlego08.sarah.SchemaBuilder;
+import fr.maxlego08.sarah.database.Schema;
+import fr.maxlego08.sarah.exceptions.DatabaseException;
+import fr.maxlego08.sarah.logger.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The {@link Lazy} values created for the objects of one select. When one of them is accessed, the column is loaded
+ * for every object of the result in one query per chunk of keys, instead of one query per object.
+ */
+public final class LazyGroup {
+
+    private static final int KEY_CHUNK_SIZE = 1000;
+
+    private final DatabaseConnection databaseConnection;
+    private final Logger logger;
+    private final String tableName;
+    private final String keyColumn;
+    private final Map<String, LazyColumn> columns = new HashMap<>();
+
+    /**
+     * Creates a group of lazy values.
+     *
+     * @param databaseConnection the connection used to load the values
+     * @param logger             the logger
+     * @param tableName          the table of the objects
+     * @param keyColumn          the primary key column of the table
+     */
+    public LazyGroup(DatabaseConnection databaseConnection, Logger logger, String tableName, String keyColumn) {
+        this.databaseConnection = databaseConnection;
+        this.logger = logger;
+        this.tableName = tableName;
+        this.keyColumn = keyColumn;
+    }
+
+    /**
+     * Creates a value of the group, loaded on first access.
+     *
+     * @param column    the column of the value
+     * @param converter converts the value read from the database to the type of the field
+     * @param key       the primary key of the row
+     * @param <T>       the type of the value
+     * @return the lazy value
+     */
+    public synchronized <T> Lazy<T> create(String column, Function<Object, Object> converter, Object key) {
+        LazyColumn lazyColumn = this.columns.computeIfAbsent(column, name -> new LazyColumn(name, converter));
+        Lazy<T> lazy = new Lazy<>(this, lazyColumn, key);
+        lazyColumn.pending.add(lazy);
+        return lazy;
+    }
+
+    synchronized void load(LazyColumn column) {
+        if (column.pending.isEmpty()) return;
+
+        Map<Object, List<Lazy<?>>> pendingByKey = new LinkedHashMap<>();
+        for (Lazy<?> lazy : column.pending) {
+            pendingByKey.computeIfAbsent(lazy.getKey(), key -> new ArrayList<>(1)).add(lazy);
+        }
+
+        int maxParameters = this.databaseConnection.getDatabaseConfiguration().getDatabaseType().getMaxParameters();
+        int chunkSize = Math.max(1, Math.min(KEY_CHUNK_SIZE, maxParameters));
+        List<Object> keys = new ArrayList<>(pendingByKey.keySet());
+
+        try {
+            for (int start = 0; start < keys.size(); start += chunkSize) {
+                Schema schema = SchemaBuilder.select(this.tableName);
+                schema.addSelect(this.keyColumn);
+                schema.addSelect(column.name);
+                schema.whereIn(this.keyColumn, keys.subList(start, Math.min(keys.size(), start + chunkSize)));
+                if (start > 0) schema.skipQueryDetection();
+                for (Map<String, Object> row : schema.executeSelect(this.databaseConnection, this.logger)) {
+                    List<Lazy<?>> lazies = pendingByKey.remove(row.get(this.keyColumn));
+                    if (lazies == null) continue;
+                    Object value = column.converter.apply(row.get(column.name));
+                    for (Lazy<?> lazy : lazies) {
+                        lazy.set(value);
+                    }
+                }
+            }
+        } catch (SQLException exception) {
+            this.logger.info("LazyLoad operation failed on table: " + this.tableName + " - " + exception.getMessage());
+            column.pending.removeIf(Lazy::isLoaded);
+            throw new DatabaseException("lazyLoad", this.tableName, exception);
+        }
+
+        // Rows deleted since the select have no value
+        for (List<Lazy<?>> lazies : pendingByKey.values()) {
+            for (Lazy<?> lazy : lazies) {
+                lazy.set(null);
+            }
+        }
+        column.pending.clear();
+    }
+
+    static final class LazyColumn {
+
+        private final String name;
+        private final Function<Object, Object> converter;
+        private final List<Lazy<?>> pending = new ArrayList<>();
+
+        private LazyColumn(String name, Function<Object, Object> converter) {
+            this.name = name;
+            this.converter = converter;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package fr.maxlego08.sarah.requests;
+
+import fr.maxlego08.sarah.DatabaseConfiguration;
+import fr.maxlego08.sarah.DatabaseConnection;
+import fr.maxlego08.sarah.conditions.ColumnDefinition;
+import fr.maxlego08.sarah.conditions.WhereCondition;
+import fr.maxlego08.sarah.converter.TypeConverters;
+import fr.maxlego08.sarah.database.DatabaseType;
+import fr.maxlego08.sarah.database.Executor;
+import fr.maxlego08.sarah.database.Schema;
+import fr.maxlego08.sarah.exceptions.DatabaseException;
+import fr.maxlego08.sarah.logger.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Updates many rows identified by their primary key with a few large statements instead of one statement per row.
+ * <p>
+ * Two strategies are available, chosen from the database type and the number of rows:
+ * <ul>
+ *     <li>chunked {@code UPDATE ... SET col = CASE key WHEN ? THEN ? ... END WHERE key IN (...)} statements</li>
+ *     <li>on MySQL and MariaDB, for at least {@link #TEMPORARY_TABLE_THRESHOLD} rows, the rows are loaded into a temporary
+ *     table with multi-row inserts and applied with a single {@code UPDATE ... JOIN}</li>
+ * </ul>
+ * Every schema must define the same columns in the same order, the primary key columns identify the row to update
+ * and every other column is written. When several schemas have the same key, the last one is applied, like a sequence
+ * of single-row updates. All statements run on one connection inside one transaction.
+ */
+public class BulkUpdateRequest implements Executor {
+
+    public static final int CASE_CHUNK_SIZE = 500;
+    public static final int TEMPORARY_TABLE_THRESHOLD = 5000;
+    private static final String TEMPORARY_TABLE_PREFIX = "sarah_bulk_update_";
+    private static final AtomicLong TEMPORARY_TABLE_SEQUENCE = new AtomicLong();
+
+    private final List<Schema> schemas;
+
+    public BulkUpdateRequest(List<Schema> schemas) {
+        this.schemas = schemas;
+    }
+
+    /**
+     * Checks whether the given schemas can be applied by a bulk update: they must identify their row with primary key
+     * columns that have a value, have at least one other column, and have no where or join condition.
+     *
+     * @param schemas the update schemas
+     * @return true if a bulk update can be used
+     */
+    public static boolean isApplicable(List<Schema> schemas) {
+        if (schemas.isEmpty()) return false;
+
+        Schema firstSchema = schemas.get(0);
+        if (!firstSchema.getWhereConditions().isEmpty() || !firstSchema.getJoinConditions().isEmpty()) return false;
+
+        int keyColumns = 0;
+        for (ColumnDefinition column : firstSchema.getColumns()) {
+            if (column.isPrimaryKey()) {
+                if (column.isAutoIncrement()) return false;
+                keyColumns++;
+            }
+        }
+        return keyColumns > 0 && keyColumns < firstSchema.getColumns().size();
+    }
+
+    /**
+     * Checks whether the update of the given number of rows uses a temporary table.
+     *
+     * @param databaseType the type of the database
+     * @param rows         the number of rows to update
+     * @return true if a temporary table is used, false if CASE statements are used
+     */
+    public static boolean useTemporaryTable(DatabaseType databaseType, int rows) {
+        return databaseType != DatabaseType.SQLITE && rows >= TEMPORARY_TABLE_THRESHOLD;
+    }
+
+    @Override
+    public int execute(DatabaseConnection databaseConnection, DatabaseConfiguration databaseConfiguration, Logger logger) {
+        if (this.schemas.isEmpty()) return 0;
+
+        Schema firstSchema = this.schemas.get(0);
+        if (!isApplicable(this.schemas)) {
+            throw new IllegalArgumentException("Bulk update requires primary key columns with values and no where or join condition");
+        }
+
+        List<Integer> keyIndexes = new ArrayList<>();
+        List<Integer> valueIndexes = new ArrayList<>();
+        List<ColumnDefinition> columns = firstSchema.getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            (columns.get(i).isPrimaryKey() ? keyIndexes : valueIndexes).add(i);
+        }
+        // A CASE takes the first matching WHEN and a join an arbitrary source row, only the last row of a key is kept
+        Map<List<Object>, Schema> rowsByKey = new LinkedHashMap<>();
+        for (Schema schema : this.schemas) {
+            if (schema.getColumns().size() != columns.size()) {
+                throw new IllegalArgumentException("Every row of a bulk update must define the same columns");
+            }
+            List<Object> key = new ArrayList<>(keyIndexes.size());
+            for (int keyIndex : keyIndexes) {
+                key.add(schema.getColumns().get(keyIndex).getObject());
+            }
+            rowsByKey.put(key, schema);
+        }
+        List<Schema> rows = new ArrayList<>(rowsByKey.values());
+
+        DatabaseType databaseType = databaseConfiguration.getDatabaseType();
+        boolean temporaryTable = useTemporaryTable(databaseType, rows.size());
+        if (databaseConfiguration.isDebug()) {
+            logger.info("Executing SQL Bulk Update (" + rows.size() + " rows, " + (temporaryTable ? "temporary table" : "case") + ") on table: " + firstSchema.getTableName());
+        }
+
+        try (Connection connection = databaseConnection.getConnection()) {
+            if (temporaryTable) {
+                return this.executeWithTemporaryTable(connection, databaseConfiguration, firstSchema, rows, keyIndexes, valueIndexes, logger);
+            }
+            return this.inTransaction(connection, () -> this.executeWithCase(connection, databaseConfiguration, firstSchema, rows, keyIndexes, valueIndexes), logger);
+        } catch (SQLException exception) {
+            logger.info("Bulk update operation failed on table: " + firstSchema.getTableName() + " - " + exception.getMessage());
+            throw new DatabaseException("bulkUpdate", firstSchema.getTableName(), exception);
+        }
+    }
+
+    private int executeWithCase(Connection connection, DatabaseConfiguration databaseConfiguration, Schema firstSchema, List<Schema> rows, List<Integer> keyIndexes, List<Integer> valueIndexes) throws SQLException {
+        int parametersPerRow = valueIndexes.size() * (keyIndexes.size() + 1) + keyIndexes.size();
+        int rowsPerChunk = Math.max(1, Math.min(CASE_CHUNK_SIZE, databaseConfiguration.getDatabaseType().getMaxParameters() / parametersPerRow));
+
+        int total = 0;
+        PreparedStatement fullChunkStatement = null;
+        try {
+            for (int start = 0; start < rows.size(); start += rowsPerChunk) {
+                List<Schema> chunk = rows.subList(start, Math.min(rows.size(), start + rowsPerChunk));
+                if (chunk.size() == rowsPerChunk) {
+                    if (fullChunkStatement == null) {
+                        fullChunkStatement = connection.prepareStatement(databaseConfiguration.replacePrefix(this.buildCaseQuery(firstSchema, keyIndexes, valueIndexes, chunk, databaseConfiguration.getDatabaseType())));
+                    }
+                    total += this.executeCaseChunk(fullChunkStatement, chunk, keyIndexes, valueIndexes);
+                } else {
+                    try (PreparedStatement lastChunkStatement = connection.prepareStatement(databaseConfiguration.replacePrefix(this.buildCaseQuery(firstSchema, keyIndexes, valueIndexes, chunk, databaseConfiguration.getDatabaseType())))) {
+                        total += this.executeCaseChunk(lastChunkStatement, chunk, keyIndexes, valueIndexes);
+                    }
+                }
+            }
+        } finally {
+            if (fullChunkStatement != null) {
+                fullChunkStatement.close();
+            }
+        }
+        return total;
+    }
+
+    private String buildCaseQuery(Schema firstSchema, List<Integer> keyIndexes, List<Integer> valueIndexes, List<Schema> chunk, DatabaseType databaseType) {
+        List<ColumnDefinition> columns = firstSchema.getColumns();
+        StringBuilder query = new StringBuilder("UPDATE ").append(firstSchema.getTableName()).append(" SET ");
+
+        String when;
+        if (keyIndexes.size() == 1) {
+            when = " WHEN ? THEN ?";
+        } else {
+            StringBuilder condition = new StringBuilder(" WHEN ");
+            for (int i = 0; i < keyIndexes.size(); i++) {
+                condition.append(i > 0 ? " AND " : "").append(columns.get(keyIndexes.get(i)).getSafeName()).append(" = ?");
+            }
+            when = condition.append(" THEN ?").toString();
+        }
+
+        for (int i = 0; i < valueIndexes.size(); i++) {
+            String name = columns.get(valueIndexes.get(i)).getSafeName();
+            query.append(i > 0 ? ", " : "").append(name).append(" = CASE");
+            if (keyIndexes.size() == 1) {
+                query.append(" ").append(columns.get(keyIndexes.get(0)).getSafeName());
+            }
+            for (int row = 0; row < chunk.size(); row++) {
+                query.append(when);
+            }
+            query.append(" ELSE ").append(name).append(" END");
+        }
+
+        query.append(" WHERE ").append(this.buildKeyCondition(columns, keyIndexes, chunk).getCondition(databaseType));
+        return query.toString();
+    }
+
+    /**
+     * Builds the {@code IN} condition that restricts the update to the rows of the chunk.
+     */
+    private WhereCondition buildKeyCondition(List<ColumnDefinition> columns, List<Integer> keyIndexes, List<Schema> chunk) {
+        if (keyIndexes.size() == 1) {
+            return new WhereCondition(null, columns.get(keyIndexes.get(0)).getName(), Collections.nCopies(chunk.size(), null));
+        }
+        List<String> keyColumns = new ArrayList<>();
+        for (int keyIndex : keyIndexes) {
+            keyColumns.add(columns.get(keyIndex).getName());
+        }
+        return new WhereCondition(null, keyColumns, Collections.nCopies(chunk.size(), Collections.nCopies(keyIndexes.size(), null)));
+    }
+
+    private int executeCaseChunk(PreparedStatement preparedStatement, List<Schema> chunk, List<Integer> keyIndexes, List<Integer> valueIndexes) throws SQLException {
+        int index = 1;
+        for (int valueIndex : valueIndexes) {
+            for (Schema schema : chunk) {
+                List<ColumnDefinition> schemaColumns = schema.getColumns();
+                for (int keyIndex : keyIndexes) {
+                    TypeConverters.bind(preparedStatement, index++, schemaColumns.get(keyIndex).getObject());
+                }
+                TypeConverters.bind(preparedStatement, index++, schemaColumns.get(valueIndex).getObject());
+            }
+        }
+        for (Schema schema : chunk) {
+            for (int keyIndex : keyIndexes) {
+                TypeConverters.bind(preparedStatement, index++, schema.getColumns().get(keyIndex).getObject());
+            }
+        }
+        int updatedRows = preparedStatement.executeUpdate();
+        preparedStatement.clearParameters();
+        return updatedRows;
+    }
+
+    /**
+     * Loads the rows into a temporary table and applies them with one {@code UPDATE ... JOIN}.
+     * The temporary table is created and dropped outside of the transaction, as some MySQL configurations
+     * do not allow temporary table statements inside a transaction. Each call uses its own table,
+     * so that bulk updates sharing a connection do not load their rows into the same table.
+     */
+    private int executeWithTemporaryTable(Connection connection, DatabaseConfiguration databaseConfiguration, Schema firstSchema, List<Schema> rows, List<Integer> keyIndexes, List<Integer> valueIndexes, Logger logger) throws SQLException {
+        String temporaryTable = TEMPORARY_TABLE_PREFIX + TEMPORARY_TABLE_SEQUENCE.incrementAndGet();
+        List<ColumnDefinition> columns = firstSchema.getColumns();
+        StringBuilder columnNames = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            columnNames.append(i > 0 ? ", " : "").append(columns.get(i).getSafeName());
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(databaseConfiguration.replacePrefix("CREATE TEMPORARY TABLE " + temporaryTable + " AS SELECT " + columnNames + " FROM " + firstSchema.getTableName() + " LIMIT 0"));
+        }
+
+        try {
+            return this.inTransaction(connection, () -> {
+                this.loadTemporaryTable(connection, temporaryTable, rows, columns.size(), columnNames.toString(), databaseConfiguration.getDatabaseType());
+
+                StringBuilder query = new StringBuilder("UPDATE ").append(firstSchema.getTableName()).append(" AS target INNER JOIN ").append(temporaryTable).append(" AS source ON ");
+                for (int i = 0; i < keyIndexes.size(); i++) {
+                    String name = columns.get(keyIndexes.get(i)).getSafeName();
+                    query.append(i > 0 ? " AND " : "").append("target.").append(name).append(" = source.").append(name);
+                }
+                query.append(" SET ");
+                for (int i = 0; i < valueIndexes.size(); i++) {
+                    String name = columns.get(valueIndexes.get(i)).getSafeName();
+                    query.append(i > 0 ? ", " : "").append("target.").append(name).append(" = source.").append(name);
+                }
+
+                try (Statement statement = connection.createStatement()) {
+                    return statement.executeUpdate(databaseConfiguration.replacePrefix(query.toString()));
+                }
+            }, logger);
+        } finally {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TEMPORARY TABLE IF EXISTS " + temporaryTable);
+            } catch (SQLException exception) {
+                logger.info("Could not drop temporary table " + temporaryTable + " - " + exception.getMessage());
+            }
+        }
+    }
+
+    private void loadTemporaryTable(Connection connection, String temporaryTable, List<Schema> rows, int columnCount, String columnNames, DatabaseType databaseType) throws SQLException {
+        int rowsPerChunk = Math.max(1, Math.min(CASE_CHUNK_SIZE, databaseType.getMaxParameters() / columnCount));
+        StringBuilder rowPlaceholder = new StringBuilder("(");
+        for (int i = 0; i < columnCount; i++) {
+            rowPlaceholder.append(i > 0 ? ", " : "").append("?");
+        }
+        rowPlaceholder.append(")");
+
+        PreparedStatement fullChunkStatement = null;
+        try {
+            for (int start = 0; start < rows.size(); start += rowsPerChunk) {
+                List<Schema> chunk = rows.subList(start, Math.min(rows.size(), start + rowsPerChunk));
+                StringBuilder query = new StringBuilder("INSERT INTO ").append(temporaryTable).append(" (").append(columnNames).append(") VALUES ");
+                for (int i = 0; i < chunk.size(); i++) {
+                    query.append(i > 0 ? ", " : "").append(rowPlaceholder);
+                }
+
+                boolean fullChunk = chunk.size() == rowsPerChunk;
+                if (fullChunk && fullChunkStatement == null) {
+                    fullChunkStatement = connection.prepareStatement(query.toString());
+                }
+                PreparedStatement preparedStatement = fullChunk ? fullChunkStatement : connection.prepareStatement(query.toString());
+                try {
+                    int index = 1;
+                    for (Schema schema : chunk) {
+                        for (ColumnDefinition column : schema.getColumns()) {
+                            TypeConverters.bind(preparedStatement, index++, column.getObject());
+                        }
+                    }
+                    preparedStatement.executeUpdate();
+                    preparedStatement.clearParameters();
+                } finally {
+                    if (!fullChunk) {
+                        preparedStatement.close();
+                    }
+                }
+            }
+        } finally {
+            if (fullChunkStatement != null) {
+                fullChunkStatement.close();
+            }
+        }
+    }
+
+    private int inTransaction(Connection connection, TransactionalWork work, Logger logger) throws SQLException {
+        boolean originalAutoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            int result = work.execute();
+            connection.commit();
+            return result;
+        } catch (SQLException exception) {
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackException) {
+                logger.info("Rollback failed: " + rollbackException.getMessage());
+            }
+            throw exception;
+        } finally {
+            connection.setAutoCommit(originalAutoCommit);
+        }
+    }
+
+    @FunctionalInterface
+    private interface TransactionalWork {
+        int execute() throws SQLException;
+    }
+}
@@ -0,0 +1,108 @@
+package fr.maxlego08.sarah.requests;
+
+import fr.maxlego08.sarah.DatabaseConfiguration;
+import fr.maxlego08.sarah.DatabaseConnection;
+import fr.maxlego08.sarah.database.Executor;
+import fr.maxlego08.sarah.database.Schema;
+import fr.maxlego08.sarah.exceptions.DatabaseException;
+import fr.maxlego08.sarah.logger.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executes delete schemas with JDBC batches, on one connection inside one transaction.
+ * Consecutive schemas that render the same statement share one prepared statement, and the statements
+ * run in the order of the list, so that triggers and foreign key checks see the deletes in that order.
+ */
+public class DeleteBatchRequest implements Executor {
+
+    private final List<Schema> schemas;
+
+    public DeleteBatchRequest(List<Schema> schemas) {
+        this.schemas = schemas;
+    }
+
+    @Override
+    public int execute(DatabaseConnection databaseConnection, DatabaseConfiguration databaseConfiguration, Logger logger) {
+        if (schemas.isEmpty()) return 0;
+
+        Schema firstSchema = schemas.get(0);
+
+        List<Batch> batches = new ArrayList<>();
+        Batch current = null;
+        for (Schema schema : schemas) {
+            StringBuilder sql = new StringBuilder("DELETE FROM ").append(schema.getTableName());
+            schema.whereConditions(sql, databaseConfiguration.getDatabaseType());
+            String deleteSql = databaseConfiguration.replacePrefix(sql.toString());
+            if (current == null || !current.sql.equals(deleteSql)) {
+                current = new Batch(deleteSql);
+                batches.add(current);
+            }
+            current.schemas.add(schema);
+        }
+
+        if (databaseConfiguration.isDebug()) {
+            for (Batch batch : batches) {
+                logger.info("Executing SQL Batch: " + batch.sql);
+            }
+        }
+
+        Connection connection = null;
+        boolean originalAutoCommit = true;
+
+        try {
+            connection = databaseConnection.getConnection();
+            originalAutoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            int total = 0;
+            for (Batch batch : batches) {
+                try (PreparedStatement preparedStatement = connection.prepareStatement(batch.sql)) {
+                    for (Schema schema : batch.schemas) {
+                        schema.applyWhereConditions(preparedStatement, 1);
+                        preparedStatement.addBatch();
+                    }
+
+                    for (int count : preparedStatement.executeBatch()) {
+                        total += Math.max(0, count);
+                    }
+                }
+            }
+            connection.commit();
+            return total;
+
+        } catch (SQLException exception) {
+            if (connection != null) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackException) {
+                    logger.info("Rollback failed: " + rollbackException.getMessage());
+                }
+            }
+            logger.info("Delete batch operation failed on table: " + firstSchema.getTableName() + " - " + exception.getMessage());
+            throw new DatabaseException("deleteBatch", firstSchema.getTableName(), exception);
+        } finally {
+            if (connection != null) {
+                try {
+                    connection.setAutoCommit(originalAutoCommit);
+                    connection.close();
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+    }
+
+    private static final class Batch {
+
+        private final String sql;
+        private final List<Schema> schemas = new ArrayList<>();
+
+        private Batch(String sql) {
+            this.sql = sql;
+        }
+    }
+}
@@ -22,12 +22,13 @@ public class DeleteRequest implements Executor {
     @Override
     public int execute(DatabaseConnection databaseConnection, DatabaseConfiguration databaseConfiguration, Logger logger) {
         StringBuilder sql = new StringBuilder("DELETE FROM ").append(schemaBuilder.getTableName());
-        schemaBuilder.whereConditions(sql);
+        schemaBuilder.whereConditions(sql, databaseConfiguration.getDatabaseType());
 
         String finalQuery = databaseConfiguration.replacePrefix(sql.toString());
         if (databaseConfiguration.isDebug()) {
             logger.info("Executing SQL: " + finalQuery);
         }
+        databaseConnection.recordQuery(finalQuery, logger);
 
         try (Connection connection = databaseConnection.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(finalQuery)) {
@@ -3,6 +3,7 @@ package fr.maxlego08.sarah.requests;
 import fr.maxlego08.sarah.DatabaseConfiguration;
 import fr.maxlego08.sarah.DatabaseConnection;
 import fr.maxlego08.sarah.conditions.ColumnDefinition;
+import fr.maxlego08.sarah.converter.TypeConverters;
 import fr.maxlego08.sarah.database.Executor;
 import fr.maxlego08.sarah.database.Schema;
 import fr.maxlego08.sarah.exceptions.DatabaseException;
@@ -72,7 +73,7 @@ public class InsertBatchRequest implements Executor {
 
             int index = 1;
             for (Object value : values) {
-                preparedStatement.setObject(index++, value);
+                TypeConverters.bind(preparedStatement, index++, value);
             }
 
             int updatedRows = preparedStatement.executeUpdate();
@@ -2,11 +2,14 @@ package fr.maxlego08.sarah.requests;
 
 import fr.maxlego08.sarah.DatabaseConfiguration;
 import fr.maxlego08.sarah.DatabaseConnection;
+import fr.maxlego08.sarah.batching.GroupCommitter;
 import fr.maxlego08.sarah.conditions.ColumnDefinition;
+import fr.maxlego08.sarah.converter.TypeConverters;
 import fr.maxlego08.sarah.database.Executor;
 import fr.maxlego08.sarah.database.Schema;
 import fr.maxlego08.sarah.exceptions.DatabaseException;
 import fr.maxlego08.sarah.logger.Logger;
+import fr.maxlego08.sarah.stream.StreamValue;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -51,11 +54,23 @@ public class InsertRequest implements Executor {
         if (databaseConfiguration.isDebug()) {
             logger.info("Executing SQL: " + upsertQuery);
         }
+        databaseConnection.recordQuery(upsertQuery, logger);
+
+        // A failed group retries its rows, which a consumed stream cannot be
+        GroupCommitter groupCommitter = databaseConnection.getGroupCommitter();
+        if (groupCommitter != null && !StreamValue.containsStream(values)) {
+            try {
+                return groupCommitter.submit(databaseConnection, upsertQuery, values, true, logger);
+            } catch (SQLException exception) {
+                logger.info("Insert operation failed on table: " + this.schema.getTableName() + " - " + exception.getMessage());
+                throw new DatabaseException("insert", this.schema.getTableName(), exception);
+            }
+        }
 
         try (Connection connection = databaseConnection.getConnection(); PreparedStatement preparedStatement = connection.prepareStatement(upsertQuery, Statement.RETURN_GENERATED_KEYS)) {
 
             for (int i = 0; i < values.size(); i++) {
-                preparedStatement.setObject(i + 1, values.get(i));
+                TypeConverters.bind(preparedStatement, i + 1, values.get(i));
             }
             preparedStatement.executeUpdate();
 
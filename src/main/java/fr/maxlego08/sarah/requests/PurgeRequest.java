@@ -0,0 +1,78 @@
+package fr.maxlego08.sarah.requests;
+
+import fr.maxlego08.sarah.DatabaseConfiguration;
+import fr.maxlego08.sarah.DatabaseConnection;
+import fr.maxlego08.sarah.database.DatabaseType;
+import fr.maxlego08.sarah.database.Executor;
+import fr.maxlego08.sarah.exceptions.DatabaseException;
+import fr.maxlego08.sarah.logger.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Deletes at most a given number of rows whose column is lower than a cutoff value.
+ * MySQL and MariaDB use {@code DELETE ... ORDER BY column LIMIT n}, SQLite deletes the rowids returned by a limited subquery,
+ * as {@code DELETE ... LIMIT} is not available in the default SQLite builds. The oldest rows are deleted first, which keeps
+ * the statement deterministic and safe for statement-based replication.
+ * <p>
+ * SQLite columns have no fixed storage class, and every INTEGER or REAL sorts before any TEXT. With a numeric cutoff,
+ * SQLite compares the numbers to the numeric cutoff and the texts to the cutoff, with two ranges that an index
+ * on the column can serve.
+ */
+public class PurgeRequest implements Executor {
+
+    private final String tableName;
+    private final String column;
+    private final Object cutoff;
+    private final Object numericCutoff;
+    private final int limit;
+
+    public PurgeRequest(String tableName, String column, Object cutoff, int limit) {
+        this(tableName, column, cutoff, null, limit);
+    }
+
+    public PurgeRequest(String tableName, String column, Object cutoff, Object numericCutoff, int limit) {
+        this.tableName = tableName;
+        this.column = column;
+        this.cutoff = cutoff;
+        this.numericCutoff = numericCutoff;
+        this.limit = limit;
+    }
+
+    @Override
+    public int execute(DatabaseConnection databaseConnection, DatabaseConfiguration databaseConfiguration, Logger logger) {
+        String sql;
+        boolean sqlite = databaseConfiguration.getDatabaseType() == DatabaseType.SQLITE;
+        if (sqlite && this.numericCutoff != null) {
+            // Two ranges of the column index, numbers before the numeric cutoff and texts before the text cutoff.
+            // Ordering the two ranges would scan the whole index, and SQLite has no statement-based replication.
+            String condition = "(`" + this.column + "` < ?) OR (`" + this.column + "` >= '' AND `" + this.column + "` < ?)";
+            sql = "DELETE FROM " + this.tableName + " WHERE rowid IN (SELECT rowid FROM " + this.tableName + " WHERE " + condition + " LIMIT " + this.limit + ")";
+        } else if (sqlite) {
+            sql = "DELETE FROM " + this.tableName + " WHERE rowid IN (SELECT rowid FROM " + this.tableName + " WHERE `" + this.column + "` < ? ORDER BY `" + this.column + "` LIMIT " + this.limit + ")";
+        } else {
+            sql = "DELETE FROM " + this.tableName + " WHERE `" + this.column + "` < ? ORDER BY `" + this.column + "` LIMIT " + this.limit;
+        }
+
+        String finalQuery = databaseConfiguration.replacePrefix(sql);
+        if (databaseConfiguration.isDebug()) {
+            logger.info("Executing SQL: " + finalQuery);
+        }
+
+        try (Connection connection = databaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(finalQuery)) {
+            if (sqlite && this.numericCutoff != null) {
+                preparedStatement.setObject(1, this.numericCutoff);
+                preparedStatement.setObject(2, this.cutoff);
+            } else {
+                preparedStatement.setObject(1, this.cutoff);
+            }
+            return preparedStatement.executeUpdate();
+        } catch (SQLException exception) {
+            logger.info("Purge operation failed on table: " + this.tableName + " - " + exception.getMessage());
+            throw new DatabaseException("purge", this.tableName, exception);
+        }
+    }
+}
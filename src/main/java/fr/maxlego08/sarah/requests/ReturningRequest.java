@@ -0,0 +1,235 @@
+package fr.maxlego08.sarah.requests;
+
+import fr.maxlego08.sarah.DatabaseConfiguration;
+import fr.maxlego08.sarah.DatabaseConnection;
+import fr.maxlego08.sarah.SchemaBuilder;
+import fr.maxlego08.sarah.conditions.ColumnDefinition;
+import fr.maxlego08.sarah.converter.TypeConverters;
+import fr.maxlego08.sarah.database.DatabaseType;
+import fr.maxlego08.sarah.database.Schema;
+import fr.maxlego08.sarah.database.SchemaType;
+import fr.maxlego08.sarah.exceptions.DatabaseException;
+import fr.maxlego08.sarah.logger.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Inserts or upserts a row and returns the resulting row, including generated keys and default values.
+ * <p>
+ * When the database supports it, the row is returned by the write itself with a {@code RETURNING} clause:
+ * inserts and upserts on SQLite 3.35+, inserts on MariaDB 10.5+. Otherwise the row is written with the regular
+ * request, then selected from the primary by its key.
+ */
+public class ReturningRequest {
+
+    private static final Pattern VERSION = Pattern.compile("(\\d+)\\.(\\d+)");
+
+    private final Schema schema;
+    private final String[] columns;
+
+    /**
+     * @param schema  an insert or upsert schema
+     * @param columns the columns to return, or no column to return every column
+     */
+    public ReturningRequest(Schema schema, String... columns) {
+        if (schema.getSchemaType() != SchemaType.INSERT && schema.getSchemaType() != SchemaType.UPSERT) {
+            throw new IllegalArgumentException("Returning only supports INSERT and UPSERT, got " + schema.getSchemaType());
+        }
+        this.schema = schema;
+        this.columns = columns;
+    }
+
+    /**
+     * Checks whether a database supports the {@code RETURNING} clause, from its product version.
+     *
+     * @param databaseType   the type of the database
+     * @param productVersion the product version reported by the driver
+     * @return true if {@code INSERT ... RETURNING} is supported
+     */
+    public static boolean isReturningSupported(DatabaseType databaseType, String productVersion) {
+        if (productVersion == null) return false;
+        if (databaseType == DatabaseType.SQLITE) {
+            return isAtLeast(productVersion, 3, 35);
+        }
+        if (!productVersion.contains("MariaDB")) return false;
+        // MariaDB servers can report a "5.5.5-" prefix for compatibility with old MySQL clients
+        return isAtLeast(productVersion.startsWith("5.5.5-") ? productVersion.substring(6) : productVersion, 10, 5);
+    }
+
+    private static boolean isAtLeast(String version, int major, int minor) {
+        Matcher matcher = VERSION.matcher(version);
+        if (!matcher.find()) return false;
+        int versionMajor = Integer.parseInt(matcher.group(1));
+        return versionMajor > major || (versionMajor == major && Integer.parseInt(matcher.group(2)) >= minor);
+    }
+
+    /**
+     * Executes the write and returns the resulting row.
+     *
+     * @param databaseConnection    the database connection
+     * @param databaseConfiguration the database configuration
+     * @param logger                the logger
+     * @return the resulting row, mapped by column label
+     */
+    public Map<String, Object> execute(DatabaseConnection databaseConnection, DatabaseConfiguration databaseConfiguration, Logger logger) {
+        DatabaseType databaseType = databaseConfiguration.getDatabaseType();
+        boolean upsert = this.schema.getSchemaType() == SchemaType.UPSERT;
+        if (databaseConnection.isReturningSupported() && (!upsert || databaseType == DatabaseType.SQLITE)) {
+            return this.executeReturning(databaseConnection, databaseConfiguration, logger);
+        }
+        return this.executeAndSelect(databaseConnection, databaseConfiguration, logger);
+    }
+
+    private Map<String, Object> executeReturning(DatabaseConnection databaseConnection, DatabaseConfiguration databaseConfiguration, Logger logger) {
+        StringBuilder query = new StringBuilder("INSERT INTO ").append(this.schema.getTableName()).append(" (");
+        StringBuilder valuesQuery = new StringBuilder("VALUES (");
+        List<Object> values = new ArrayList<>();
+        List<String> updates = new ArrayList<>();
+        for (ColumnDefinition column : this.schema.getColumns()) {
+            if (column.isAutoIncrement()) continue;
+            query.append(values.isEmpty() ? "" : ", ").append(column.getSafeName());
+            valuesQuery.append(values.isEmpty() ? "" : ", ").append("?");
+            values.add(column.getObject());
+            updates.add(column.getSafeName() + " = excluded." + column.getSafeName());
+        }
+        query.append(") ").append(valuesQuery).append(")");
+
+        if (this.schema.getSchemaType() == SchemaType.UPSERT) {
+            List<String> conflictColumns = new ArrayList<>();
+            for (ColumnDefinition column : this.schema.getColumns()) {
+                if (column.isPrimaryKey() && !column.isAutoIncrement()) {
+                    conflictColumns.add(column.getSafeName());
+                }
+            }
+            query.append(" ON CONFLICT (").append(String.join(", ", conflictColumns)).append(") DO UPDATE SET ").append(String.join(", ", updates));
+        }
+
+        query.append(" RETURNING ");
+        if (this.columns.length == 0) {
+            query.append("*");
+        } else {
+            for (int i = 0; i < this.columns.length; i++) {
+                query.append(i > 0 ? ", " : "").append("`").append(this.columns[i]).append("`");
+            }
+        }
+
+        String finalQuery = databaseConfiguration.replacePrefix(query.toString());
+        if (databaseConfiguration.isDebug()) {
+            logger.info("Executing SQL: " + finalQuery);
+        }
+        databaseConnection.recordQuery(finalQuery, logger);
+
+        try (Connection connection = databaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(finalQuery)) {
+            for (int i = 0; i < values.size(); i++) {
+                TypeConverters.bind(preparedStatement, i + 1, values.get(i));
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                if (resultSet.next()) {
+                    ResultSetMetaData metaData = resultSet.getMetaData();
+                    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                        row.put(metaData.getColumnLabel(i), resultSet.getObject(i));
+                    }
+                }
+                return row;
+            }
+        } catch (SQLException exception) {
+            String operation = this.schema.getSchemaType() == SchemaType.UPSERT ? "upsertReturning" : "insertReturning";
+            logger.info("Returning operation failed on table: " + this.schema.getTableName() + " - " + exception.getMessage());
+            throw new DatabaseException(operation, this.schema.getTableName(), exception);
+        }
+    }
+
+    /**
+     * Writes the row with the regular request, then selects it from the primary by its key. An insert that leaves
+     * its key to the database is selected by the generated key, in the primary key column read from the table metadata.
+     * When the row has no key, the written values are returned.
+     */
+    private Map<String, Object> executeAndSelect(DatabaseConnection databaseConnection, DatabaseConfiguration databaseConfiguration, Logger logger) {
+        int generatedKey;
+        try {
+            generatedKey = this.schema.execute(databaseConnection, logger);
+        } catch (SQLException exception) {
+            throw new DatabaseException(this.schema.getSchemaType() == SchemaType.UPSERT ? "upsert" : "insert", this.schema.getTableName(), exception);
+        }
+
+        Schema select = SchemaBuilder.select(this.schema.getTableName());
+        boolean hasKey = false;
+        for (ColumnDefinition column : this.schema.getColumns()) {
+            if (!column.isPrimaryKey()) continue;
+            if (column.isAutoIncrement()) {
+                // An upsert does not report the key of an updated row
+                if (this.schema.getSchemaType() != SchemaType.INSERT) {
+                    hasKey = false;
+                    break;
+                }
+                select.where(column.getName(), generatedKey);
+            } else {
+                select.where(column.getName(), column.getObject());
+            }
+            hasKey = true;
+        }
+
+        if (!hasKey && this.schema.getSchemaType() == SchemaType.INSERT && generatedKey > 0) {
+            String keyColumn = this.findGeneratedKeyColumn(databaseConnection, databaseConfiguration, logger);
+            if (keyColumn != null) {
+                select.where(keyColumn, generatedKey);
+                hasKey = true;
+            }
+        }
+
+        if (!hasKey) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (ColumnDefinition column : this.schema.getColumns()) {
+                if (!column.isAutoIncrement()) {
+                    row.put(column.getName(), column.getObject());
+                }
+            }
+            return row;
+        }
+
+        for (String column : this.columns) {
+            select.addSelect(column);
+        }
+        // Read your own write, a replica may not have it yet
+        select.readFromPrimary();
+        try {
+            List<Map<String, Object>> rows = select.executeSelect(databaseConnection, logger);
+            return rows.isEmpty() ? new LinkedHashMap<>() : rows.get(0);
+        } catch (SQLException exception) {
+            throw new DatabaseException("select", this.schema.getTableName(), exception);
+        }
+    }
+
+    /**
+     * Reads the primary key column of the table from the metadata of the connection.
+     *
+     * @return the column, or null if the primary key is not a single column
+     */
+    private String findGeneratedKeyColumn(DatabaseConnection databaseConnection, DatabaseConfiguration databaseConfiguration, Logger logger) {
+        String tableName = databaseConfiguration.replacePrefix(this.schema.getTableName());
+        String keyColumn = null;
+        try (Connection connection = databaseConnection.getConnection();
+             ResultSet resultSet = connection.getMetaData().getPrimaryKeys(connection.getCatalog(), null, tableName)) {
+            while (resultSet.next()) {
+                if (keyColumn != null) return null;
+                keyColumn = resultSet.getString("COLUMN_NAME");
+            }
+        } catch (SQLException exception) {
+            logger.info("Failed to read the primary key of table: " + tableName + " - " + exception.getMessage());
+            return null;
+        }
+        return keyColumn;
+    }
+}
@@ -0,0 +1,155 @@
+package fr.maxlego08.sarah.requests;
+
+import fr.maxlego08.sarah.DatabaseConfiguration;
+import fr.maxlego08.sarah.DatabaseConnection;
+import fr.maxlego08.sarah.conditions.ColumnDefinition;
+import fr.maxlego08.sarah.converter.TypeConverters;
+import fr.maxlego08.sarah.database.DatabaseType;
+import fr.maxlego08.sarah.database.Executor;
+import fr.maxlego08.sarah.database.Schema;
+import fr.maxlego08.sarah.database.SchemaType;
+import fr.maxlego08.sarah.exceptions.DatabaseException;
+import fr.maxlego08.sarah.logger.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Inserts or upserts rows read from an iterator in fixed-size chunks.
+ * Rows are converted and bound one chunk at a time, so memory use does not depend on the number of rows.
+ * Every full chunk reuses the same prepared statement, each chunk is executed as one multi-row statement.
+ */
+public class StreamingBatchRequest implements Executor {
+
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private final String tableName;
+    private final Iterator<Schema> schemas;
+    private final SchemaType schemaType;
+    private final int chunkSize;
+
+    /**
+     * Creates a streaming batch request.
+     *
+     * @param tableName  the name of the table
+     * @param schemas    the rows to write, created lazily by the iterator
+     * @param schemaType {@link SchemaType#INSERT} or {@link SchemaType#UPSERT}
+     * @param chunkSize  the maximum number of rows per statement
+     */
+    public StreamingBatchRequest(String tableName, Iterator<Schema> schemas, SchemaType schemaType, int chunkSize) {
+        if (schemaType != SchemaType.INSERT && schemaType != SchemaType.UPSERT) {
+            throw new IllegalArgumentException("Streaming batch only supports INSERT and UPSERT, got " + schemaType);
+        }
+        this.tableName = tableName;
+        this.schemas = schemas;
+        this.schemaType = schemaType;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public int execute(DatabaseConnection databaseConnection, DatabaseConfiguration databaseConfiguration, Logger logger) {
+        if (!this.schemas.hasNext()) return 0;
+
+        Schema firstSchema = this.schemas.next();
+        List<ColumnDefinition> columns = new ArrayList<>();
+        for (ColumnDefinition column : firstSchema.getColumns()) {
+            if (!column.isAutoIncrement()) {
+                columns.add(column);
+            }
+        }
+
+        int columnCount = columns.size();
+        int rowsPerChunk = Math.max(1, Math.min(this.chunkSize, databaseConfiguration.getDatabaseType().getMaxParameters() / Math.max(1, columnCount)));
+        Object[] values = new Object[rowsPerChunk * columnCount];
+
+        String fullChunkQuery = databaseConfiguration.replacePrefix(this.buildQuery(firstSchema, columns, rowsPerChunk, databaseConfiguration.getDatabaseType()));
+        if (databaseConfiguration.isDebug()) {
+            logger.info("Executing SQL Stream (" + rowsPerChunk + " rows per chunk) on table: " + this.tableName);
+        }
+
+        int total = 0;
+        try (Connection connection = databaseConnection.getConnection();
+             PreparedStatement fullChunkStatement = connection.prepareStatement(fullChunkQuery)) {
+
+            Schema schema = firstSchema;
+            int rows = 0;
+            while (schema != null) {
+                int offset = rows * columnCount;
+                List<ColumnDefinition> schemaColumns = schema.getColumns();
+                int index = 0;
+                for (ColumnDefinition column : schemaColumns) {
+                    if (!column.isAutoIncrement()) {
+                        values[offset + index++] = column.getObject();
+                    }
+                }
+                if (index != columnCount) {
+                    throw new IllegalArgumentException("Every row of a streaming batch must define the same columns");
+                }
+                rows++;
+
+                schema = this.schemas.hasNext() ? this.schemas.next() : null;
+
+                if (rows == rowsPerChunk) {
+                    total += this.executeChunk(fullChunkStatement, values, rows * columnCount);
+                    rows = 0;
+                } else if (schema == null && rows > 0) {
+                    String lastChunkQuery = databaseConfiguration.replacePrefix(this.buildQuery(firstSchema, columns, rows, databaseConfiguration.getDatabaseType()));
+                    try (PreparedStatement lastChunkStatement = connection.prepareStatement(lastChunkQuery)) {
+                        total += this.executeChunk(lastChunkStatement, values, rows * columnCount);
+                    }
+                }
+            }
+            return total;
+        } catch (SQLException exception) {
+            logger.info("Streaming batch operation failed on table: " + this.tableName + " - " + exception.getMessage());
+            throw new DatabaseException(this.schemaType == SchemaType.UPSERT ? "upsertStream" : "insertStream", this.tableName, exception);
+        }
+    }
+
+    private int executeChunk(PreparedStatement preparedStatement, Object[] values, int length) throws SQLException {
+        for (int i = 0; i < length; i++) {
+            TypeConverters.bind(preparedStatement, i + 1, values[i]);
+            // Release the reference as soon as it is bound
+            values[i] = null;
+        }
+        int updatedRows = preparedStatement.executeUpdate();
+        preparedStatement.clearParameters();
+        return updatedRows;
+    }
+
+    private String buildQuery(Schema firstSchema, List<ColumnDefinition> columns, int rows, DatabaseType databaseType) {
+        StringBuilder query = new StringBuilder("INSERT INTO ").append(this.tableName).append(" (");
+        StringBuilder rowPlaceholder = new StringBuilder("(");
+        for (int i = 0; i < columns.size(); i++) {
+            query.append(i > 0 ? ", " : "").append(columns.get(i).getSafeName());
+            rowPlaceholder.append(i > 0 ? ", " : "").append("?");
+        }
+        rowPlaceholder.append(")");
+        query.append(") VALUES ");
+
+        for (int i = 0; i < rows; i++) {
+            query.append(i > 0 ? ", " : "").append(rowPlaceholder);
+        }
+
+        if (this.schemaType == SchemaType.UPSERT) {
+            if (databaseType == DatabaseType.SQLITE) {
+                query.append(" ON CONFLICT (").append(String.join(", ", firstSchema.getPrimaryKeys())).append(") DO UPDATE SET ");
+                for (int i = 0; i < columns.size(); i++) {
+                    String name = columns.get(i).getSafeName();
+                    query.append(i > 0 ? ", " : "").append(name).append(" = excluded.").append(name);
+                }
+            } else {
+                query.append(" ON DUPLICATE KEY UPDATE ");
+                for (int i = 0; i < columns.size(); i++) {
+                    String name = columns.get(i).getSafeName();
+                    query.append(i > 0 ? ", " : "").append(name).append(" = VALUES(").append(name).append(")");
+                }
+            }
+        }
+        return query.toString();
+    }
+}
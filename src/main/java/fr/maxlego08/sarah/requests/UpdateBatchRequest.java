@@ -4,6 +4,7 @@ import fr.maxlego08.sarah.DatabaseConfiguration;
 import fr.maxlego08.sarah.DatabaseConnection;
 import fr.maxlego08.sarah.conditions.ColumnDefinition;
 import fr.maxlego08.sarah.conditions.JoinCondition;
+import fr.maxlego08.sarah.converter.TypeConverters;
 import fr.maxlego08.sarah.database.Executor;
 import fr.maxlego08.sarah.database.Schema;
 import fr.maxlego08.sarah.exceptions.DatabaseException;
@@ -12,8 +13,14 @@ import fr.maxlego08.sarah.logger.Logger;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Executes update schemas with JDBC batches, on one connection inside one transaction.
+ * Consecutive schemas that render the same statement share one prepared statement, and the statements
+ * run in the order of the list, so an update can depend on the updates before it.
+ */
 public class UpdateBatchRequest implements Executor {
 
     private final List<Schema> schemas;
@@ -24,34 +31,46 @@ public class UpdateBatchRequest implements Executor {
 
     @Override
     public int execute(DatabaseConnection databaseConnection, DatabaseConfiguration databaseConfiguration, Logger logger) {
-        if (schemas.isEmpty()) return 0;
+        int total = 0;
+        for (int count : this.executeCounts(databaseConnection, databaseConfiguration, logger)) {
+            total += Math.max(0, count);
+        }
+        return total;
+    }
+
+    /**
+     * Executes the updates and returns the update count of each schema, in the order of the list.
+     * A count can be {@link java.sql.Statement#SUCCESS_NO_INFO} when the driver does not report it.
+     *
+     * @param databaseConnection    the database connection
+     * @param databaseConfiguration the database configuration
+     * @param logger                the logger
+     * @return the update count of each schema
+     */
+    public int[] executeCounts(DatabaseConnection databaseConnection, DatabaseConfiguration databaseConfiguration, Logger logger) {
+        if (schemas.isEmpty()) return new int[0];
 
         Schema firstSchema = schemas.get(0);
-        StringBuilder updateQuery = new StringBuilder("UPDATE " + firstSchema.getTableName());
 
-        if (!firstSchema.getJoinConditions().isEmpty()) {
-            for (JoinCondition join : firstSchema.getJoinConditions()) {
-                updateQuery.append(" ").append(join.getJoinClause());
+        // Schemas can have different columns or where conditions, each run of the same statement gets its own batch
+        List<Batch> batches = new ArrayList<>();
+        Batch current = null;
+        for (Schema schema : schemas) {
+            String updateSql = this.buildQuery(schema, databaseConfiguration);
+            if (current == null || !current.sql.equals(updateSql)) {
+                current = new Batch(updateSql);
+                batches.add(current);
             }
+            current.schemas.add(schema);
         }
 
-        updateQuery.append(" SET ");
-
-        List<ColumnDefinition> columns = firstSchema.getColumns();
-        for (int i = 0; i < columns.size(); i++) {
-            ColumnDefinition columnDefinition = columns.get(i);
-            updateQuery.append(i > 0 ? ", " : "").append(columnDefinition.getSafeName()).append(" = ?");
-        }
-
-        firstSchema.whereConditions(updateQuery);
-        String updateSql = databaseConfiguration.replacePrefix(updateQuery.toString());
-
         if (databaseConfiguration.isDebug()) {
-            logger.info("Executing SQL Batch: " + updateSql);
+            for (Batch batch : batches) {
+                logger.info("Executing SQL Batch: " + batch.sql);
+            }
         }
 
         Connection connection = null;
-        PreparedStatement preparedStatement = null;
         boolean originalAutoCommit = true;
 
         try {
@@ -59,25 +78,26 @@ public class UpdateBatchRequest implements Executor {
             originalAutoCommit = connection.getAutoCommit();
             connection.setAutoCommit(false);
 
-            preparedStatement = connection.prepareStatement(updateSql);
-
-            for (Schema schema : schemas) {
-                List<ColumnDefinition> schemaColumns = schema.getColumns();
-                for (int i = 0; i < schemaColumns.size(); i++) {
-                    preparedStatement.setObject(i + 1, schemaColumns.get(i).getObject());
+            int[] counts = new int[schemas.size()];
+            int index = 0;
+            for (Batch batch : batches) {
+                try (PreparedStatement preparedStatement = connection.prepareStatement(batch.sql)) {
+                    for (Schema schema : batch.schemas) {
+                        List<ColumnDefinition> schemaColumns = schema.getColumns();
+                        for (int i = 0; i < schemaColumns.size(); i++) {
+                            TypeConverters.bind(preparedStatement, i + 1, schemaColumns.get(i).getObject());
+                        }
+                        schema.applyWhereConditions(preparedStatement, schemaColumns.size() + 1);
+                        preparedStatement.addBatch();
+                    }
+
+                    for (int count : preparedStatement.executeBatch()) {
+                        counts[index++] = count;
+                    }
                 }
-                schema.applyWhereConditions(preparedStatement, schemaColumns.size() + 1);
-                preparedStatement.addBatch();
             }
-
-            int[] results = preparedStatement.executeBatch();
             connection.commit();
-
-            int total = 0;
-            for (int count : results) {
-                total += count;
-            }
-            return total;
+            return counts;
 
         } catch (SQLException exception) {
             if (connection != null) {
@@ -90,12 +110,6 @@ public class UpdateBatchRequest implements Executor {
             logger.info("Update batch operation failed on table: " + firstSchema.getTableName() + " - " + exception.getMessage());
             throw new DatabaseException("updateBatch", firstSchema.getTableName(), exception);
         } finally {
-            if (preparedStatement != null) {
-                try {
-                    preparedStatement.close();
-                } catch (SQLException ignored) {
-                }
-            }
             if (connection != null) {
                 try {
                     connection.setAutoCommit(originalAutoCommit);
@@ -105,4 +119,35 @@ public class UpdateBatchRequest implements Executor {
             }
         }
     }
+
+    private String buildQuery(Schema schema, DatabaseConfiguration databaseConfiguration) {
+        StringBuilder updateQuery = new StringBuilder("UPDATE " + schema.getTableName());
+
+        if (!schema.getJoinConditions().isEmpty()) {
+            for (JoinCondition join : schema.getJoinConditions()) {
+                updateQuery.append(" ").append(join.getJoinClause());
+            }
+        }
+
+        updateQuery.append(" SET ");
+
+        List<ColumnDefinition> columns = schema.getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnDefinition columnDefinition = columns.get(i);
+            updateQuery.append(i > 0 ? ", " : "").append(columnDefinition.getSafeName()).append(" = ?");
+        }
+
+        schema.whereConditions(updateQuery, databaseConfiguration.getDatabaseType());
+        return databaseConfiguration.replacePrefix(updateQuery.toString());
+    }
+
+    private static final class Batch {
+
+        private final String sql;
+        private final List<Schema> schemas = new ArrayList<>();
+
+        private Batch(String sql) {
+            this.sql = sql;
+        }
+    }
 }
@@ -4,6 +4,7 @@ import fr.maxlego08.sarah.DatabaseConfiguration;
 import fr.maxlego08.sarah.DatabaseConnection;
 import fr.maxlego08.sarah.conditions.ColumnDefinition;
 import fr.maxlego08.sarah.conditions.JoinCondition;
+import fr.maxlego08.sarah.converter.TypeConverters;
 import fr.maxlego08.sarah.database.Executor;
 import fr.maxlego08.sarah.database.Schema;
 import fr.maxlego08.sarah.exceptions.DatabaseException;
@@ -44,21 +45,21 @@ public class UpdateRequest implements Executor {
             values.add(columnDefinition.getObject());
         }
 
-        this.schema.whereConditions(updateQuery);
+        this.schema.whereConditions(updateQuery, databaseConfiguration.getDatabaseType());
         String updateSql = databaseConfiguration.replacePrefix(updateQuery.toString());
 
         if (databaseConfiguration.isDebug()) {
             logger.info("Executing SQL: " + updateSql);
         }
+        databaseConnection.recordQuery(updateSql, logger);
 
         try (Connection connection = databaseConnection.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(updateSql)) {
             for (int i = 0; i < values.size(); i++) {
-                preparedStatement.setObject(i + 1, values.get(i));
+                TypeConverters.bind(preparedStatement, i + 1, values.get(i));
             }
             this.schema.applyWhereConditions(preparedStatement, values.size() + 1);
-            preparedStatement.executeUpdate();
-            return preparedStatement.getUpdateCount();
+            return preparedStatement.executeUpdate();
         } catch (SQLException exception) {
             logger.info("Update operation failed on table: " + this.schema.getTableName() + " - " + exception.getMessage());
             throw new DatabaseException("update", this.schema.getTableName(), exception);
@@ -3,6 +3,7 @@ package fr.maxlego08.sarah.requests;
 import fr.maxlego08.sarah.DatabaseConfiguration;
 import fr.maxlego08.sarah.DatabaseConnection;
 import fr.maxlego08.sarah.conditions.ColumnDefinition;
+import fr.maxlego08.sarah.converter.TypeConverters;
 import fr.maxlego08.sarah.database.DatabaseType;
 import fr.maxlego08.sarah.database.Executor;
 import fr.maxlego08.sarah.database.Schema;
@@ -95,7 +96,7 @@ public class UpsertBatchRequest implements Executor {
 
             int index = 1;
             for (Object value : values) {
-                preparedStatement.setObject(index++, value);
+                TypeConverters.bind(preparedStatement, index++, value);
             }
 
             return preparedStatement.executeUpdate();
@@ -2,12 +2,15 @@ package fr.maxlego08.sarah.requests;
 
 import fr.maxlego08.sarah.DatabaseConfiguration;
 import fr.maxlego08.sarah.DatabaseConnection;
+import fr.maxlego08.sarah.batching.GroupCommitter;
 import fr.maxlego08.sarah.conditions.ColumnDefinition;
+import fr.maxlego08.sarah.converter.TypeConverters;
 import fr.maxlego08.sarah.database.DatabaseType;
 import fr.maxlego08.sarah.database.Executor;
 import fr.maxlego08.sarah.database.Schema;
 import fr.maxlego08.sarah.exceptions.DatabaseException;
 import fr.maxlego08.sarah.logger.Logger;
+import fr.maxlego08.sarah.stream.StreamValue;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -51,6 +54,9 @@ public class UpsertRequest implements Executor {
                 }
                 if (databaseType == DatabaseType.SQLITE) {
                     onUpdateQuery.append(columnDefinition.getSafeName()).append(" = excluded.").append(columnDefinition.getSafeName());
+                } else if (columnDefinition.getObject() instanceof StreamValue) {
+                    // A stream can only be read once, the UPDATE part reuses the inserted value
+                    onUpdateQuery.append(columnDefinition.getSafeName()).append(" = VALUES(").append(columnDefinition.getSafeName()).append(")");
                 } else {
                     onUpdateQuery.append(columnDefinition.getSafeName()).append(" = ?");
                     updateValues.add(columnDefinition.getObject());
@@ -82,6 +88,23 @@ public class UpsertRequest implements Executor {
         if (databaseConfiguration.isDebug()) {
             logger.info("Executing SQL: " + finalQuery);
         }
+        databaseConnection.recordQuery(finalQuery, logger);
+
+        // A failed group retries its rows, which a consumed stream cannot be
+        GroupCommitter groupCommitter = databaseConnection.getGroupCommitter();
+        if (groupCommitter != null && !StreamValue.containsStream(insertValues) && !StreamValue.containsStream(updateValues)) {
+            List<Object> values = new ArrayList<>(insertValues);
+            // SQLite uses the "excluded" keyword, the UPDATE part has no parameters
+            if (databaseType != DatabaseType.SQLITE) {
+                values.addAll(updateValues);
+            }
+            try {
+                return groupCommitter.submit(databaseConnection, finalQuery, values, false, logger);
+            } catch (SQLException exception) {
+                logger.info("Upsert operation failed on table: " + this.schema.getTableName() + " - " + exception.getMessage());
+                throw new DatabaseException("upsert", this.schema.getTableName(), exception);
+            }
+        }
 
         try (Connection connection = databaseConnection.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(finalQuery)) {
@@ -90,17 +113,16 @@ public class UpsertRequest implements Executor {
 
             // Setting values for INSERT part
             for (Object value : insertValues) {
-                preparedStatement.setObject(index++, value);
+                TypeConverters.bind(preparedStatement, index++, value);
             }
 
             // Setting values for UPDATE part (only if not SQLite, since SQLite uses "excluded" keyword)
             if (databaseType != DatabaseType.SQLITE) {
                 for (Object value : updateValues) {
-                    preparedStatement.setObject(index++, value);
+                    TypeConverters.bind(preparedStatement, index++, value);
                 }
             }
-            preparedStatement.executeUpdate();
-            return preparedStatement.getUpdateCount();
+            return preparedStatement.executeUpdate();
         } catch (SQLException exception) {
             logger.info("Upsert operation failed on table: " + this.schema.getTableName() + " - " + exception.getMessage());
             throw new DatabaseException("upsert", this.schema.getTableName(), exception);
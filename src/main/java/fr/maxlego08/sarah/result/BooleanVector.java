@@ -0,0 +1,42 @@
+package fr.maxlego08.sarah.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+
+/**
+ * A column of boolean values, stored in a bit set.
+ */
+public class BooleanVector extends ColumnVector {
+
+    private final BitSet values = new BitSet();
+
+    public BooleanVector(String name) {
+        super(name);
+    }
+
+    public boolean getBoolean(int row) {
+        return values.get(row);
+    }
+
+    /**
+     * Gets the rows whose value is true. NULL values are false.
+     *
+     * @return a copy of the values
+     */
+    public BitSet getValues() {
+        return (BitSet) values.clone();
+    }
+
+    @Override
+    protected void read(ResultSet resultSet, int column) throws SQLException {
+        if (resultSet.getBoolean(column)) {
+            values.set(this.size());
+        }
+    }
+
+    @Override
+    protected Object getValue(int row) {
+        return values.get(row);
+    }
+}
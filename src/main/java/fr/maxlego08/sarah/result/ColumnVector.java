@@ -0,0 +1,68 @@
+package fr.maxlego08.sarah.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+
+/**
+ * The values of one column of a {@link ColumnarResult}, stored in a typed array.
+ * NULL values are stored as the default value of the vector and flagged in a bit set.
+ */
+public abstract class ColumnVector {
+
+    private final String name;
+    private final BitSet nulls = new BitSet();
+    private int size;
+
+    protected ColumnVector(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    public boolean hasNulls() {
+        return !nulls.isEmpty();
+    }
+
+    /**
+     * Gets a value as an object. This boxes the value and should not be used in loops over large results.
+     *
+     * @param row the index of the row
+     * @return the value, or null if the value is NULL
+     */
+    public Object getObject(int row) {
+        if (row >= size) {
+            throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + size);
+        }
+        return isNull(row) ? null : this.getValue(row);
+    }
+
+    /**
+     * Appends the value of the current row of the result set.
+     */
+    void append(ResultSet resultSet, int column) throws SQLException {
+        this.read(resultSet, column);
+        if (resultSet.wasNull()) {
+            this.nulls.set(this.size);
+        }
+        this.size++;
+    }
+
+    /**
+     * Reads a value from the result set and appends it, or appends a default value if it is NULL.
+     */
+    protected abstract void read(ResultSet resultSet, int column) throws SQLException;
+
+    protected abstract Object getValue(int row);
+
+}
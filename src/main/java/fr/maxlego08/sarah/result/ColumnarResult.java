@@ -0,0 +1,163 @@
+package fr.maxlego08.sarah.result;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A query result stored column by column: numbers and booleans in primitive arrays,
+ * text in dictionary encoded arrays. DECIMAL values are read as {@code double}.
+ * Columns are read with loops over their backing arrays, for example:
+ * <pre>{@code
+ * long[] amounts = result.getLongColumn("amount").getValues();
+ * long total = 0;
+ * for (int i = 0; i < result.getRowCount(); i++) total += amounts[i];
+ * }</pre>
+ * A result can be filled chunk by chunk, as long as every chunk has the same columns.
+ */
+public class ColumnarResult implements RowHandler {
+
+    private RowHeader header;
+    private ColumnVector[] columns;
+    private int rowCount;
+
+    /**
+     * Appends every remaining row of the result set.
+     *
+     * @param resultSet the result set to read
+     * @throws SQLException if the result set cannot be read, or has other columns than this result
+     */
+    public void append(ResultSet resultSet) throws SQLException {
+        this.start(resultSet.getMetaData());
+        while (resultSet.next()) {
+            this.handle(resultSet);
+        }
+    }
+
+    /**
+     * Creates the columns from the metadata of the first chunk, and checks that the next chunks have the same columns.
+     */
+    @Override
+    public void start(ResultSetMetaData metaData) throws SQLException {
+        RowHeader chunkHeader = RowHeader.of(metaData);
+        if (this.header == null) {
+            this.header = chunkHeader;
+            this.columns = new ColumnVector[chunkHeader.getColumnCount()];
+            for (int i = 0; i < this.columns.length; i++) {
+                this.columns[i] = createVector(chunkHeader.getLabel(i), metaData.getColumnType(i + 1));
+            }
+            return;
+        }
+
+        boolean sameColumns = chunkHeader.getColumnCount() == this.header.getColumnCount();
+        for (int i = 0; sameColumns && i < chunkHeader.getColumnCount(); i++) {
+            sameColumns = chunkHeader.getLabel(i).equals(this.header.getLabel(i));
+        }
+        if (!sameColumns) {
+            throw new SQLException("Cannot append a chunk with other columns than " + this.getColumnNames());
+        }
+    }
+
+    /**
+     * Appends the current row of the result set.
+     */
+    @Override
+    public void handle(ResultSet resultSet) throws SQLException {
+        for (int i = 0; i < this.columns.length; i++) {
+            this.columns[i].append(resultSet, i + 1);
+        }
+        this.rowCount++;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns == null ? 0 : columns.length;
+    }
+
+    public List<String> getColumnNames() {
+        if (header == null) return Collections.emptyList();
+        String[] names = new String[header.getColumnCount()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = header.getLabel(i);
+        }
+        return Arrays.asList(names);
+    }
+
+    public ColumnVector getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * Gets a column by its label.
+     *
+     * @param name the label of the column
+     * @return the column
+     * @throws IllegalArgumentException if the result has no such column
+     */
+    public ColumnVector getColumn(String name) {
+        int index = header == null ? -1 : header.indexOf(name);
+        if (index == -1) {
+            throw new IllegalArgumentException("Unknown column: " + name);
+        }
+        return columns[index];
+    }
+
+    public LongVector getLongColumn(String name) {
+        return getColumn(name, LongVector.class);
+    }
+
+    public DoubleVector getDoubleColumn(String name) {
+        return getColumn(name, DoubleVector.class);
+    }
+
+    public BooleanVector getBooleanColumn(String name) {
+        return getColumn(name, BooleanVector.class);
+    }
+
+    public StringVector getStringColumn(String name) {
+        return getColumn(name, StringVector.class);
+    }
+
+    private <V extends ColumnVector> V getColumn(String name, Class<V> vectorClass) {
+        ColumnVector column = getColumn(name);
+        if (!vectorClass.isInstance(column)) {
+            throw new IllegalArgumentException("Column " + name + " is a " + column.getClass().getSimpleName() + ", not a " + vectorClass.getSimpleName());
+        }
+        return vectorClass.cast(column);
+    }
+
+    private static ColumnVector createVector(String name, int sqlType) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return new LongVector(name);
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return new DoubleVector(name);
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return new BooleanVector(name);
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return new StringVector(name);
+            default:
+                return new ObjectVector(name);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package fr.maxlego08.sarah.result;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A read-only row of a query result. The values are stored in an array and looked up through
+ * the {@link RowHeader} shared by every row of the result.
+ */
+public class CompactRow extends AbstractMap<String, Object> {
+
+    private final RowHeader header;
+    private final Object[] values;
+
+    public CompactRow(RowHeader header, Object[] values) {
+        if (values.length != header.getColumnCount()) {
+            throw new IllegalArgumentException("Expected " + header.getColumnCount() + " values but got " + values.length);
+        }
+        this.header = header;
+        this.values = values;
+    }
+
+    public RowHeader getHeader() {
+        return header;
+    }
+
+    /**
+     * Gets a value by its position in the result.
+     *
+     * @param index the zero-based index of the column
+     * @return the value of the column
+     */
+    public Object getValue(int index) {
+        return values[index];
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = header.indexOf(key);
+        return index == -1 ? null : values[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return header.indexOf(key) != -1;
+    }
+
+    @Override
+    public int size() {
+        return header.getIndexes().size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                Iterator<Map.Entry<String, Integer>> indexes = header.getIndexes().entrySet().iterator();
+                return new Iterator<Entry<String, Object>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return indexes.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        Map.Entry<String, Integer> entry = indexes.next();
+                        return new SimpleImmutableEntry<>(entry.getKey(), values[entry.getValue()]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return CompactRow.this.size();
+            }
+        };
+    }
+}
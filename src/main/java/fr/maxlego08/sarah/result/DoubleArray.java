@@ -0,0 +1,61 @@
+package fr.maxlego08.sarah.result;
+
+import java.util.Arrays;
+
+/**
+ * A growable array of {@code double} values, used to read a column without boxing every value.
+ */
+public class DoubleArray {
+
+    private double[] values;
+    private int size;
+
+    public DoubleArray() {
+        this(16);
+    }
+
+    public DoubleArray(int initialCapacity) {
+        this.values = new double[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(double value) {
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.size << 1);
+        }
+        this.values[this.size++] = value;
+    }
+
+    public double get(int index) {
+        if (index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+        return this.values[index];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Gets the backing array without copying it. Only the first {@link #size()} values are valid,
+     * and the array is replaced when it grows.
+     *
+     * @return the backing array
+     */
+    public double[] getBuffer() {
+        return this.values;
+    }
+
+    /**
+     * Copies the values into an array of the exact size.
+     *
+     * @return the values
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(this.values, this.size);
+    }
+}
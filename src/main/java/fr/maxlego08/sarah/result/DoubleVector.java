@@ -0,0 +1,39 @@
+package fr.maxlego08.sarah.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A column of decimal values, stored in a {@code double} array.
+ */
+public class DoubleVector extends ColumnVector {
+
+    private final DoubleArray values = new DoubleArray();
+
+    public DoubleVector(String name) {
+        super(name);
+    }
+
+    public double getDouble(int row) {
+        return values.get(row);
+    }
+
+    /**
+     * Gets the backing array. Only the first {@link #size()} values are valid, NULL values are 0.
+     *
+     * @return the backing array
+     */
+    public double[] getValues() {
+        return values.getBuffer();
+    }
+
+    @Override
+    protected void read(ResultSet resultSet, int column) throws SQLException {
+        values.add(resultSet.getDouble(column));
+    }
+
+    @Override
+    protected Object getValue(int row) {
+        return values.get(row);
+    }
+}
@@ -0,0 +1,61 @@
+package fr.maxlego08.sarah.result;
+
+import java.util.Arrays;
+
+/**
+ * A growable array of {@code int} values, used to read a column without boxing every value.
+ */
+public class IntArray {
+
+    private int[] values;
+    private int size;
+
+    public IntArray() {
+        this(16);
+    }
+
+    public IntArray(int initialCapacity) {
+        this.values = new int[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(int value) {
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.size << 1);
+        }
+        this.values[this.size++] = value;
+    }
+
+    public int get(int index) {
+        if (index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+        return this.values[index];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Gets the backing array without copying it. Only the first {@link #size()} values are valid,
+     * and the array is replaced when it grows.
+     *
+     * @return the backing array
+     */
+    public int[] getBuffer() {
+        return this.values;
+    }
+
+    /**
+     * Copies the values into an array of the exact size.
+     *
+     * @return the values
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(this.values, this.size);
+    }
+}
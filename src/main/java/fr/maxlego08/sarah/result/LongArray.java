@@ -0,0 +1,61 @@
+package fr.maxlego08.sarah.result;
+
+import java.util.Arrays;
+
+/**
+ * A growable array of {@code long} values, used to read a column without boxing every value.
+ */
+public class LongArray {
+
+    private long[] values;
+    private int size;
+
+    public LongArray() {
+        this(16);
+    }
+
+    public LongArray(int initialCapacity) {
+        this.values = new long[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(long value) {
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.size << 1);
+        }
+        this.values[this.size++] = value;
+    }
+
+    public long get(int index) {
+        if (index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+        return this.values[index];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Gets the backing array without copying it. Only the first {@link #size()} values are valid,
+     * and the array is replaced when it grows.
+     *
+     * @return the backing array
+     */
+    public long[] getBuffer() {
+        return this.values;
+    }
+
+    /**
+     * Copies the values into an array of the exact size.
+     *
+     * @return the values
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(this.values, this.size);
+    }
+}
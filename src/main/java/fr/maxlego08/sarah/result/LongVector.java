@@ -0,0 +1,39 @@
+package fr.maxlego08.sarah.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A column of integer values, stored in a {@code long} array.
+ */
+public class LongVector extends ColumnVector {
+
+    private final LongArray values = new LongArray();
+
+    public LongVector(String name) {
+        super(name);
+    }
+
+    public long getLong(int row) {
+        return values.get(row);
+    }
+
+    /**
+     * Gets the backing array. Only the first {@link #size()} values are valid, NULL values are 0.
+     *
+     * @return the backing array
+     */
+    public long[] getValues() {
+        return values.getBuffer();
+    }
+
+    @Override
+    protected void read(ResultSet resultSet, int column) throws SQLException {
+        values.add(resultSet.getLong(column));
+    }
+
+    @Override
+    protected Object getValue(int row) {
+        return values.get(row);
+    }
+}
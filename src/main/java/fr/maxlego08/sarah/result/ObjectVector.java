@@ -0,0 +1,29 @@
+package fr.maxlego08.sarah.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A column whose type has no specialized vector, such as dates or binary values.
+ * The values are stored as returned by the driver.
+ */
+public class ObjectVector extends ColumnVector {
+
+    private final List<Object> values = new ArrayList<>();
+
+    public ObjectVector(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void read(ResultSet resultSet, int column) throws SQLException {
+        values.add(resultSet.getObject(column));
+    }
+
+    @Override
+    protected Object getValue(int row) {
+        return values.get(row);
+    }
+}
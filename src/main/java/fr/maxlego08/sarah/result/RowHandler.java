@@ -0,0 +1,26 @@
+package fr.maxlego08.sarah.result;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Reads the current row of a result set. The handler is called once per row and must not move the cursor.
+ *
+ * @see fr.maxlego08.sarah.database.Schema#executeSelect(fr.maxlego08.sarah.DatabaseConnection, fr.maxlego08.sarah.logger.Logger, RowHandler)
+ */
+@FunctionalInterface
+public interface RowHandler {
+
+    /**
+     * Called once before the first row, even when the result set is empty.
+     *
+     * @param metaData the metadata of the result set
+     * @throws SQLException if the metadata cannot be read
+     */
+    default void start(ResultSetMetaData metaData) throws SQLException {
+    }
+
+    void handle(ResultSet resultSet) throws SQLException;
+
+}
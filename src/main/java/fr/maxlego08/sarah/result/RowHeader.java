@@ -0,0 +1,77 @@
+package fr.maxlego08.sarah.result;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The column labels of a query result, read once and shared by every {@link CompactRow} of that result.
+ * When two columns have the same label, the last one wins, as it would in a {@link HashMap}.
+ */
+public class RowHeader {
+
+    private final String[] labels;
+    private final Map<String, Integer> indexes;
+
+    public RowHeader(String... labels) {
+        this.labels = labels.clone();
+        Map<String, Integer> indexes = new LinkedHashMap<>();
+        for (int i = 0; i < labels.length; i++) {
+            indexes.remove(labels[i]);
+            indexes.put(labels[i], i);
+        }
+        this.indexes = Collections.unmodifiableMap(indexes);
+    }
+
+    /**
+     * Creates a header from the labels of a result set, so that column aliases are honored.
+     *
+     * @param metaData the metadata of the result set
+     * @return the header of the result set
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static RowHeader of(ResultSetMetaData metaData) throws SQLException {
+        String[] labels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+        }
+        return new RowHeader(labels);
+    }
+
+    /**
+     * Gets the number of columns of the result, duplicated labels included.
+     *
+     * @return the number of columns
+     */
+    public int getColumnCount() {
+        return labels.length;
+    }
+
+    /**
+     * Gets the label of a column.
+     *
+     * @param index the zero-based index of the column
+     * @return the label of the column
+     */
+    public String getLabel(int index) {
+        return labels[index];
+    }
+
+    /**
+     * Gets the index of the value returned for a label.
+     *
+     * @param label the label of the column
+     * @return the zero-based index of the column, or -1 if the result has no such column
+     */
+    public int indexOf(Object label) {
+        Integer index = indexes.get(label);
+        return index == null ? -1 : index;
+    }
+
+    Map<String, Integer> getIndexes() {
+        return indexes;
+    }
+}
@@ -0,0 +1,92 @@
+package fr.maxlego08.sarah.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A column of text values, dictionary encoded: each distinct value is stored once,
+ * and each row stores the code of its value in an {@code int} array.
+ */
+public class StringVector extends ColumnVector {
+
+    private final IntArray codes = new IntArray();
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+
+    public StringVector(String name) {
+        super(name);
+    }
+
+    public String getString(int row) {
+        int code = codes.get(row);
+        return code == -1 ? null : dictionary.get(code);
+    }
+
+    /**
+     * Gets the value of a row as an enum constant.
+     *
+     * @param row       the index of the row
+     * @param enumClass the class of the enum
+     * @param <E>       the type of the enum
+     * @return the enum constant, or null if the value is NULL
+     */
+    public <E extends Enum<E>> E getEnum(int row, Class<E> enumClass) {
+        String value = getString(row);
+        return value == null ? null : Enum.valueOf(enumClass, value);
+    }
+
+    /**
+     * Gets the code of the value of a row, its index in the dictionary.
+     *
+     * @param row the index of the row
+     * @return the code of the value, or -1 if the value is NULL
+     */
+    public int getCode(int row) {
+        return codes.get(row);
+    }
+
+    /**
+     * Gets the backing array of codes. Only the first {@link #size()} codes are valid, NULL values are -1.
+     *
+     * @return the backing array
+     */
+    public int[] getCodes() {
+        return codes.getBuffer();
+    }
+
+    /**
+     * Gets the distinct values of the column, indexed by code.
+     *
+     * @return the distinct values
+     */
+    public List<String> getDictionary() {
+        return Collections.unmodifiableList(dictionary);
+    }
+
+    @Override
+    protected void read(ResultSet resultSet, int column) throws SQLException {
+        String value = resultSet.getString(column);
+        if (value == null) {
+            codes.add(-1);
+            return;
+        }
+
+        Integer code = dictionaryCodes.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(value);
+            dictionaryCodes.put(value, code);
+        }
+        codes.add(code);
+    }
+
+    @Override
+    protected Object getValue(int row) {
+        return getString(row);
+    }
+}
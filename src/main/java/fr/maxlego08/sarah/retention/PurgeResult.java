@@ -0,0 +1,74 @@
+package fr.maxlego08.sarah.retention;
+
+/**
+ * The metrics of one purge run of a {@link RetentionPolicy}.
+ */
+public class PurgeResult {
+
+    private final String tableName;
+    private final int deleted;
+    private final int chunks;
+    private final long durationMillis;
+    private final long maxChunkMillis;
+    private final int chunkSize;
+
+    public PurgeResult(String tableName, int deleted, int chunks, long durationMillis, long maxChunkMillis, int chunkSize) {
+        this.tableName = tableName;
+        this.deleted = deleted;
+        this.chunks = chunks;
+        this.durationMillis = durationMillis;
+        this.maxChunkMillis = maxChunkMillis;
+        this.chunkSize = chunkSize;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * @return the number of deleted rows
+     */
+    public int getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * @return the number of executed delete statements
+     */
+    public int getChunks() {
+        return chunks;
+    }
+
+    /**
+     * @return the duration of the run, pauses included
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return the duration of the slowest delete statement, which bounds how long the table was locked at once
+     */
+    public long getMaxChunkMillis() {
+        return maxChunkMillis;
+    }
+
+    /**
+     * @return the adapted chunk size at the end of the run, used as the starting size of the next run
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public String toString() {
+        return "PurgeResult{" +
+                "tableName='" + tableName + '\'' +
+                ", deleted=" + deleted +
+                ", chunks=" + chunks +
+                ", durationMillis=" + durationMillis +
+                ", maxChunkMillis=" + maxChunkMillis +
+                ", chunkSize=" + chunkSize +
+                '}';
+    }
+}
@@ -0,0 +1,171 @@
+package fr.maxlego08.sarah.retention;
+
+import fr.maxlego08.sarah.DatabaseConnection;
+import fr.maxlego08.sarah.database.DatabaseType;
+import fr.maxlego08.sarah.logger.Logger;
+import fr.maxlego08.sarah.requests.PurgeRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes the expired rows of the registered {@link RetentionPolicy retention policies}, in bounded chunks.
+ * <p>
+ * Each chunk is a separate statement, so locks and undo logs stay small. After each chunk, the chunk size is halved when the
+ * chunk took more than the target duration and doubled when it took less than half of it. The adapted size is kept for the next run.
+ */
+public class RetentionManager {
+
+    private final DatabaseConnection connection;
+    private final Logger logger;
+    private final List<RetentionPolicy> policies = new CopyOnWriteArrayList<>();
+    private final Map<RetentionPolicy, Integer> chunkSizes = new ConcurrentHashMap<>();
+    private final Map<String, PurgeResult> lastResults = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> scheduledFuture;
+
+    public RetentionManager(DatabaseConnection connection, Logger logger) {
+        this.connection = connection;
+        this.logger = logger;
+    }
+
+    public void addPolicy(RetentionPolicy policy) {
+        this.policies.add(policy);
+    }
+
+    public void removePolicy(RetentionPolicy policy) {
+        this.policies.remove(policy);
+        this.chunkSizes.remove(policy);
+    }
+
+    /**
+     * Schedules the purge of every policy on the given executor, with a fixed delay between the end of a run and the start of the next one.
+     *
+     * @param scheduler the scheduler
+     * @param period    the delay between two runs
+     * @param unit      the unit of the delay
+     */
+    public synchronized void start(ScheduledExecutorService scheduler, long period, TimeUnit unit) {
+        if (this.scheduledFuture != null) {
+            throw new IllegalStateException("Retention manager is already started");
+        }
+        this.scheduledFuture = scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                this.purgeAll();
+            } catch (RuntimeException exception) {
+                this.logger.info("Retention purge failed - " + exception.getMessage());
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Stops the scheduled purges. A running purge stops after its current chunk.
+     */
+    public synchronized void stop() {
+        if (this.scheduledFuture != null) {
+            this.scheduledFuture.cancel(true);
+            this.scheduledFuture = null;
+        }
+    }
+
+    /**
+     * Purges the expired rows of every policy, one policy after the other.
+     *
+     * @return the result of each policy
+     */
+    public List<PurgeResult> purgeAll() {
+        List<PurgeResult> results = new ArrayList<>();
+        for (RetentionPolicy policy : this.policies) {
+            if (Thread.currentThread().isInterrupted()) break;
+            results.add(this.purge(policy));
+        }
+        return results;
+    }
+
+    /**
+     * Purges the expired rows of a policy, chunk by chunk, until a chunk deletes fewer rows than its size.
+     * The cutoff is computed once at the start of the run, so rows expiring during the run are left for the next one.
+     *
+     * @param policy the retention policy
+     * @return the metrics of the run
+     */
+    public PurgeResult purge(RetentionPolicy policy) {
+        long now = System.currentTimeMillis();
+        DatabaseType databaseType = this.connection.getDatabaseConfiguration().getDatabaseType();
+        Object cutoff = policy.getCutoff(now, databaseType);
+        Object numericCutoff = policy.getNumericCutoff(now, databaseType);
+        int chunkSize = this.chunkSizes.getOrDefault(policy, policy.getInitialChunkSize());
+
+        long start = System.nanoTime();
+        long maxChunkMillis = 0;
+        int deleted = 0;
+        int chunks = 0;
+        while (true) {
+            long chunkStart = System.nanoTime();
+            PurgeRequest request = new PurgeRequest(policy.getTableName(), policy.getColumn(), cutoff, numericCutoff, chunkSize);
+            int chunkDeleted = request.execute(this.connection, this.connection.getDatabaseConfiguration(), this.logger);
+            long chunkMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - chunkStart);
+
+            deleted += chunkDeleted;
+            chunks++;
+            maxChunkMillis = Math.max(maxChunkMillis, chunkMillis);
+            boolean finished = chunkDeleted < chunkSize;
+            chunkSize = this.adaptChunkSize(policy, chunkSize, chunkMillis);
+
+            if (finished || !this.pause(policy)) break;
+        }
+        this.chunkSizes.put(policy, chunkSize);
+
+        PurgeResult result = new PurgeResult(policy.getTableName(), deleted, chunks, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), maxChunkMillis, chunkSize);
+        this.lastResults.put(policy.getTableName(), result);
+        if (deleted > 0 || this.connection.getDatabaseConfiguration().isDebug()) {
+            this.logger.info("Purged " + deleted + " expired rows from " + policy.getTableName() + " in " + chunks + " chunks (" + result.getDurationMillis() + " ms, slowest chunk " + maxChunkMillis + " ms, chunk size " + chunkSize + ")");
+        }
+        return result;
+    }
+
+    private int adaptChunkSize(RetentionPolicy policy, int chunkSize, long chunkMillis) {
+        if (chunkMillis > policy.getTargetChunkMillis()) {
+            return Math.max(policy.getMinChunkSize(), chunkSize / 2);
+        }
+        if (chunkMillis < policy.getTargetChunkMillis() / 2) {
+            return Math.min(policy.getMaxChunkSize(), chunkSize * 2);
+        }
+        return chunkSize;
+    }
+
+    /**
+     * Waits between two chunks.
+     *
+     * @return false if the thread was interrupted and the purge must stop
+     */
+    private boolean pause(RetentionPolicy policy) {
+        if (policy.getPauseMillis() <= 0) return !Thread.currentThread().isInterrupted();
+        try {
+            Thread.sleep(policy.getPauseMillis());
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Gets the metrics of the last purge of a table.
+     *
+     * @param tableName the name of the table
+     * @return the last result, or null if the table was never purged
+     */
+    public PurgeResult getLastResult(String tableName) {
+        return this.lastResults.get(tableName);
+    }
+
+    public List<RetentionPolicy> getPolicies() {
+        return policies;
+    }
+}
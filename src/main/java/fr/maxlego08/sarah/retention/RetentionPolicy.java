@@ -0,0 +1,172 @@
+package fr.maxlego08.sarah.retention;
+
+import fr.maxlego08.sarah.database.DatabaseType;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Declares that the rows of a table expire once the value of a time column is older than a maximum age.
+ * <p>
+ * Expired rows are deleted by a {@link RetentionManager} in bounded chunks. The chunk size starts at the initial
+ * chunk size and is adapted between the minimum and maximum sizes so that each chunk takes about the target duration.
+ * A pause between chunks leaves room for the other queries on the table.
+ */
+public class RetentionPolicy {
+
+    private static final DateTimeFormatter SQLITE_DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    private final String tableName;
+    private final String column;
+    private final Duration maxAge;
+    private final CutoffType cutoffType;
+    private final int initialChunkSize;
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final long targetChunkMillis;
+    private final long pauseMillis;
+
+    public RetentionPolicy(String tableName, String column, Duration maxAge, CutoffType cutoffType, int initialChunkSize, int minChunkSize, int maxChunkSize, long targetChunkMillis, long pauseMillis) {
+        if (minChunkSize < 1 || minChunkSize > initialChunkSize || initialChunkSize > maxChunkSize) {
+            throw new IllegalArgumentException("Chunk sizes must satisfy 1 <= min <= initial <= max");
+        }
+        this.tableName = tableName;
+        this.column = column;
+        this.maxAge = maxAge;
+        this.cutoffType = cutoffType;
+        this.initialChunkSize = initialChunkSize;
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.targetChunkMillis = targetChunkMillis;
+        this.pauseMillis = pauseMillis;
+    }
+
+    /**
+     * Creates a retention policy for a {@code DATETIME}/{@code TIMESTAMP} column, such as the {@code created_at}
+     * column of {@link fr.maxlego08.sarah.database.Schema#timestamps()}, with the default chunk settings.
+     *
+     * @param tableName the name of the table
+     * @param column    the name of the time column
+     * @param maxAge    the age after which a row expires
+     * @return the retention policy
+     */
+    public static RetentionPolicy of(String tableName, String column, Duration maxAge) {
+        return new RetentionPolicy(tableName, column, maxAge, CutoffType.DATETIME, 1000, 100, 10000, 200, 50);
+    }
+
+    public RetentionPolicy withCutoffType(CutoffType cutoffType) {
+        return new RetentionPolicy(tableName, column, maxAge, cutoffType, initialChunkSize, minChunkSize, maxChunkSize, targetChunkMillis, pauseMillis);
+    }
+
+    public RetentionPolicy withChunkSize(int initialChunkSize, int minChunkSize, int maxChunkSize) {
+        return new RetentionPolicy(tableName, column, maxAge, cutoffType, initialChunkSize, minChunkSize, maxChunkSize, targetChunkMillis, pauseMillis);
+    }
+
+    public RetentionPolicy withTargetChunkMillis(long targetChunkMillis) {
+        return new RetentionPolicy(tableName, column, maxAge, cutoffType, initialChunkSize, minChunkSize, maxChunkSize, targetChunkMillis, pauseMillis);
+    }
+
+    public RetentionPolicy withPauseMillis(long pauseMillis) {
+        return new RetentionPolicy(tableName, column, maxAge, cutoffType, initialChunkSize, minChunkSize, maxChunkSize, targetChunkMillis, pauseMillis);
+    }
+
+    /**
+     * Gets the value that the time column of a row must be lower than for the row to be expired.
+     *
+     * @param nowMillis    the current time, in epoch milliseconds
+     * @param databaseType the type of the database
+     * @return the cutoff value to bind
+     */
+    public Object getCutoff(long nowMillis, DatabaseType databaseType) {
+        return this.cutoffType.toValue(nowMillis - this.maxAge.toMillis(), databaseType);
+    }
+
+    /**
+     * Gets the cutoff compared to the numeric values of a {@link CutoffType#DATETIME} column on SQLite,
+     * where dates bound by the driver are stored as epoch milliseconds and {@code CURRENT_TIMESTAMP} as text.
+     *
+     * @param nowMillis    the current time, in epoch milliseconds
+     * @param databaseType the type of the database
+     * @return the cutoff in epoch milliseconds, or null if the column only holds one kind of value
+     */
+    public Object getNumericCutoff(long nowMillis, DatabaseType databaseType) {
+        if (this.cutoffType != CutoffType.DATETIME || databaseType != DatabaseType.SQLITE) return null;
+        return nowMillis - this.maxAge.toMillis();
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public CutoffType getCutoffType() {
+        return cutoffType;
+    }
+
+    public int getInitialChunkSize() {
+        return initialChunkSize;
+    }
+
+    public int getMinChunkSize() {
+        return minChunkSize;
+    }
+
+    public int getMaxChunkSize() {
+        return maxChunkSize;
+    }
+
+    public long getTargetChunkMillis() {
+        return targetChunkMillis;
+    }
+
+    public long getPauseMillis() {
+        return pauseMillis;
+    }
+
+    /**
+     * How the time column is stored.
+     */
+    public enum CutoffType {
+
+        /**
+         * A {@code DATETIME} or {@code TIMESTAMP} column. On SQLite, the column can hold {@code CURRENT_TIMESTAMP}
+         * text in UTC as well as the epoch milliseconds stored by the driver for bound dates.
+         */
+        DATETIME,
+        /**
+         * A {@code BIGINT} column holding epoch milliseconds.
+         */
+        EPOCH_MILLIS,
+        /**
+         * A {@code BIGINT} column holding epoch seconds.
+         */
+        EPOCH_SECONDS,
+
+        ;
+
+        private Object toValue(long cutoffMillis, DatabaseType databaseType) {
+            switch (this) {
+                case EPOCH_MILLIS:
+                    return cutoffMillis;
+                case EPOCH_SECONDS:
+                    return cutoffMillis / 1000;
+                case DATETIME:
+                default:
+                    if (databaseType == DatabaseType.SQLITE) {
+                        return SQLITE_DATETIME.format(Instant.ofEpochMilli(cutoffMillis));
+                    }
+                    return new Timestamp(cutoffMillis);
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package fr.maxlego08.sarah.sequence;
+
+import fr.maxlego08.sarah.DatabaseConnection;
+import fr.maxlego08.sarah.database.DatabaseType;
+import fr.maxlego08.sarah.exceptions.DatabaseException;
+import fr.maxlego08.sarah.logger.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates identifiers before insert with the hi/lo strategy.
+ * <p>
+ * Each sequence is a row of a small sequences table holding the next free value. The allocator reserves a block of
+ * identifiers by advancing that value inside a transaction, then hands out the identifiers of the block from memory
+ * without locking. Several servers can share the same sequences table, as each of them reserves its own blocks.
+ * Identifiers of a block that is not fully used are lost when the allocator is discarded, so sequences have gaps.
+ */
+public class SequenceAllocator {
+
+    public static final String DEFAULT_TABLE = "sarah_sequences";
+    public static final int DEFAULT_BLOCK_SIZE = 100;
+
+    private final DatabaseConnection connection;
+    private final Logger logger;
+    private final String tableName;
+    private final int blockSize;
+    private final Map<String, Sequence> sequences = new ConcurrentHashMap<>();
+    private volatile boolean tableCreated;
+
+    public SequenceAllocator(DatabaseConnection connection, Logger logger) {
+        this(connection, logger, DEFAULT_TABLE, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a sequence allocator.
+     *
+     * @param connection the database connection
+     * @param logger     the logger
+     * @param tableName  the name of the sequences table, created when missing
+     * @param blockSize  the number of identifiers reserved per round-trip
+     */
+    public SequenceAllocator(DatabaseConnection connection, Logger logger, String tableName, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.connection = connection;
+        this.logger = logger;
+        this.tableName = tableName;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Gets the next identifier of a sequence. A sequence that does not exist yet starts at 1.
+     *
+     * @param sequence the name of the sequence
+     * @return the next identifier
+     */
+    public long nextId(String sequence) {
+        return this.sequences.computeIfAbsent(sequence, Sequence::new).next();
+    }
+
+    /**
+     * Gets the next identifiers of a sequence.
+     *
+     * @param sequence the name of the sequence
+     * @param count    the number of identifiers
+     * @return the identifiers, in increasing order
+     */
+    public long[] nextIds(String sequence, int count) {
+        Sequence state = this.sequences.computeIfAbsent(sequence, Sequence::new);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = state.next();
+        }
+        return ids;
+    }
+
+    /**
+     * Creates a sequence that starts after the greatest value of a column, when the sequence does not exist yet.
+     * This allows a sequence to take over the key of a table that already contains rows.
+     *
+     * @param sequence   the name of the sequence
+     * @param table      the name of the table
+     * @param columnName the name of the column
+     */
+    public void initialize(String sequence, String table, String columnName) {
+        Sequence state = this.sequences.computeIfAbsent(sequence, Sequence::new);
+        if (state.initialized) return;
+
+        String sql = this.getInsertIgnore() + " INTO " + this.tableName + " (name, next_value) SELECT ?, COALESCE(MAX(`" + columnName + "`), 0) + 1 FROM " + table;
+        try (Connection connection = this.connection.getConnection()) {
+            this.createTable(connection);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(this.connection.getDatabaseConfiguration().replacePrefix(sql))) {
+                preparedStatement.setString(1, sequence);
+                preparedStatement.executeUpdate();
+            }
+            state.initialized = true;
+        } catch (SQLException exception) {
+            this.logger.info("Sequence initialization failed for sequence: " + sequence + " - " + exception.getMessage());
+            throw new DatabaseException("sequence", this.tableName, exception);
+        }
+    }
+
+    /**
+     * Reserves the next block of a sequence, and returns the first identifier after the block.
+     */
+    private long reserve(String sequence) {
+        try (Connection connection = this.connection.getConnection()) {
+            this.createTable(connection);
+
+            boolean originalAutoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                try (PreparedStatement insert = connection.prepareStatement(this.getInsertIgnore() + " INTO " + this.tableName + " (name, next_value) VALUES (?, 1)")) {
+                    insert.setString(1, sequence);
+                    insert.executeUpdate();
+                }
+                try (PreparedStatement update = connection.prepareStatement("UPDATE " + this.tableName + " SET next_value = next_value + ? WHERE name = ?")) {
+                    update.setLong(1, this.blockSize);
+                    update.setString(2, sequence);
+                    update.executeUpdate();
+                }
+                long end;
+                try (PreparedStatement select = connection.prepareStatement("SELECT next_value FROM " + this.tableName + " WHERE name = ?")) {
+                    select.setString(1, sequence);
+                    try (ResultSet resultSet = select.executeQuery()) {
+                        if (!resultSet.next()) {
+                            throw new SQLException("Sequence " + sequence + " not found");
+                        }
+                        end = resultSet.getLong(1);
+                    }
+                }
+                connection.commit();
+                return end;
+            } catch (SQLException exception) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackException) {
+                    this.logger.info("Rollback failed: " + rollbackException.getMessage());
+                }
+                throw exception;
+            } finally {
+                connection.setAutoCommit(originalAutoCommit);
+            }
+        } catch (SQLException exception) {
+            this.logger.info("Sequence reservation failed for sequence: " + sequence + " - " + exception.getMessage());
+            throw new DatabaseException("sequence", this.tableName, exception);
+        }
+    }
+
+    private void createTable(Connection connection) throws SQLException {
+        if (this.tableCreated) return;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + this.tableName + " (name VARCHAR(64) NOT NULL PRIMARY KEY, next_value BIGINT NOT NULL)");
+        }
+        this.tableCreated = true;
+    }
+
+    private String getInsertIgnore() {
+        return this.connection.getDatabaseConfiguration().getDatabaseType() == DatabaseType.SQLITE ? "INSERT OR IGNORE" : "INSERT IGNORE";
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * The block of a sequence currently handed out. Identifiers are taken from the block without locking,
+     * only the reservation of the next block is synchronized.
+     */
+    private class Sequence {
+
+        private final String name;
+        private volatile Block block;
+        private volatile boolean initialized;
+
+        private Sequence(String name) {
+            this.name = name;
+        }
+
+        private long next() {
+            while (true) {
+                Block current = this.block;
+                if (current != null) {
+                    long id = current.next.getAndIncrement();
+                    if (id < current.end) return id;
+                }
+                synchronized (this) {
+                    if (this.block == current) {
+                        long end = reserve(this.name);
+                        this.block = new Block(end - blockSize, end);
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Block {
+
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
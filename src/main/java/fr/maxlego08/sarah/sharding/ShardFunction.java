@@ -0,0 +1,25 @@
+package fr.maxlego08.sarah.sharding;
+
+/**
+ * Chooses the shard that stores the row with the given key.
+ * The function must be stable: the same key must always be routed to the same shard,
+ * across restarts and across servers using the same shards.
+ */
+@FunctionalInterface
+public interface ShardFunction {
+
+    /**
+     * Hashes the string form of the key. {@link String#hashCode()} is specified by the JLS,
+     * so the routing does not depend on the JVM.
+     */
+    ShardFunction HASH = (key, shardCount) -> Math.floorMod(String.valueOf(key).hashCode(), shardCount);
+
+    /**
+     * Gets the index of the shard that stores the given key.
+     *
+     * @param key        the value of the shard key column
+     * @param shardCount the number of shards
+     * @return the index of the shard, between 0 inclusive and shardCount exclusive
+     */
+    int getShard(Object key, int shardCount);
+}
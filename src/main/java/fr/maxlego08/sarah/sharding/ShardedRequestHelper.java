@@ -0,0 +1,300 @@
+package fr.maxlego08.sarah.sharding;
+
+import fr.maxlego08.sarah.ConsumerConstructor;
+import fr.maxlego08.sarah.DatabaseConnection;
+import fr.maxlego08.sarah.RequestHelper;
+import fr.maxlego08.sarah.database.Schema;
+import fr.maxlego08.sarah.logger.Logger;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Spreads the rows of large tables over several databases, according to the value of a shard key column.
+ * <p>
+ * Operations on a single key are routed to the shard that stores that key. Batch operations are split per shard,
+ * and the operations that span several shards run in parallel when an executor is provided, then their results are merged.
+ * Every sharded table must contain the shard key column, and the shards must share the same schema.
+ */
+public class ShardedRequestHelper {
+
+    private final List<RequestHelper> shards;
+    private final Logger logger;
+    private final String keyColumn;
+    private final ShardFunction shardFunction;
+    private final Executor executor;
+
+    public ShardedRequestHelper(List<DatabaseConnection> connections, Logger logger, String keyColumn) {
+        this(connections, logger, keyColumn, ShardFunction.HASH, null);
+    }
+
+    /**
+     * Creates a sharded request helper.
+     * The order of the connections defines the shard indexes, so it must never change once rows have been written.
+     *
+     * @param connections   the connection of each shard
+     * @param logger        the logger
+     * @param keyColumn     the name of the shard key column
+     * @param shardFunction the function that chooses the shard of a key
+     * @param executor      the executor used to run the operations of each shard in parallel, or null to run them sequentially
+     */
+    public ShardedRequestHelper(List<DatabaseConnection> connections, Logger logger, String keyColumn, ShardFunction shardFunction, Executor executor) {
+        if (connections.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        List<RequestHelper> helpers = new ArrayList<>(connections.size());
+        for (DatabaseConnection connection : connections) {
+            helpers.add(new RequestHelper(connection, logger));
+        }
+        this.shards = Collections.unmodifiableList(helpers);
+        this.logger = logger;
+        this.keyColumn = keyColumn;
+        this.shardFunction = shardFunction;
+        this.executor = executor;
+    }
+
+    /**
+     * Gets the index of the shard that stores the given key.
+     *
+     * @param key the value of the shard key column
+     * @return the index of the shard
+     */
+    public int getShardIndex(Object key) {
+        int shard = this.shardFunction.getShard(key, this.shards.size());
+        if (shard < 0 || shard >= this.shards.size()) {
+            throw new IllegalStateException("Shard function returned " + shard + " for " + this.shards.size() + " shards");
+        }
+        return shard;
+    }
+
+    /**
+     * Gets the request helper of the shard that stores the given key.
+     * Use it for any single-key operation that has no dedicated method here.
+     *
+     * @param key the value of the shard key column
+     * @return the request helper of the shard
+     */
+    public RequestHelper forKey(Object key) {
+        return this.shards.get(this.getShardIndex(key));
+    }
+
+    /**
+     * Executes the given action on every shard, for example to create or migrate a table.
+     *
+     * @param consumer the action to execute
+     */
+    public void forEachShard(Consumer<RequestHelper> consumer) {
+        this.shards.forEach(consumer);
+    }
+
+    public <T> void insert(String tableName, Class<T> clazz, T data) {
+        this.forKey(this.getKey(clazz, data)).insert(tableName, clazz, data);
+    }
+
+    public <T> void upsert(String tableName, Class<T> clazz, T data) {
+        this.forKey(this.getKey(clazz, data)).upsert(tableName, clazz, data);
+    }
+
+    /**
+     * Deletes the rows with the given shard key.
+     *
+     * @param tableName the name of the table
+     * @param key       the value of the shard key column
+     */
+    public void delete(String tableName, Object key) {
+        this.forKey(key).delete(tableName, schema -> schema.where(this.keyColumn, key));
+    }
+
+    /**
+     * Inserts a batch of DTOs. The DTOs are grouped per shard and each group is inserted with one batch.
+     *
+     * @param tableName the name of the table
+     * @param clazz     the class type of the DTOs
+     * @param dataList  a list of DTO objects to be inserted
+     * @param <T>       the type of the DTO
+     */
+    public <T> void insertMultiple(String tableName, Class<T> clazz, List<T> dataList) {
+        this.executeOnShards(this.groupByShard(clazz, dataList), (shard, group) -> {
+            shard.insertMultiple(tableName, clazz, group);
+            return Collections.emptyList();
+        });
+    }
+
+    /**
+     * Inserts or updates a batch of DTOs. The DTOs are grouped per shard and each group is upserted with one batch.
+     *
+     * @param tableName the name of the table
+     * @param clazz     the class type of the DTOs
+     * @param dataList  a list of DTO objects to be upserted
+     * @param <T>       the type of the DTO
+     */
+    public <T> void upsertMultiple(String tableName, Class<T> clazz, List<T> dataList) {
+        this.executeOnShards(this.groupByShard(clazz, dataList), (shard, group) -> {
+            shard.upsertMultiple(tableName, clazz, group);
+            return Collections.emptyList();
+        });
+    }
+
+    /**
+     * Updates a batch of DTOs. The DTOs are grouped per shard and each group is updated with one batch.
+     *
+     * @param tableName the name of the table
+     * @param clazz     the class type of the DTOs
+     * @param dataList  a list of DTO objects to be updated
+     * @param <T>       the type of the DTO
+     */
+    public <T> void updateMultiple(String tableName, Class<T> clazz, List<T> dataList) {
+        this.executeOnShards(this.groupByShard(clazz, dataList), (shard, group) -> {
+            shard.updateMultiple(tableName, clazz, group);
+            return Collections.emptyList();
+        });
+    }
+
+    /**
+     * Selects the rows matching the given shard keys. Only the shards that store at least one of the keys are queried.
+     *
+     * @param tableName the name of the table
+     * @param clazz     the class type of the objects in the result
+     * @param keys      the shard keys to select
+     * @param <K>       the type of the keys
+     * @param <T>       the type of the objects
+     * @return the selected objects, mapped by key
+     * @see RequestHelper#selectByKeys(String, Class, String, Collection)
+     */
+    public <K, T> Map<K, T> selectByKeys(String tableName, Class<T> clazz, Collection<K> keys) {
+        Map<Integer, List<K>> groups = new LinkedHashMap<>();
+        for (K key : keys) {
+            groups.computeIfAbsent(this.getShardIndex(key), index -> new ArrayList<>()).add(key);
+        }
+
+        Map<K, T> results = new LinkedHashMap<>();
+        for (Map<K, T> shardResults : this.executeOnShards(groups, (shard, group) -> Collections.singletonList(shard.selectByKeys(tableName, clazz, this.keyColumn, group)))) {
+            results.putAll(shardResults);
+        }
+        return results;
+    }
+
+    /**
+     * Executes a select query on every shard and merges the results.
+     * The order of the merged rows is the order of the shards, so any ORDER BY or LIMIT only applies within a shard.
+     *
+     * @param tableName the name of the table
+     * @param clazz     the class type of the objects in the result list
+     * @param consumer  the consumer that defines the columns and values to be used in the query
+     * @return the rows of every shard
+     */
+    public <T> List<T> select(String tableName, Class<T> clazz, Consumer<Schema> consumer) {
+        return this.executeOnAllShards(shard -> shard.select(tableName, clazz, consumer));
+    }
+
+    /**
+     * Executes a select query without any conditions on every shard and merges the results.
+     *
+     * @param tableName the name of the table
+     * @param clazz     the class type of the objects in the result list
+     * @return the rows of every shard
+     */
+    public <T> List<T> selectAll(String tableName, Class<T> clazz) {
+        return this.executeOnAllShards(shard -> shard.selectAll(tableName, clazz));
+    }
+
+    /**
+     * Executes a select count(*) query on every shard and sums the results.
+     *
+     * @param tableName the name of the table
+     * @param consumer  the consumer that defines the columns and values to be used in the query
+     * @return the number of matching rows on all shards
+     */
+    public long count(String tableName, Consumer<Schema> consumer) {
+        long count = 0;
+        for (Long shardCount : this.executeOnAllShards(shard -> Collections.singletonList(shard.count(tableName, consumer)))) {
+            count += shardCount;
+        }
+        return count;
+    }
+
+    public List<RequestHelper> getShards() {
+        return shards;
+    }
+
+    public String getKeyColumn() {
+        return keyColumn;
+    }
+
+    private Object getKey(Class<?> clazz, Object data) {
+        Field field = ConsumerConstructor.getColumnField(clazz, this.keyColumn);
+        try {
+            return field.get(data);
+        } catch (IllegalAccessException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private <T> Map<Integer, List<T>> groupByShard(Class<T> clazz, List<T> dataList) {
+        Field field = ConsumerConstructor.getColumnField(clazz, this.keyColumn);
+        Map<Integer, List<T>> groups = new LinkedHashMap<>();
+        try {
+            for (T data : dataList) {
+                groups.computeIfAbsent(this.getShardIndex(field.get(data)), index -> new ArrayList<>()).add(data);
+            }
+        } catch (IllegalAccessException exception) {
+            throw new RuntimeException(exception);
+        }
+        return groups;
+    }
+
+    private <R> List<R> executeOnAllShards(Function<RequestHelper, List<R>> task) {
+        Map<Integer, Void> groups = new LinkedHashMap<>();
+        for (int index = 0; index < this.shards.size(); index++) {
+            groups.put(index, null);
+        }
+        return this.executeOnShards(groups, (shard, ignored) -> task.apply(shard));
+    }
+
+    /**
+     * Executes the task of each shard and merges the results in shard order, concurrently on the executor if one is configured.
+     * The first failure is rethrown once every shard has finished.
+     */
+    private <G, R> List<R> executeOnShards(Map<Integer, G> groups, ShardTask<G, R> task) {
+        List<R> results = new ArrayList<>();
+        if (this.executor == null || groups.size() <= 1) {
+            for (Map.Entry<Integer, G> entry : groups.entrySet()) {
+                results.addAll(task.execute(this.shards.get(entry.getKey()), entry.getValue()));
+            }
+            return results;
+        }
+
+        List<CompletableFuture<List<R>>> futures = new ArrayList<>(groups.size());
+        for (Map.Entry<Integer, G> entry : groups.entrySet()) {
+            RequestHelper shard = this.shards.get(entry.getKey());
+            futures.add(CompletableFuture.supplyAsync(() -> task.execute(shard, entry.getValue()), this.executor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException exception) {
+            Throwable cause = exception.getCause();
+            this.logger.info("Sharded operation failed - " + cause.getMessage());
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : exception;
+        }
+        for (CompletableFuture<List<R>> future : futures) {
+            results.addAll(future.join());
+        }
+        return results;
+    }
+
+    @FunctionalInterface
+    private interface ShardTask<G, R> {
+        List<R> execute(RequestHelper shard, G group);
+    }
+}
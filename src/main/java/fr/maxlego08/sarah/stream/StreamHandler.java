@@ -0,0 +1,15 @@
+package fr.maxlego08.sarah.stream;
+
+import java.io.IOException;
+
+/**
+ * Reads a column value from a stream. The stream is only valid during the call.
+ *
+ * @param <S> the type of the stream, an {@link java.io.InputStream} or a {@link java.io.Reader}
+ */
+@FunctionalInterface
+public interface StreamHandler<S> {
+
+    void handle(S stream) throws IOException;
+
+}
@@ -0,0 +1,92 @@
+package fr.maxlego08.sarah.stream;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * A column value read from a stream when the statement is executed, so that large BLOB or LONGTEXT values
+ * are never held in memory as a whole. A stream value can only be written once.
+ */
+public abstract class StreamValue {
+
+    protected final long length;
+
+    private StreamValue(long length) {
+        this.length = length;
+    }
+
+    /**
+     * Creates a value bound with {@link PreparedStatement#setBinaryStream(int, InputStream, int)}.
+     *
+     * @param stream the stream of the value, closed by the caller
+     * @param length the number of bytes of the stream, or -1 if unknown
+     * @return the stream value
+     */
+    public static StreamValue binary(InputStream stream, long length) {
+        return new StreamValue(length) {
+            @Override
+            public void bind(PreparedStatement preparedStatement, int index) throws SQLException {
+                if (this.length < 0) {
+                    preparedStatement.setBinaryStream(index, stream);
+                } else if (this.length <= Integer.MAX_VALUE) {
+                    preparedStatement.setBinaryStream(index, stream, (int) this.length);
+                } else {
+                    preparedStatement.setBinaryStream(index, stream, this.length);
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a value bound with {@link PreparedStatement#setCharacterStream(int, Reader, int)}.
+     *
+     * @param reader the reader of the value, closed by the caller
+     * @param length the number of characters of the reader, or -1 if unknown
+     * @return the stream value
+     */
+    public static StreamValue characters(Reader reader, long length) {
+        return new StreamValue(length) {
+            @Override
+            public void bind(PreparedStatement preparedStatement, int index) throws SQLException {
+                if (this.length < 0) {
+                    preparedStatement.setCharacterStream(index, reader);
+                } else if (this.length <= Integer.MAX_VALUE) {
+                    preparedStatement.setCharacterStream(index, reader, (int) this.length);
+                } else {
+                    preparedStatement.setCharacterStream(index, reader, this.length);
+                }
+            }
+        };
+    }
+
+    /**
+     * Checks if values contain a stream value. A stream is consumed by the first execution, so statements with
+     * stream values are never grouped with other writes nor retried.
+     *
+     * @param values the values bound to a statement
+     * @return true if one of the values is a stream value
+     */
+    public static boolean containsStream(Collection<?> values) {
+        for (Object value : values) {
+            if (value instanceof StreamValue) return true;
+        }
+        return false;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Binds the stream to a parameter of the statement.
+     *
+     * @param preparedStatement the statement
+     * @param index             the index of the parameter
+     * @throws SQLException if the stream cannot be bound
+     */
+    public abstract void bind(PreparedStatement preparedStatement, int index) throws SQLException;
+
+}
@@ -0,0 +1,148 @@
+package fr.maxlego08.sarah.tracking;
+
+import fr.maxlego08.sarah.SchemaBuilder;
+import fr.maxlego08.sarah.conditions.ColumnDefinition;
+import fr.maxlego08.sarah.database.Schema;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the last persisted values of each row, by table and primary key, to write only the columns that changed.
+ * <p>
+ * A row is tracked once it has been loaded or written through a {@link fr.maxlego08.sarah.RequestHelper} that uses this tracker.
+ * Rows loaded from a read replica are not tracked, unless the select reads from the primary.
+ * Writing a tracked row then emits an {@code UPDATE} of the changed columns only, or nothing at all when no column changed.
+ * Rows must be forgotten when they are evicted from memory, for example when a player leaves, otherwise the snapshots are kept forever.
+ * The tracker is only correct if the tracked rows are not modified by other means.
+ */
+public class ChangeTracker {
+
+    private final Map<String, Map<List<Object>, Map<String, Object>>> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Checks whether the row of the given schema has a snapshot.
+     *
+     * @param schema a schema that defines every column of the row, with its primary key columns
+     * @return true if the row is tracked
+     */
+    public boolean isTracked(Schema schema) {
+        List<Object> key = this.getKey(schema);
+        if (key == null) return false;
+
+        Map<List<Object>, Map<String, Object>> tableSnapshots = this.snapshots.get(schema.getTableName());
+        return tableSnapshots != null && tableSnapshots.containsKey(key);
+    }
+
+    /**
+     * Computes the update of the columns that changed since the last snapshot of the row.
+     *
+     * @param schema a schema that defines every column of a tracked row, with its primary key columns
+     * @return an update schema of the changed columns, restricted to the row by its primary key, or null if nothing changed
+     * @throws IllegalArgumentException if the row is not tracked
+     */
+    public Schema diff(Schema schema) {
+        List<Object> key = this.getKey(schema);
+        Map<List<Object>, Map<String, Object>> tableSnapshots = key == null ? null : this.snapshots.get(schema.getTableName());
+        Map<String, Object> snapshot = tableSnapshots == null ? null : tableSnapshots.get(key);
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Row " + key + " of table " + schema.getTableName() + " is not tracked");
+        }
+
+        Schema update = SchemaBuilder.update(schema.getTableName(), changes -> {
+        });
+        for (ColumnDefinition column : schema.getColumns()) {
+            if (column.isPrimaryKey()) continue;
+            if (!snapshot.containsKey(column.getName()) || !Objects.deepEquals(snapshot.get(column.getName()), column.getObject())) {
+                update.addColumn(new ColumnDefinition(column.getName(), column.getType()).setObject(column.getObject()));
+            }
+        }
+        if (update.getColumns().isEmpty()) return null;
+
+        for (ColumnDefinition column : schema.getColumns()) {
+            if (column.isPrimaryKey()) {
+                update.where(column.getName(), column.getObject());
+            }
+        }
+        return update;
+    }
+
+    /**
+     * Records the values of the given schema as the persisted state of its row.
+     * Schemas without primary key columns are ignored.
+     *
+     * @param schema a schema that defines every column of the row, with its primary key columns
+     */
+    public void record(Schema schema) {
+        List<Object> key = this.getKey(schema);
+        if (key == null) return;
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        for (ColumnDefinition column : schema.getColumns()) {
+            if (!column.isPrimaryKey()) {
+                snapshot.put(column.getName(), column.getObject());
+            }
+        }
+        this.snapshots.computeIfAbsent(schema.getTableName(), table -> new ConcurrentHashMap<>()).put(key, snapshot);
+    }
+
+    /**
+     * Forgets the snapshot of a row, the next write of the row will write every column.
+     *
+     * @param tableName the name of the table
+     * @param key       the values of the primary key columns, in declaration order
+     */
+    public void forget(String tableName, List<Object> key) {
+        Map<List<Object>, Map<String, Object>> tableSnapshots = this.snapshots.get(tableName);
+        if (tableSnapshots != null) {
+            tableSnapshots.remove(key);
+        }
+    }
+
+    /**
+     * Forgets the snapshot of the row of the given schema.
+     *
+     * @param schema a schema that defines the primary key columns of the row
+     */
+    public void forget(Schema schema) {
+        List<Object> key = this.getKey(schema);
+        if (key != null) {
+            this.forget(schema.getTableName(), key);
+        }
+    }
+
+    /**
+     * Forgets every snapshot of a table.
+     *
+     * @param tableName the name of the table
+     */
+    public void forgetAll(String tableName) {
+        this.snapshots.remove(tableName);
+    }
+
+    /**
+     * Gets the number of tracked rows of a table.
+     *
+     * @param tableName the name of the table
+     * @return the number of tracked rows
+     */
+    public int getTrackedCount(String tableName) {
+        Map<List<Object>, Map<String, Object>> tableSnapshots = this.snapshots.get(tableName);
+        return tableSnapshots == null ? 0 : tableSnapshots.size();
+    }
+
+    private List<Object> getKey(Schema schema) {
+        List<Object> key = new ArrayList<>();
+        for (ColumnDefinition column : schema.getColumns()) {
+            if (column.isPrimaryKey()) {
+                if (column.isAutoIncrement()) return null;
+                key.add(column.getObject());
+            }
+        }
+        return key.isEmpty() ? null : key;
+    }
+}
@@ -13,11 +13,24 @@ import java.sql.SQLException;
 public class Transaction implements AutoCloseable {
 
     private final Connection connection;
+    private final Runnable closeAction;
     private boolean committed = false;
     private boolean rolledBack = false;
 
     public Transaction(Connection connection) throws SQLException {
+        this(connection, null);
+    }
+
+    /**
+     * Creates a transaction that runs an action when it is closed, even if the rollback fails.
+     *
+     * @param connection  the connection of the transaction
+     * @param closeAction the action run on close, or null
+     * @throws SQLException if auto commit cannot be disabled
+     */
+    public Transaction(Connection connection, Runnable closeAction) throws SQLException {
         this.connection = connection;
+        this.closeAction = closeAction;
         this.connection.setAutoCommit(false);
     }
 
@@ -77,6 +90,10 @@ public class Transaction implements AutoCloseable {
             connection.setAutoCommit(true);
         } catch (SQLException exception) {
             throw new DatabaseException("close-transaction", exception);
+        } finally {
+            if (closeAction != null) {
+                closeAction.run();
+            }
         }
     }
 
@@ -0,0 +1,320 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.codec.BlobCodec;
+import fr.maxlego08.sarah.codec.BlobCodecs;
+import fr.maxlego08.sarah.codec.CompactBlobCodec;
+import fr.maxlego08.sarah.codec.DeflateBlobCodec;
+import fr.maxlego08.sarah.codec.SerializedBlobCodec;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for BLOB codecs
+ */
+public class BlobCodecTest extends DatabaseTestBase {
+
+    public enum Rarity {
+        COMMON, RARE
+    }
+
+    public static class ItemStack implements Serializable {
+        private final String material;
+        private final int amount;
+        private final Rarity rarity;
+
+        public ItemStack(String material, int amount, Rarity rarity) {
+            this.material = material;
+            this.amount = amount;
+            this.rarity = rarity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ItemStack)) return false;
+            ItemStack that = (ItemStack) o;
+            return amount == that.amount && material.equals(that.material) && rarity == that.rarity;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(material, amount, rarity);
+        }
+    }
+
+    public static class Inventory implements Serializable {
+        private final UUID owner;
+        private final List<ItemStack> items;
+        private final Map<String, Long> counters;
+        private final int[] hotbar;
+
+        public Inventory(UUID owner, List<ItemStack> items, Map<String, Long> counters, int[] hotbar) {
+            this.owner = owner;
+            this.items = items;
+            this.counters = counters;
+            this.hotbar = hotbar;
+        }
+    }
+
+    public static class Timeline {
+        private final Date created;
+        private final Timestamp updated;
+        private final Instant lastLogin;
+        private final LocalDate birthday;
+        private final LocalTime resetTime;
+        private final LocalDateTime nextReward;
+        private final OffsetDateTime offsetEvent;
+        private final ZonedDateTime zonedEvent;
+        private final Duration playTime;
+        private final BigDecimal balance;
+        private final BigInteger experience;
+
+        public Timeline(Date created, Timestamp updated, Instant lastLogin, LocalDate birthday, LocalTime resetTime, LocalDateTime nextReward,
+                        OffsetDateTime offsetEvent, ZonedDateTime zonedEvent, Duration playTime, BigDecimal balance, BigInteger experience) {
+            this.created = created;
+            this.updated = updated;
+            this.lastLogin = lastLogin;
+            this.birthday = birthday;
+            this.resetTime = resetTime;
+            this.nextReward = nextReward;
+            this.offsetEvent = offsetEvent;
+            this.zonedEvent = zonedEvent;
+            this.playTime = playTime;
+            this.balance = balance;
+            this.experience = experience;
+        }
+    }
+
+    public static class Containers {
+        private final TreeMap<String, Integer> ranking;
+        private final SortedMap<String, Integer> sorted;
+        private final EnumMap<Rarity, Integer> byRarity;
+        private final EnumSet<Rarity> rarities;
+        private final LinkedList<String> history;
+        private final ArrayDeque<Long> queue;
+        private final NavigableSet<Integer> levels;
+
+        public Containers(TreeMap<String, Integer> ranking, SortedMap<String, Integer> sorted, EnumMap<Rarity, Integer> byRarity, EnumSet<Rarity> rarities,
+                           LinkedList<String> history, ArrayDeque<Long> queue, NavigableSet<Integer> levels) {
+            this.ranking = ranking;
+            this.sorted = sorted;
+            this.byRarity = byRarity;
+            this.rarities = rarities;
+            this.history = history;
+            this.queue = queue;
+            this.levels = levels;
+        }
+    }
+
+    public static class PlayerDataDTO {
+        private final long id;
+        @Column(value = "inventory", codec = BlobCodecs.DEFLATE)
+        private final Inventory inventory;
+        @Column(value = "raw_data", codec = BlobCodecs.RAW)
+        private final byte[] rawData;
+
+        public PlayerDataDTO(long id, Inventory inventory, byte[] rawData) {
+            this.id = id;
+            this.inventory = inventory;
+            this.rawData = rawData;
+        }
+    }
+
+    public static class NoteDTO {
+        private final long id;
+        @Column(value = "note", codec = "reversed")
+        private final String note;
+
+        public NoteDTO(long id, String note) {
+            this.id = id;
+            this.note = note;
+        }
+    }
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_player_data", schema -> {
+            schema.bigInt("id").primary();
+            schema.blob("inventory").nullable();
+            schema.blob("raw_data").nullable();
+        }).execute(connection, testLogger);
+
+        SchemaBuilder.create(null, "test_notes", schema -> {
+            schema.bigInt("id").primary();
+            schema.blob("note");
+        }).execute(connection, testLogger);
+    }
+
+    private Inventory createInventory(int size) {
+        List<ItemStack> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            items.add(new ItemStack("MATERIAL_" + i, i % 64 + 1, i % 10 == 0 ? Rarity.RARE : Rarity.COMMON));
+        }
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("kills", 42L);
+        counters.put("deaths", -3L);
+        return new Inventory(UUID.randomUUID(), items, counters, new int[]{1, 2, 3});
+    }
+
+    @Test
+    public void testDtoRoundTrip() {
+        Inventory inventory = createInventory(36);
+        requestHelper.insert("test_player_data", PlayerDataDTO.class, new PlayerDataDTO(1, inventory, new byte[]{1, 2, 3}));
+        requestHelper.insert("test_player_data", PlayerDataDTO.class, new PlayerDataDTO(2, null, null));
+
+        List<PlayerDataDTO> rows = requestHelper.select("test_player_data", PlayerDataDTO.class, schema -> schema.orderBy("id"));
+
+        assertEquals(2, rows.size());
+        Inventory loaded = rows.get(0).inventory;
+        assertEquals(inventory.owner, loaded.owner);
+        assertEquals(inventory.items, loaded.items);
+        assertEquals(inventory.counters, loaded.counters);
+        assertArrayEquals(inventory.hotbar, loaded.hotbar);
+        assertArrayEquals(new byte[]{1, 2, 3}, rows.get(0).rawData);
+        assertNull(rows.get(1).inventory);
+        assertNull(rows.get(1).rawData);
+    }
+
+    @Test
+    public void testCompactEncodingIsSmaller() throws Exception {
+        Inventory inventory = createInventory(500);
+
+        byte[] serialized = new SerializedBlobCodec().encode(inventory);
+        byte[] compact = new CompactBlobCodec().encode(inventory);
+        byte[] deflated = new DeflateBlobCodec(new CompactBlobCodec()).encode(inventory);
+
+        assertTrue(compact.length < serialized.length, "compact " + compact.length + " >= serialized " + serialized.length);
+        assertTrue(deflated.length < compact.length, "deflated " + deflated.length + " >= compact " + compact.length);
+
+        Inventory decoded = (Inventory) new DeflateBlobCodec(new CompactBlobCodec()).decode(deflated, Inventory.class);
+        assertEquals(inventory.items, decoded.items);
+    }
+
+    @Test
+    public void testRegisteredCodec() {
+        BlobCodecs.register("reversed", new BlobCodec() {
+            @Override
+            public byte[] encode(Object value) {
+                return new StringBuilder((String) value).reverse().toString().getBytes();
+            }
+
+            @Override
+            public Object decode(byte[] data, java.lang.reflect.Type type) {
+                return new StringBuilder(new String(data)).reverse().toString();
+            }
+        });
+
+        requestHelper.insert("test_notes", NoteDTO.class, new NoteDTO(1, "hello"));
+
+        List<Map<String, Object>> rows = requestHelper.select("test_notes", schema -> {
+        });
+        assertArrayEquals("olleh".getBytes(), (byte[]) rows.get(0).get("note"));
+        assertEquals("hello", requestHelper.selectAll("test_notes", NoteDTO.class).get(0).note);
+    }
+
+    @Test
+    public void testUnknownCodec() {
+        assertThrows(IllegalArgumentException.class, () -> BlobCodecs.get("missing"));
+    }
+
+    @Test
+    public void testCompactDateAndTimeValues() throws Exception {
+        Timestamp updated = Timestamp.valueOf("2024-03-01 10:15:30.123456789");
+        Timeline timeline = new Timeline(new Date(0), updated, Instant.ofEpochSecond(1700000000L, 42),
+                LocalDate.of(1999, 12, 31), LocalTime.of(4, 5, 6, 7), LocalDateTime.of(2030, 1, 2, 3, 4, 5, 6),
+                OffsetDateTime.of(2024, 6, 1, 12, 0, 0, 0, ZoneOffset.ofHours(-5)),
+                ZonedDateTime.of(2024, 10, 27, 2, 30, 0, 0, ZoneId.of("Europe/Paris")).withLaterOffsetAtOverlap(),
+                Duration.ofSeconds(-90, 5), new BigDecimal("12345.678900"), new BigInteger("-123456789012345678901234567890"));
+
+        for (BlobCodec codec : Arrays.asList(new CompactBlobCodec(), new DeflateBlobCodec(new CompactBlobCodec()))) {
+            Timeline decoded = (Timeline) codec.decode(codec.encode(timeline), Timeline.class);
+            assertEquals(0L, decoded.created.getTime());
+            assertEquals(updated, decoded.updated);
+            assertEquals(timeline.lastLogin, decoded.lastLogin);
+            assertEquals(timeline.birthday, decoded.birthday);
+            assertEquals(timeline.resetTime, decoded.resetTime);
+            assertEquals(timeline.nextReward, decoded.nextReward);
+            assertEquals(timeline.offsetEvent, decoded.offsetEvent);
+            assertEquals(timeline.zonedEvent, decoded.zonedEvent);
+            assertEquals(timeline.playTime, decoded.playTime);
+            assertEquals(timeline.balance, decoded.balance);
+            assertEquals(6, decoded.balance.scale());
+            assertEquals(timeline.experience, decoded.experience);
+        }
+
+        CompactBlobCodec codec = new CompactBlobCodec();
+        assertEquals(new BigDecimal("1.50"), codec.decode(codec.encode(new BigDecimal("1.50")), Object.class));
+        assertEquals(new Date(0), codec.decode(codec.encode(new Date(0)), Object.class));
+    }
+
+    @Test
+    public void testCompactCollectionTypes() throws Exception {
+        TreeMap<String, Integer> ranking = new TreeMap<>();
+        ranking.put("b", 2);
+        ranking.put("a", 1);
+        EnumMap<Rarity, Integer> byRarity = new EnumMap<>(Rarity.class);
+        byRarity.put(Rarity.RARE, 3);
+        Containers containers = new Containers(ranking, new TreeMap<>(ranking), byRarity, EnumSet.of(Rarity.COMMON),
+                new LinkedList<>(Arrays.asList("x", "y")), new ArrayDeque<>(Arrays.asList(1L, 2L)), new TreeSet<>(Arrays.asList(3, 1, 2)));
+
+        CompactBlobCodec codec = new CompactBlobCodec();
+        Containers decoded = (Containers) codec.decode(codec.encode(containers), Containers.class);
+
+        assertEquals(ranking, decoded.ranking);
+        assertEquals("a", decoded.sorted.firstKey());
+        assertEquals(byRarity, decoded.byRarity);
+        assertEquals(EnumSet.of(Rarity.COMMON), decoded.rarities);
+        assertEquals(Arrays.asList("x", "y"), decoded.history);
+        assertEquals(Arrays.asList(1L, 2L), new ArrayList<>(decoded.queue));
+        assertEquals(Integer.valueOf(1), decoded.levels.first());
+    }
+
+    @Test
+    public void testCompactRejectsUnsupportedPlatformTypes() {
+        CompactBlobCodec codec = new CompactBlobCodec();
+        assertThrows(IOException.class, () -> codec.encode(Optional.of("value")));
+        assertThrows(IOException.class, () -> codec.encode(Arrays.asList(new StringBuilder("value"))));
+    }
+
+    @Test
+    public void testCompactScalarValues() throws Exception {
+        CompactBlobCodec codec = new CompactBlobCodec();
+        List<Object> values = Arrays.asList(Long.MIN_VALUE, -1L, 0L, Long.MAX_VALUE);
+        assertEquals(values, codec.decode(codec.encode(values), List.class));
+        assertEquals(Rarity.RARE, codec.decode(codec.encode(Rarity.RARE), Rarity.class));
+        assertEquals('x', codec.decode(codec.encode('x'), char.class));
+        assertEquals(2.5, codec.decode(codec.encode(2.5), double.class));
+    }
+}
@@ -0,0 +1,179 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.database.DatabaseType;
+import fr.maxlego08.sarah.database.Schema;
+import fr.maxlego08.sarah.requests.BulkUpdateRequest;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for BulkUpdateRequest
+ */
+public class BulkUpdateRequestTest extends DatabaseTestBase {
+
+    public static class ProductDTO {
+        private final Long id;
+        private final String name;
+        private final Long stock;
+
+        public ProductDTO(Long id, String name, Long stock) {
+            this.id = id;
+            this.name = name;
+            this.stock = stock;
+        }
+
+        public Long getId() { return id; }
+        public String getName() { return name; }
+        public Long getStock() { return stock; }
+    }
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_products", schema -> {
+            schema.bigInt("id").primary();
+            schema.string("name", 50);
+            schema.bigInt("stock");
+        }).execute(connection, testLogger);
+
+        SchemaBuilder.create(null, "test_composite", schema -> {
+            schema.string("region", 10).primary();
+            schema.bigInt("number").primary();
+            schema.string("label", 50);
+        }).execute(connection, testLogger);
+    }
+
+    private List<ProductDTO> createProducts(int count) {
+        List<ProductDTO> products = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            products.add(new ProductDTO(i, "product" + i, i));
+        }
+        return products;
+    }
+
+    @Test
+    public void testUpdateMultipleDtosOnlyUpdatesMatchingRows() throws Exception {
+        requestHelper.insertMultiple("test_products", ProductDTO.class, createProducts(10));
+
+        List<ProductDTO> updates = new ArrayList<>();
+        updates.add(new ProductDTO(2L, "renamed2", 200L));
+        updates.add(new ProductDTO(5L, "renamed5", 500L));
+        requestHelper.updateMultiple("test_products", ProductDTO.class, updates);
+
+        try (Statement stmt = connection.getConnection().createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT id, name, stock FROM test_products ORDER BY id");
+            while (rs.next()) {
+                long id = rs.getLong("id");
+                if (id == 2 || id == 5) {
+                    assertEquals("renamed" + id, rs.getString("name"));
+                    assertEquals(id * 100, rs.getLong("stock"));
+                } else {
+                    assertEquals("product" + id, rs.getString("name"));
+                    assertEquals(id, rs.getLong("stock"));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUpdateSpansSeveralChunks() throws Exception {
+        int rows = BulkUpdateRequest.CASE_CHUNK_SIZE * 2 + 37;
+        requestHelper.insertMultiple("test_products", ProductDTO.class, createProducts(rows));
+
+        List<Schema> schemas = new ArrayList<>();
+        for (long i = 1; i <= rows; i++) {
+            long id = i;
+            schemas.add(SchemaBuilder.update("test_products", schema -> {
+                schema.bigInt("id", id).primary();
+                schema.string("name", "bulk" + id);
+                schema.bigInt("stock", id * 2);
+            }));
+        }
+
+        int updated = new BulkUpdateRequest(schemas).execute(connection, configuration, testLogger);
+
+        assertEquals(rows, updated);
+        try (Statement stmt = connection.getConnection().createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM test_products WHERE stock = id * 2 AND name = 'bulk' || id");
+            assertTrue(rs.next());
+            assertEquals(rows, rs.getInt(1));
+        }
+    }
+
+    @Test
+    public void testDuplicateKeyAppliesLastRow() throws Exception {
+        requestHelper.insertMultiple("test_products", ProductDTO.class, createProducts(3));
+
+        List<ProductDTO> updates = new ArrayList<>();
+        updates.add(new ProductDTO(2L, "first", 10L));
+        updates.add(new ProductDTO(3L, "other", 30L));
+        updates.add(new ProductDTO(2L, "last", 20L));
+        requestHelper.updateMultiple("test_products", ProductDTO.class, updates);
+
+        try (Statement stmt = connection.getConnection().createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT name, stock FROM test_products WHERE id = 2");
+            assertTrue(rs.next());
+            assertEquals("last", rs.getString("name"));
+            assertEquals(20L, rs.getLong("stock"));
+        }
+    }
+
+    @Test
+    public void testUpdateWithCompositeKey() throws Exception {
+        executeRawSQL("INSERT INTO test_composite (region, number, label) VALUES ('eu', 1, 'a'), ('eu', 2, 'b'), ('us', 1, 'c')");
+
+        List<Schema> schemas = new ArrayList<>();
+        schemas.add(SchemaBuilder.update("test_composite", schema -> {
+            schema.string("region", "eu").primary();
+            schema.bigInt("number", 2).primary();
+            schema.string("label", "updated-eu");
+        }));
+        schemas.add(SchemaBuilder.update("test_composite", schema -> {
+            schema.string("region", "us").primary();
+            schema.bigInt("number", 1).primary();
+            schema.string("label", "updated-us");
+        }));
+
+        requestHelper.updateMultiple(schemas);
+
+        try (Statement stmt = connection.getConnection().createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT region, number, label FROM test_composite ORDER BY region, number");
+            assertTrue(rs.next());
+            assertEquals("a", rs.getString("label"));
+            assertTrue(rs.next());
+            assertEquals("updated-eu", rs.getString("label"));
+            assertTrue(rs.next());
+            assertEquals("updated-us", rs.getString("label"));
+        }
+    }
+
+    @Test
+    public void testIsApplicable() {
+        Schema byKey = SchemaBuilder.update("test_products", schema -> {
+            schema.bigInt("id", 1).primary();
+            schema.string("name", "name");
+        });
+        Schema byWhere = SchemaBuilder.update("test_products", schema -> {
+            schema.string("name", "name");
+            schema.where("id", 1);
+        });
+
+        assertTrue(BulkUpdateRequest.isApplicable(Collections.singletonList(byKey)));
+        assertFalse(BulkUpdateRequest.isApplicable(Collections.singletonList(byWhere)));
+        assertFalse(BulkUpdateRequest.isApplicable(Collections.emptyList()));
+    }
+
+    @Test
+    public void testStrategySelection() {
+        assertFalse(BulkUpdateRequest.useTemporaryTable(DatabaseType.SQLITE, 100000));
+        assertFalse(BulkUpdateRequest.useTemporaryTable(DatabaseType.MYSQL, 100));
+        assertTrue(BulkUpdateRequest.useTemporaryTable(DatabaseType.MYSQL, BulkUpdateRequest.TEMPORARY_TABLE_THRESHOLD));
+        assertTrue(BulkUpdateRequest.useTemporaryTable(DatabaseType.MARIADB, 100000));
+    }
+}
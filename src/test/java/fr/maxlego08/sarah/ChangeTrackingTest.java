@@ -0,0 +1,210 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.tracking.ChangeTracker;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for dirty tracking of DTO writes
+ */
+public class ChangeTrackingTest extends DatabaseTestBase {
+
+    private final ChangeTracker changeTracker = new ChangeTracker();
+
+    public static class PlayerDTO {
+        private final UUID uniqueId;
+        private final String name;
+        private final Long lastSeen;
+
+        public PlayerDTO(UUID uniqueId, String name, Long lastSeen) {
+            this.uniqueId = uniqueId;
+            this.name = name;
+            this.lastSeen = lastSeen;
+        }
+
+        public UUID getUniqueId() { return uniqueId; }
+        public String getName() { return name; }
+        public Long getLastSeen() { return lastSeen; }
+    }
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_users", schema -> {
+            schema.uuid("uniqueId").primary();
+            schema.string("name", 50);
+            schema.bigInt("lastSeen");
+        }).execute(connection, testLogger);
+
+        requestHelper.setChangeTracker(changeTracker);
+    }
+
+    private String selectName(UUID uniqueId) throws Exception {
+        try (Statement stmt = connection.getConnection().createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT name FROM test_users WHERE uniqueId = '" + uniqueId + "'");
+            return rs.next() ? rs.getString("name") : null;
+        }
+    }
+
+    private long selectLastSeen(UUID uniqueId) throws Exception {
+        try (Statement stmt = connection.getConnection().createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT lastSeen FROM test_users WHERE uniqueId = '" + uniqueId + "'");
+            assertTrue(rs.next());
+            return rs.getLong("lastSeen");
+        }
+    }
+
+    @Test
+    public void testUnchangedUpsertIsSkipped() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        requestHelper.upsert("test_users", PlayerDTO.class, new PlayerDTO(uniqueId, "alice", 1L));
+        assertEquals(1, changeTracker.getTrackedCount("test_users"));
+
+        // Changed behind the tracker's back: an unchanged upsert must not overwrite it
+        executeRawSQL("UPDATE test_users SET name = 'external' WHERE uniqueId = '" + uniqueId + "'");
+        requestHelper.upsert("test_users", PlayerDTO.class, new PlayerDTO(uniqueId, "alice", 1L));
+
+        assertEquals("external", selectName(uniqueId));
+    }
+
+    @Test
+    public void testOnlyChangedColumnsAreWritten() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        requestHelper.upsert("test_users", PlayerDTO.class, new PlayerDTO(uniqueId, "alice", 1L));
+
+        executeRawSQL("UPDATE test_users SET name = 'external' WHERE uniqueId = '" + uniqueId + "'");
+        requestHelper.upsert("test_users", PlayerDTO.class, new PlayerDTO(uniqueId, "alice", 2L));
+
+        assertEquals("external", selectName(uniqueId));
+        assertEquals(2L, selectLastSeen(uniqueId));
+    }
+
+    @Test
+    public void testDeletedTrackedRowIsWrittenAgain() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        requestHelper.upsert("test_users", PlayerDTO.class, new PlayerDTO(uniqueId, "alice", 1L));
+        executeRawSQL("DELETE FROM test_users");
+
+        requestHelper.upsert("test_users", PlayerDTO.class, new PlayerDTO(uniqueId, "alice", 2L));
+
+        assertEquals("alice", selectName(uniqueId));
+        assertEquals(2L, selectLastSeen(uniqueId));
+    }
+
+    @Test
+    public void testLoadedRowsAreTracked() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        executeRawSQL("INSERT INTO test_users (uniqueId, name, lastSeen) VALUES ('" + first + "', 'alice', 1), ('" + second + "', 'bob', 1)");
+
+        assertEquals(2, requestHelper.selectAll("test_users", PlayerDTO.class).size());
+        assertEquals(2, changeTracker.getTrackedCount("test_users"));
+
+        executeRawSQL("UPDATE test_users SET name = 'external'");
+        requestHelper.updateMultiple("test_users", PlayerDTO.class, Arrays.asList(new PlayerDTO(first, "alice", 1L), new PlayerDTO(second, "bob", 5L)));
+
+        assertEquals("external", selectName(first));
+        assertEquals("external", selectName(second));
+        assertEquals(1L, selectLastSeen(first));
+        assertEquals(5L, selectLastSeen(second));
+    }
+
+    @Test
+    public void testUpsertMultipleMixesTrackedAndNewRows() throws Exception {
+        UUID tracked = UUID.randomUUID();
+        UUID created = UUID.randomUUID();
+        requestHelper.upsert("test_users", PlayerDTO.class, new PlayerDTO(tracked, "alice", 1L));
+
+        requestHelper.upsertMultiple("test_users", PlayerDTO.class, Arrays.asList(new PlayerDTO(tracked, "alice", 3L), new PlayerDTO(created, "bob", 1L)));
+
+        assertEquals(3L, selectLastSeen(tracked));
+        assertEquals("bob", selectName(created));
+        assertEquals(2, changeTracker.getTrackedCount("test_users"));
+    }
+
+    @Test
+    public void testUpsertMultipleWritesDeletedTrackedRowAgain() throws Exception {
+        UUID deleted = UUID.randomUUID();
+        UUID kept = UUID.randomUUID();
+        requestHelper.upsertMultiple("test_users", PlayerDTO.class, Arrays.asList(new PlayerDTO(deleted, "alice", 1L), new PlayerDTO(kept, "bob", 1L)));
+        executeRawSQL("DELETE FROM test_users WHERE uniqueId = '" + deleted + "'");
+
+        requestHelper.upsertMultiple("test_users", PlayerDTO.class, Arrays.asList(new PlayerDTO(deleted, "alice", 2L), new PlayerDTO(kept, "bob", 2L)));
+
+        assertEquals("alice", selectName(deleted));
+        assertEquals(2L, selectLastSeen(deleted));
+        assertEquals(2L, selectLastSeen(kept));
+        assertEquals(2, countRows("test_users"));
+    }
+
+    @Test
+    public void testReplicaReadsAreNotTracked() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        executeRawSQL("INSERT INTO test_users (uniqueId, name, lastSeen) VALUES ('" + uniqueId + "', 'alice', 1)");
+
+        SqliteConnection replicatedConnection = new SqliteConnection(configuration.withReadReplica("replica", 3306), new File("."), testLogger);
+        replicatedConnection.setFileName(getSqlitePath());
+        try {
+            RequestHelper replicatedHelper = new RequestHelper(replicatedConnection, testLogger);
+            replicatedHelper.setChangeTracker(changeTracker);
+
+            assertEquals(1, replicatedHelper.selectAll("test_users", PlayerDTO.class).size());
+            assertEquals(0, changeTracker.getTrackedCount("test_users"));
+
+            replicatedHelper.select("test_users", PlayerDTO.class, schema -> schema.readFromPrimary());
+            assertEquals(1, changeTracker.getTrackedCount("test_users"));
+        } finally {
+            replicatedConnection.disconnect();
+        }
+    }
+
+    @Test
+    public void testReturningWritesAreTracked() throws Exception {
+        UUID inserted = UUID.randomUUID();
+        UUID upserted = UUID.randomUUID();
+        requestHelper.insertReturning("test_users", PlayerDTO.class, new PlayerDTO(inserted, "alice", 1L));
+        requestHelper.upsertReturning("test_users", PlayerDTO.class, new PlayerDTO(upserted, "bob", 1L));
+        assertEquals(2, changeTracker.getTrackedCount("test_users"));
+
+        executeRawSQL("UPDATE test_users SET name = 'external'");
+        requestHelper.upsert("test_users", PlayerDTO.class, new PlayerDTO(inserted, "alice", 1L));
+        requestHelper.upsert("test_users", PlayerDTO.class, new PlayerDTO(upserted, "bob", 1L));
+
+        assertEquals("external", selectName(inserted));
+        assertEquals("external", selectName(upserted));
+    }
+
+    @Test
+    public void testGroupCommittedInsertIsTracked() throws Exception {
+        connection.enableGroupCommit(5, 10);
+        UUID uniqueId = UUID.randomUUID();
+        requestHelper.insert("test_users", PlayerDTO.class, new PlayerDTO(uniqueId, "alice", 1L));
+        assertEquals(1, changeTracker.getTrackedCount("test_users"));
+
+        executeRawSQL("UPDATE test_users SET name = 'external' WHERE uniqueId = '" + uniqueId + "'");
+        requestHelper.upsert("test_users", PlayerDTO.class, new PlayerDTO(uniqueId, "alice", 2L));
+
+        assertEquals("external", selectName(uniqueId));
+        assertEquals(2L, selectLastSeen(uniqueId));
+    }
+
+    @Test
+    public void testForget() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        requestHelper.upsert("test_users", PlayerDTO.class, new PlayerDTO(uniqueId, "alice", 1L));
+        changeTracker.forget("test_users", Collections.singletonList(uniqueId.toString()));
+        assertEquals(0, changeTracker.getTrackedCount("test_users"));
+
+        executeRawSQL("UPDATE test_users SET name = 'external' WHERE uniqueId = '" + uniqueId + "'");
+        requestHelper.upsert("test_users", PlayerDTO.class, new PlayerDTO(uniqueId, "alice", 1L));
+
+        assertEquals("alice", selectName(uniqueId));
+    }
+}
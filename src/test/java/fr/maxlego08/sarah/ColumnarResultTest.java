@@ -0,0 +1,134 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.result.BooleanVector;
+import fr.maxlego08.sarah.result.ColumnarResult;
+import fr.maxlego08.sarah.result.DoubleVector;
+import fr.maxlego08.sarah.result.LongVector;
+import fr.maxlego08.sarah.result.StringVector;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for columnar selects
+ */
+public class ColumnarResultTest extends DatabaseTestBase {
+
+    public enum Rank {
+        MEMBER, ADMIN
+    }
+
+    public static class AccountDTO {
+        private final long id;
+        private final String rank;
+        private final double balance;
+        private final boolean active;
+
+        public AccountDTO(long id, String rank, double balance, boolean active) {
+            this.id = id;
+            this.rank = rank;
+            this.balance = balance;
+            this.active = active;
+        }
+
+        public long getId() { return id; }
+        public String getRank() { return rank; }
+        public double getBalance() { return balance; }
+        public boolean isActive() { return active; }
+    }
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_accounts", schema -> {
+            schema.bigInt("id").primary();
+            schema.string("rank", 20).nullable();
+            schema.decimal("balance").nullable();
+            schema.bool("active").nullable();
+        }).execute(connection, testLogger);
+
+        List<AccountDTO> accounts = new ArrayList<>();
+        for (long i = 1; i <= 100; i++) {
+            accounts.add(new AccountDTO(i, i % 10 == 0 ? "ADMIN" : "MEMBER", i + 0.5, i % 2 == 0));
+        }
+        requestHelper.insertMultiple("test_accounts", AccountDTO.class, accounts);
+    }
+
+    @Test
+    public void testSelectColumnar() {
+        ColumnarResult result = requestHelper.selectColumnar("test_accounts", schema -> schema.orderBy("id"));
+
+        assertEquals(100, result.getRowCount());
+        assertEquals(Arrays.asList("id", "rank", "balance", "active"), result.getColumnNames());
+
+        LongVector ids = result.getLongColumn("id");
+        long idSum = 0;
+        long[] idValues = ids.getValues();
+        for (int i = 0; i < result.getRowCount(); i++) idSum += idValues[i];
+        assertEquals(5050, idSum);
+
+        DoubleVector balances = result.getDoubleColumn("balance");
+        assertEquals(1.5, balances.getDouble(0), 0.0001);
+
+        BooleanVector active = result.getBooleanColumn("active");
+        assertFalse(active.getBoolean(0));
+        assertTrue(active.getBoolean(1));
+        assertEquals(50, active.getValues().cardinality());
+
+        StringVector ranks = result.getStringColumn("rank");
+        assertEquals(2, ranks.getDictionary().size());
+        assertEquals(Rank.ADMIN, ranks.getEnum(9, Rank.class));
+        assertEquals("MEMBER", ranks.getObject(0));
+    }
+
+    @Test
+    public void testAppendChunks() {
+        ColumnarResult result = new ColumnarResult();
+        for (long start = 1; start <= 100; start += 30) {
+            long from = start;
+            assertTrue(requestHelper.selectColumnar("test_accounts", schema -> {
+                schema.addSelect("id");
+                schema.addSelect("rank");
+                schema.where("id", ">=", from);
+                schema.where("id", "<", from + 30);
+                schema.orderBy("id");
+            }, result));
+        }
+
+        assertEquals(100, result.getRowCount());
+        assertEquals(100, result.getLongColumn("id").getLong(99));
+        assertEquals(2, result.getStringColumn("rank").getDictionary().size());
+
+        // A chunk with other columns cannot be appended
+        assertFalse(requestHelper.selectColumnar("test_accounts", schema -> schema.addSelect("balance"), result));
+    }
+
+    @Test
+    public void testNullValues() {
+        requestHelper.insert("test_accounts", schema -> {
+            schema.bigInt("id", 101);
+            schema.string("rank", null);
+        });
+
+        ColumnarResult result = requestHelper.selectColumnar("test_accounts", schema -> schema.orderBy("id"));
+
+        StringVector ranks = result.getStringColumn("rank");
+        assertTrue(ranks.isNull(100));
+        assertEquals(-1, ranks.getCode(100));
+        assertNull(ranks.getString(100));
+        assertTrue(result.getColumn("balance").isNull(100));
+        assertNull(result.getColumn("balance").getObject(100));
+        assertFalse(result.getColumn("balance").isNull(0));
+    }
+
+    @Test
+    public void testUnknownColumn() {
+        ColumnarResult result = requestHelper.selectColumnar("test_accounts", schema -> schema.orderBy("id"));
+
+        assertThrows(IllegalArgumentException.class, () -> result.getColumn("missing"));
+        assertThrows(IllegalArgumentException.class, () -> result.getLongColumn("rank"));
+    }
+}
@@ -1,11 +1,17 @@
 package fr.maxlego08.sarah;
 
 import fr.maxlego08.sarah.database.Schema;
+import fr.maxlego08.sarah.database.SchemaType;
+import fr.maxlego08.sarah.requests.StreamingBatchRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -101,4 +107,71 @@ public class DeleteRequestTest extends DatabaseTestBase {
 
         assertEquals(0, countRows("test_users"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDeleteMultiple() throws Exception {
+        List<Schema> schemas = new ArrayList<>();
+        schemas.add(SchemaBuilder.delete("test_users").where("username", "user1"));
+        schemas.add(SchemaBuilder.delete("test_users").where("username", "user2"));
+        schemas.add(SchemaBuilder.delete("test_users").where("age", ">", 100));
+
+        int deleted = requestHelper.deleteMultiple(schemas);
+
+        assertEquals(2, deleted);
+        assertEquals(1, countRows("test_users"));
+    }
+
+    @Test
+    public void testDeleteMultipleKeepsOrder() throws Exception {
+        executeRawSQL("CREATE TABLE test_deleted (id INTEGER PRIMARY KEY AUTOINCREMENT, username VARCHAR(50))");
+        executeRawSQL("CREATE TRIGGER test_users_deleted AFTER DELETE ON test_users BEGIN INSERT INTO test_deleted (username) VALUES (OLD.username); END");
+
+        List<Schema> schemas = new ArrayList<>();
+        schemas.add(SchemaBuilder.delete("test_users").where("username", "user1"));
+        schemas.add(SchemaBuilder.delete("test_users").where("age", 35));
+        // Same statement as the first delete, it must run after the second one
+        schemas.add(SchemaBuilder.delete("test_users").where("username", "user2"));
+
+        assertEquals(3, requestHelper.deleteMultiple(schemas));
+
+        List<String> deleted = new ArrayList<>();
+        try (Statement stmt = connection.getConnection().createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT username FROM test_deleted ORDER BY id");
+            while (rs.next()) {
+                deleted.add(rs.getString("username"));
+            }
+        }
+        assertEquals(Arrays.asList("user1", "user3", "user2"), deleted);
+    }
+
+    @Test
+    public void testDeleteByKeysAcrossSeveralChunks() throws Exception {
+        List<Schema> inserts = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            int index = i;
+            inserts.add(SchemaBuilder.insert("test_users", schema -> {
+                schema.string("username", "expired" + index);
+                schema.string("email", "expired" + index + "@example.com");
+                schema.bigInt("age", index);
+            }));
+        }
+        new StreamingBatchRequest("test_users", inserts.iterator(), SchemaType.INSERT, StreamingBatchRequest.DEFAULT_CHUNK_SIZE).execute(connection, configuration, testLogger);
+
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 2100; i++) {
+            keys.add("expired" + i);
+        }
+        keys.add("unknown");
+
+        int deleted = requestHelper.deleteByKeys("test_users", "username", keys);
+
+        assertEquals(2100, deleted);
+        assertEquals(403, countRows("test_users"));
+    }
+
+    @Test
+    public void testDeleteByKeysWithNoKeys() throws Exception {
+        assertEquals(0, requestHelper.deleteByKeys("test_users", "username", Collections.emptyList()));
+        assertEquals(3, countRows("test_users"));
+    }
+}
@@ -0,0 +1,169 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.logger.Logger;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for relation graphs loaded with one query per relation
+ */
+public class GraphLoaderTest extends DatabaseTestBase {
+
+    private final List<String> queries = new ArrayList<>();
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_players", schema -> {
+            schema.bigInt("id").primary();
+            schema.string("name", 64);
+        }).execute(connection, testLogger);
+        SchemaBuilder.create(null, "test_homes", schema -> {
+            schema.bigInt("id").primary();
+            schema.bigInt("player_id");
+            schema.string("name", 64);
+        }).execute(connection, testLogger);
+        SchemaBuilder.create(null, "test_kits", schema -> {
+            schema.bigInt("id").primary();
+            schema.bigInt("player_id");
+            schema.string("name", 64);
+        }).execute(connection, testLogger);
+        SchemaBuilder.create(null, "test_kit_items", schema -> {
+            schema.bigInt("id").primary();
+            schema.bigInt("kit_id");
+            schema.string("material", 64);
+        }).execute(connection, testLogger);
+
+        for (long player = 1; player <= 20; player++) {
+            long playerId = player;
+            requestHelper.insert("test_players", schema -> {
+                schema.bigInt("id", playerId);
+                schema.string("name", "Player" + playerId);
+            });
+            // The last player has no children
+            if (player == 20) continue;
+            for (long home = 0; home < 3; home++) {
+                long homeId = player * 10 + home;
+                requestHelper.insert("test_homes", schema -> {
+                    schema.bigInt("id", homeId);
+                    schema.bigInt("player_id", playerId);
+                    schema.string("name", "home" + (2 - homeId % 10));
+                });
+            }
+            requestHelper.insert("test_kits", schema -> {
+                schema.bigInt("id", playerId);
+                schema.bigInt("player_id", playerId);
+                schema.string("name", "starter");
+            });
+            for (long item = 0; item < 2; item++) {
+                long itemId = player * 10 + item;
+                requestHelper.insert("test_kit_items", schema -> {
+                    schema.bigInt("id", itemId);
+                    schema.bigInt("kit_id", playerId);
+                    schema.string("material", "material" + itemId);
+                });
+            }
+        }
+
+        Logger countingLogger = message -> {
+            if (message.startsWith("Executing SQL: SELECT")) {
+                this.queries.add(message);
+            }
+        };
+        requestHelper = new RequestHelper(connection, countingLogger);
+    }
+
+    @Test
+    public void testLoadGraphWithOneQueryPerRelation() {
+        List<Player> players = requestHelper.selectGraph("test_players", Player.class, schema -> {
+        });
+
+        assertEquals(20, players.size());
+        // One query for the players, one per relation and one for the items of the kits
+        assertEquals(4, queries.size());
+
+        Player first = players.get(0);
+        assertEquals(3, first.homes.size());
+        assertEquals("home0", first.homes.get(0).name);
+        assertEquals("home2", first.homes.get(2).name);
+        assertEquals(1, first.kits.size());
+        assertEquals(2, first.kits.get(0).items.size());
+        assertEquals("material10", first.kits.get(0).items.get(0).material);
+
+        Player last = players.get(19);
+        assertTrue(last.homes.isEmpty());
+        assertTrue(last.kits.isEmpty());
+    }
+
+    @Test
+    public void testLoadGraphWithConditions() {
+        List<Player> players = requestHelper.selectGraph("test_players", Player.class, schema -> schema.where("id", 5));
+
+        assertEquals(1, players.size());
+        assertEquals(3, players.get(0).homes.size());
+        for (Home home : players.get(0).homes) {
+            assertTrue(home.id / 10 == 5);
+        }
+    }
+
+    @Test
+    public void testSelectLeavesRelationsEmpty() {
+        List<Player> players = requestHelper.select("test_players", Player.class, schema -> schema.where("id", 1));
+
+        assertEquals(1, players.size());
+        assertNull(players.get(0).homes);
+        assertEquals(1, queries.size());
+    }
+
+    public static class Player {
+        private final long id;
+        private final String name;
+        @Relation(table = "test_homes", foreignKey = "player_id", orderBy = "name")
+        private final List<Home> homes;
+        @Relation(table = "test_kits", foreignKey = "player_id")
+        private final List<Kit> kits;
+
+        public Player(long id, String name, List<Home> homes, List<Kit> kits) {
+            this.id = id;
+            this.name = name;
+            this.homes = homes;
+            this.kits = kits;
+        }
+    }
+
+    public static class Home {
+        private final long id;
+        private final String name;
+
+        public Home(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    public static class Kit {
+        private final long id;
+        private final String name;
+        @Relation(table = "test_kit_items", foreignKey = "kit_id")
+        private final List<KitItem> items;
+
+        public Kit(long id, String name, List<KitItem> items) {
+            this.id = id;
+            this.name = name;
+            this.items = items;
+        }
+    }
+
+    public static class KitItem {
+        private final long id;
+        private final String material;
+
+        public KitItem(long id, String material) {
+            this.id = id;
+            this.material = material;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.batching.GroupCommitter;
+import fr.maxlego08.sarah.database.DatabaseType;
+import fr.maxlego08.sarah.exceptions.DatabaseException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for group commit of single-row writes
+ */
+public class GroupCommitTest extends DatabaseTestBase {
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_users", schema -> {
+            schema.autoIncrementBigInt("id");
+            schema.string("username", 50).unique();
+            schema.integer("age");
+        }).execute(connection, testLogger);
+    }
+
+    @Test
+    public void testConcurrentInsertsReceiveTheirOwnKeys() throws Exception {
+        connection.enableGroupCommit(50, 10);
+
+        ConcurrentLinkedQueue<Integer> ids = new ConcurrentLinkedQueue<>();
+        runConcurrently(10, index -> requestHelper.insert("test_users", schema -> {
+            schema.string("username", "user" + index);
+            schema.bigInt("age", index);
+        }, ids::add));
+
+        assertEquals(10, countRows("test_users"));
+        Set<Integer> uniqueIds = new HashSet<>(ids);
+        assertEquals(10, uniqueIds.size());
+        assertFalse(uniqueIds.contains(0));
+    }
+
+    @Test
+    public void testFailingRowDoesNotFailTheGroup() throws Exception {
+        requestHelper.insert("test_users", schema -> {
+            schema.string("username", "duplicate");
+            schema.bigInt("age", 1);
+        });
+        connection.enableGroupCommit(50, 5);
+
+        AtomicInteger failures = new AtomicInteger();
+        runConcurrently(5, index -> {
+            try {
+                requestHelper.insert("test_users", schema -> {
+                    schema.string("username", index == 0 ? "duplicate" : "user" + index);
+                    schema.bigInt("age", index);
+                });
+            } catch (DatabaseException exception) {
+                failures.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, failures.get());
+        assertEquals(5, countRows("test_users"));
+    }
+
+    @Test
+    public void testConcurrentUpserts() throws Exception {
+        connection.enableGroupCommit(50, 4);
+
+        runConcurrently(4, index -> requestHelper.upsert("test_users", schema -> {
+            schema.string("username", "user" + (index % 2)).primary();
+            schema.bigInt("age", index);
+        }));
+
+        assertEquals(2, countRows("test_users"));
+    }
+
+    @Test
+    public void testMySqlGroupReturnsEachAffectedRowCount() throws Exception {
+        // Like Connector/J with rewriteBatchedStatements, batches only report SUCCESS_NO_INFO
+        AtomicInteger batches = new AtomicInteger();
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "executeBatch":
+                    batches.incrementAndGet();
+                    return new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO};
+                case "executeUpdate":
+                    return 1;
+                default:
+                    return null;
+            }
+        });
+        Connection mysqlConnection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return statement;
+                case "getAutoCommit":
+                case "isValid":
+                    return true;
+                case "isClosed":
+                    return false;
+                default:
+                    return null;
+            }
+        });
+        DatabaseConnection mysql = new DatabaseConnection(DatabaseConfiguration.create("user", "password", 3306, "localhost", "test", DatabaseType.MYSQL), testLogger) {
+            @Override
+            public Connection connectToDatabase() {
+                return mysqlConnection;
+            }
+        };
+
+        GroupCommitter groupCommitter = new GroupCommitter(100, 3);
+        ConcurrentLinkedQueue<Integer> counts = new ConcurrentLinkedQueue<>();
+        runConcurrently(3, index -> {
+            try {
+                counts.add(groupCommitter.submit(mysql, "UPDATE test_users SET age = ? WHERE username = ?", Arrays.asList(index, "user" + index), false, testLogger));
+            } catch (SQLException exception) {
+                fail(exception.getMessage());
+            }
+        });
+
+        assertEquals(Arrays.asList(1, 1, 1), new ArrayList<>(counts));
+        assertEquals(0, batches.get());
+    }
+
+    @Test
+    public void testDisableGroupCommit() throws SQLException {
+        connection.enableGroupCommit(50, 10);
+        connection.disableGroupCommit();
+
+        requestHelper.insert("test_users", schema -> {
+            schema.string("username", "alone");
+            schema.bigInt("age", 1);
+        });
+
+        assertNull(connection.getGroupCommitter());
+        assertEquals(1, countRows("test_users"));
+    }
+
+    private void runConcurrently(int threads, IndexedTask task) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    ready.await();
+                    task.run(index);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            workers.add(thread);
+            thread.start();
+        }
+        ready.countDown();
+        for (Thread worker : workers) {
+            worker.join(10000);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        void run(int index);
+    }
+}
@@ -6,7 +6,9 @@ import org.junit.jupiter.api.Test;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,6 +17,34 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 public class InsertBatchRequestTest extends DatabaseTestBase {
 
+    public static class StreamUserDTO {
+        @Column(value = "id", autoIncrement = true)
+        private final Long id;
+        @Column("username")
+        private final String username;
+        @Column(value = "email", nullable = true)
+        private final String email;
+        @Column("age")
+        private final Integer age;
+
+        public StreamUserDTO(Long id, String username, String email, Integer age) {
+            this.id = id;
+            this.username = username;
+            this.email = email;
+            this.age = age;
+        }
+    }
+
+    public static class StockDTO {
+        private final String sku;
+        private final Integer stock;
+
+        public StockDTO(String sku, Integer stock) {
+            this.sku = sku;
+            this.stock = stock;
+        }
+    }
+
     @Override
     protected void afterConnectionSetup() throws Exception {
         // Create test table
@@ -153,4 +183,45 @@ public class InsertBatchRequestTest extends DatabaseTestBase {
             assertEquals(42, rs.getInt("age"));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStreamingInsertMultipleChunks() throws Exception {
+        // 2000 rows of 3 parameters need several chunks with the SQLite bind parameter limit
+        requestHelper.insertMultiple("test_users", StreamUserDTO.class, IntStream.range(0, 2000)
+                .mapToObj(i -> new StreamUserDTO(null, "user" + i, i % 2 == 0 ? null : "user" + i + "@example.com", i)));
+
+        assertEquals(2000, countRows("test_users"));
+
+        try (Statement stmt = connection.getConnection().createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT username, email, age FROM test_users WHERE username = 'user1999'");
+            assertTrue(rs.next());
+            assertEquals("user1999@example.com", rs.getString("email"));
+            assertEquals(1999, rs.getInt("age"));
+        }
+    }
+
+    @Test
+    public void testStreamingInsertEmpty() throws Exception {
+        requestHelper.insertMultiple("test_users", StreamUserDTO.class, Collections.<StreamUserDTO>emptyIterator());
+
+        assertEquals(0, countRows("test_users"));
+    }
+
+    @Test
+    public void testStreamingUpsert() throws Exception {
+        SchemaBuilder.create(null, "test_products", schema -> {
+            schema.string("sku", 50).primary();
+            schema.integer("stock");
+        }).execute(connection, testLogger);
+
+        requestHelper.upsertMultiple("test_products", StockDTO.class, IntStream.range(0, 1200).mapToObj(i -> new StockDTO("sku" + i, i)));
+        requestHelper.upsertMultiple("test_products", StockDTO.class, IntStream.range(0, 1200).mapToObj(i -> new StockDTO("sku" + i, i * 2)));
+
+        assertEquals(1200, countRows("test_products"));
+        try (Statement stmt = connection.getConnection().createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT stock FROM test_products WHERE sku = 'sku600'");
+            assertTrue(rs.next());
+            assertEquals(1200, rs.getInt("stock"));
+        }
+    }
+}
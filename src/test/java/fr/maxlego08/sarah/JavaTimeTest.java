@@ -0,0 +1,139 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.converter.TypeConverters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for java.time columns
+ */
+public class JavaTimeTest extends DatabaseTestBase {
+
+    public static class EventDTO {
+        private final long id;
+        @Column(value = "created_at", epochMillis = true)
+        private final Instant createdAt;
+        @Column("starts_at")
+        private final LocalDateTime startsAt;
+        private final LocalDate day;
+
+        public EventDTO(long id, Instant createdAt, LocalDateTime startsAt, LocalDate day) {
+            this.id = id;
+            this.createdAt = createdAt;
+            this.startsAt = startsAt;
+            this.day = day;
+        }
+    }
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_events", schema -> {
+            schema.bigInt("id").primary();
+            schema.epochMillis("created_at");
+            schema.dateTime("starts_at");
+            schema.localDate("day");
+        }).execute(connection, testLogger);
+    }
+
+    @AfterEach
+    public void resetTimeZone() {
+        TypeConverters.setTimeZone(ZoneId.systemDefault());
+    }
+
+    @Test
+    public void testInsertAndSelect() {
+        Instant createdAt = Instant.parse("2024-05-01T10:15:30.250Z");
+        LocalDateTime startsAt = LocalDateTime.of(2024, 5, 1, 12, 30, 15);
+        LocalDate day = LocalDate.of(2024, 5, 1);
+        requestHelper.insert("test_events", EventDTO.class, new EventDTO(1, createdAt, startsAt, day));
+
+        List<EventDTO> events = requestHelper.selectAll("test_events", EventDTO.class);
+
+        assertEquals(1, events.size());
+        assertEquals(createdAt, events.get(0).createdAt);
+        assertEquals(startsAt, events.get(0).startsAt);
+        assertEquals(day, events.get(0).day);
+
+        // The epoch column is stored as an integer
+        List<Map<String, Object>> rows = requestHelper.select("test_events", schema -> {
+        });
+        assertEquals(createdAt.toEpochMilli(), ((Number) rows.get(0).get("created_at")).longValue());
+    }
+
+    @Test
+    public void testRangeConditions() {
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        LocalDateTime startsAt = LocalDateTime.of(2024, 1, 1, 8, 0);
+        for (int i = 1; i <= 10; i++) {
+            int day = i;
+            requestHelper.insert("test_events", schema -> {
+                schema.bigInt("id", day);
+                schema.epochMillis("created_at", start.plus(Duration.ofDays(day)));
+                schema.dateTime("starts_at", startsAt.plusDays(day));
+                schema.localDate("day", LocalDate.of(2024, 1, 1).plusDays(day));
+            });
+        }
+
+        assertEquals(5, requestHelper.count("test_events", schema -> schema.whereEpochMillis("created_at", ">", start.plus(Duration.ofDays(5)))));
+        assertEquals(3, requestHelper.count("test_events", schema -> schema.where("starts_at", "<", startsAt.plusDays(4))));
+    }
+
+    @Test
+    public void testTextValues() {
+        TypeConverters.setTimeZone(ZoneOffset.UTC);
+        assertEquals(Instant.parse("2024-05-01T12:30:15Z"), TypeConverters.convert("2024-05-01 12:30:15", Instant.class));
+        assertEquals(LocalDateTime.of(2024, 5, 1, 12, 30, 15), TypeConverters.convert("2024-05-01T12:30:15", LocalDateTime.class));
+        assertEquals(LocalDate.of(2024, 5, 1), TypeConverters.convert("2024-05-01 12:30:15", LocalDate.class));
+    }
+
+    @Test
+    public void testCurrentTimestampAsInstant() throws Exception {
+        SchemaBuilder.create(null, "test_logs", schema -> {
+            schema.bigInt("id").primary();
+            schema.createdAt();
+        }).execute(connection, testLogger);
+        requestHelper.insert("test_logs", schema -> schema.bigInt("id", 1));
+        TypeConverters.setTimeZone(ZoneOffset.UTC);
+
+        List<Map<String, Object>> rows = requestHelper.select("test_logs", schema -> {
+        });
+        Instant createdAt = (Instant) TypeConverters.convert(rows.get(0).get("created_at"), Instant.class);
+
+        assertTrue(Duration.between(createdAt, Instant.now()).abs().getSeconds() < 60);
+    }
+
+    @Test
+    public void testConfiguredTimeZone() {
+        ZoneId zone = ZoneId.of("Asia/Tokyo");
+        TypeConverters.setTimeZone(zone);
+        LocalDateTime dateTime = LocalDateTime.of(2024, 5, 1, 12, 30, 15);
+        Instant instant = dateTime.atZone(zone).toInstant();
+
+        // Text, LocalDateTime and Date values all use the configured zone
+        assertEquals(instant, TypeConverters.convert("2024-05-01 12:30:15", Instant.class));
+        assertEquals(Date.from(instant), TypeConverters.convert("2024-05-01 12:30:15", Date.class));
+        assertEquals(instant, TypeConverters.convert(dateTime, Instant.class));
+        assertEquals(Date.from(instant), TypeConverters.convert(dateTime, Date.class));
+        assertEquals(dateTime, TypeConverters.convert(Date.from(instant), LocalDateTime.class));
+        assertEquals(dateTime, TypeConverters.convert(instant.toEpochMilli(), LocalDateTime.class));
+
+        LocalDate day = LocalDate.of(2024, 5, 1);
+        requestHelper.insert("test_events", EventDTO.class, new EventDTO(1, instant, dateTime, day));
+        EventDTO event = requestHelper.selectAll("test_events", EventDTO.class).get(0);
+        assertEquals(instant, event.createdAt);
+        assertEquals(dateTime, event.startsAt);
+        assertEquals(day, event.day);
+    }
+}
@@ -0,0 +1,116 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.converter.RowMapper;
+import fr.maxlego08.sarah.lazy.Lazy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for lazy loaded columns
+ */
+public class LazyColumnTest extends DatabaseTestBase {
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_notes", schema -> {
+            schema.bigInt("id").primary();
+            schema.string("title", 255);
+            schema.longText("content").nullable();
+        }).execute(connection, testLogger);
+
+        for (long id = 1; id <= 3; id++) {
+            requestHelper.insert("test_notes", Note.class, new Note(id, "Note " + id, Lazy.of("Content of note " + id)));
+        }
+    }
+
+    @Test
+    public void testLazyColumnLoadedOnAccess() {
+        List<Note> notes = requestHelper.selectAll("test_notes", Note.class);
+
+        assertEquals(3, notes.size());
+        for (Note note : notes) {
+            assertFalse(note.content.isLoaded());
+        }
+
+        assertEquals("Content of note 2", notes.get(1).content.get());
+        // The first access loads the column for the whole result
+        for (Note note : notes) {
+            assertTrue(note.content.isLoaded());
+            assertEquals("Content of " + note.title.toLowerCase(), note.content.get());
+        }
+    }
+
+    @Test
+    public void testLazyColumnWithSelectedColumns() {
+        List<Note> notes = requestHelper.select("test_notes", Note.class, schema -> {
+            schema.addSelect("id");
+            schema.addSelect("title");
+            schema.addSelect("content");
+            schema.where("id", 1);
+        });
+
+        assertEquals(1, notes.size());
+        assertTrue(notes.get(0).content.isLoaded());
+        assertEquals("Content of note 1", notes.get(0).content.get());
+    }
+
+    @Test
+    public void testUnloadedLazyValueIsNotWritten() {
+        Note note = requestHelper.select("test_notes", Note.class, schema -> schema.where("id", 1)).get(0);
+
+        requestHelper.upsert("test_notes", Note.class, new Note(note.id, "Renamed", note.content));
+
+        Note renamed = requestHelper.select("test_notes", Note.class, schema -> schema.where("id", 1)).get(0);
+        assertEquals("Renamed", renamed.title);
+        assertEquals("Content of note 1", renamed.content.get());
+    }
+
+    @Test
+    public void testLoadedLazyValueIsWritten() {
+        requestHelper.upsert("test_notes", Note.class, new Note(2, "Note 2", Lazy.of("Updated")));
+
+        Note note = requestHelper.select("test_notes", Note.class, schema -> schema.where("id", 2)).get(0);
+        assertEquals("Updated", note.content.get());
+    }
+
+    @Test
+    public void testDeletedRowLoadsNull() {
+        List<Note> notes = requestHelper.selectAll("test_notes", Note.class);
+        requestHelper.delete("test_notes", schema -> schema.where("id", 3));
+
+        assertEquals("Content of note 1", notes.get(0).content.get());
+        assertNull(notes.get(2).content.get());
+    }
+
+    @Test
+    public void testLazyFieldsRequirePrimaryKey() {
+        assertThrows(IllegalArgumentException.class, () -> RowMapper.of(UnkeyedNote.class));
+    }
+
+    public static class Note {
+        @Column(value = "id", primary = true)
+        private final long id;
+        private final String title;
+        @Column(value = "content", type = "longtext")
+        private final Lazy<String> content;
+
+        public Note(long id, String title, Lazy<String> content) {
+            this.id = id;
+            this.title = title;
+            this.content = content;
+        }
+    }
+
+    public static class UnkeyedNote {
+        private final long id;
+        private final Lazy<String> content;
+
+        public UnkeyedNote(long id, Lazy<String> content) {
+            this.id = id;
+            this.content = content;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.logger.JULogger;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for read/write routing
+ */
+public class ReadReplicaTest extends DatabaseTestBase {
+
+    private final AtomicInteger readConnections = new AtomicInteger();
+
+    @Override
+    protected DatabaseConnection createConnection() {
+        SqliteConnection sqliteConnection = new SqliteConnection(configuration, new File("."), JULogger.from(java.util.logging.Logger.getLogger("TEST"))) {
+            @Override
+            public Connection getReadConnection() {
+                readConnections.incrementAndGet();
+                return super.getReadConnection();
+            }
+        };
+        sqliteConnection.setFileName(getSqlitePath());
+        this.sqliteFile = sqliteConnection.getFolder().toPath().resolve(this.getSqlitePath()).toFile();
+        return sqliteConnection;
+    }
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_users", schema -> {
+            schema.autoIncrementBigInt("id");
+            schema.string("username", 50);
+        }).execute(connection, testLogger);
+
+        requestHelper.insert("test_users", schema -> schema.string("username", "alice"));
+    }
+
+    @Test
+    public void testSelectsUseReadConnection() {
+        readConnections.set(0);
+
+        List<Map<String, Object>> results = requestHelper.select("test_users", schema -> schema.where("username", "alice"));
+        long count = requestHelper.count("test_users", schema -> {});
+        boolean exists = requestHelper.exists("test_users", schema -> schema.where("username", "alice"));
+
+        assertEquals(1, results.size());
+        assertEquals(1, count);
+        assertTrue(exists);
+        assertEquals(3, readConnections.get());
+    }
+
+    @Test
+    public void testReadFromPrimary() {
+        readConnections.set(0);
+
+        List<Map<String, Object>> results = requestHelper.select("test_users", schema -> {
+            schema.where("username", "alice");
+            schema.readFromPrimary();
+        });
+
+        assertEquals(1, results.size());
+        assertEquals(0, readConnections.get());
+    }
+
+    @Test
+    public void testWritesDoNotUseReadConnection() {
+        readConnections.set(0);
+
+        requestHelper.insert("test_users", schema -> schema.string("username", "bob"));
+        requestHelper.update("test_users", schema -> {
+            schema.string("username", "robert");
+            schema.where("username", "bob");
+        });
+
+        assertEquals(0, readConnections.get());
+    }
+
+    @Test
+    public void testConfigurationWithReadReplicas() {
+        DatabaseConfiguration primary = DatabaseConfiguration.create("user", "password", 3306, "primary", "database");
+        DatabaseConfiguration withReplicas = primary.withReadReplica("replica-1", 3306).withReadReplica("replica-2", 3307);
+
+        assertTrue(primary.getReadReplicas().isEmpty());
+        assertEquals(2, withReplicas.getReadReplicas().size());
+        assertEquals("replica-2", withReplicas.getReadReplicas().get(1).getHost());
+        assertEquals(3307, withReplicas.getReadReplicas().get(1).getPort());
+        assertNotEquals(primary, withReplicas);
+        assertEquals(withReplicas, withReplicas.withPoolSettings(null, null));
+    }
+}
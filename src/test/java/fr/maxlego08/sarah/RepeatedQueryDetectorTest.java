@@ -0,0 +1,115 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.diagnostics.RepeatedQueryDetector;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the detection of N+1 query patterns
+ */
+public class RepeatedQueryDetectorTest extends DatabaseTestBase {
+
+    private final List<String> warnings = new ArrayList<>();
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_users", schema -> {
+            schema.bigInt("id").primary();
+            schema.string("name", 64);
+        }).execute(connection, testLogger);
+
+        for (long id = 1; id <= 10; id++) {
+            long userId = id;
+            requestHelper.insert("test_users", schema -> {
+                schema.bigInt("id", userId);
+                schema.string("name", "User" + userId);
+            });
+        }
+
+        requestHelper = new RequestHelper(connection, message -> {
+            if (message.startsWith("Possible N+1 query")) {
+                this.warnings.add(message);
+            }
+        });
+        connection.enableQueryDetection(5, 60000);
+    }
+
+    @Test
+    public void testFingerprintIgnoresValues() {
+        assertEquals(RepeatedQueryDetector.fingerprint("SELECT * FROM users WHERE `id` IN (?,?,?) AND name = 'a'"),
+                RepeatedQueryDetector.fingerprint("SELECT * FROM users WHERE `id` IN (?) AND name = 'b'"));
+        assertEquals("SELECT * FROM users_2 WHERE `id` = ?", RepeatedQueryDetector.fingerprint("SELECT  * FROM users_2 WHERE `id` = 42"));
+    }
+
+    @Test
+    public void testSelectInLoopIsReportedOnce() {
+        for (long id = 1; id <= 10; id++) {
+            long userId = id;
+            requestHelper.select("test_users", schema -> schema.where("id", userId));
+        }
+
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.get(0).contains("selectByKeys"));
+        assertTrue(warnings.get(0).contains(RepeatedQueryDetectorTest.class.getName()));
+    }
+
+    @Test
+    public void testBatchedSelectIsNotReported() {
+        Map<Long, UserDTO> users = requestHelper.selectByKeys("test_users", UserDTO.class, "id", Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L));
+
+        assertEquals(10, users.size());
+        assertTrue(warnings.isEmpty());
+    }
+
+    @Test
+    public void testChunksOfBatchedSelectAreNotReported() {
+        // More chunks than the threshold: the chunks after the first are not counted
+        List<Long> keys = new ArrayList<>();
+        for (long id = 1; id <= 6 * 1000 + 1; id++) {
+            keys.add(id);
+        }
+        Map<Long, UserDTO> users = requestHelper.selectByKeys("test_users", UserDTO.class, "id", keys);
+
+        assertEquals(10, users.size());
+        assertTrue(warnings.isEmpty());
+    }
+
+    @Test
+    public void testBatchedSelectInLoopIsReported() {
+        for (long id = 1; id <= 10; id++) {
+            requestHelper.selectByKeys("test_users", UserDTO.class, "id", Arrays.asList(id, id + 1));
+        }
+
+        assertEquals(1, warnings.size());
+    }
+
+    @Test
+    public void testDisabledDetection() {
+        connection.disableQueryDetection();
+        for (long id = 1; id <= 10; id++) {
+            long userId = id;
+            requestHelper.update("test_users", schema -> {
+                schema.string("name", "Renamed");
+                schema.where("id", userId);
+            });
+        }
+
+        assertTrue(warnings.isEmpty());
+    }
+
+    public static class UserDTO {
+        private final long id;
+        private final String name;
+
+        public UserDTO(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.database.Schema;
+import fr.maxlego08.sarah.database.SchemaType;
+import fr.maxlego08.sarah.requests.StreamingBatchRequest;
+import fr.maxlego08.sarah.retention.PurgeResult;
+import fr.maxlego08.sarah.retention.RetentionManager;
+import fr.maxlego08.sarah.retention.RetentionPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for chunked retention purges
+ */
+public class RetentionTest extends DatabaseTestBase {
+
+    private RetentionManager retentionManager;
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_orders", schema -> {
+            schema.autoIncrementBigInt("id");
+            schema.string("label", 50);
+            schema.bigInt("created_millis");
+        }).execute(connection, testLogger);
+
+        retentionManager = new RetentionManager(connection, testLogger);
+    }
+
+    private void insertOrders(int count, long createdMillis) {
+        List<Schema> schemas = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            schemas.add(SchemaBuilder.insert("test_orders", schema -> {
+                schema.string("label", "order");
+                schema.bigInt("created_millis", createdMillis);
+            }));
+        }
+        new StreamingBatchRequest("test_orders", schemas.iterator(), SchemaType.INSERT, StreamingBatchRequest.DEFAULT_CHUNK_SIZE).execute(connection, configuration, testLogger);
+    }
+
+    @Test
+    public void testPurgeDeletesOnlyExpiredRowsInChunks() throws Exception {
+        long now = System.currentTimeMillis();
+        insertOrders(2000, now - Duration.ofDays(40).toMillis());
+        insertOrders(500, now);
+
+        RetentionPolicy policy = RetentionPolicy.of("test_orders", "created_millis", Duration.ofDays(30))
+                .withCutoffType(RetentionPolicy.CutoffType.EPOCH_MILLIS)
+                .withChunkSize(100, 100, 800)
+                .withTargetChunkMillis(Long.MAX_VALUE)
+                .withPauseMillis(0);
+
+        PurgeResult result = retentionManager.purge(policy);
+
+        assertEquals(2000, result.getDeleted());
+        // 100 + 200 + 400 + 800, then a last chunk of 800 that only finds 500 rows
+        assertEquals(5, result.getChunks());
+        assertEquals(800, result.getChunkSize());
+        assertEquals(500, countRows("test_orders"));
+        assertSame(result, retentionManager.getLastResult("test_orders"));
+    }
+
+    @Test
+    public void testChunkSizeShrinksWhenChunksAreSlow() throws Exception {
+        insertOrders(300, 0);
+
+        RetentionPolicy policy = RetentionPolicy.of("test_orders", "created_millis", Duration.ofDays(1))
+                .withCutoffType(RetentionPolicy.CutoffType.EPOCH_MILLIS)
+                .withChunkSize(400, 100, 400)
+                .withTargetChunkMillis(-1)
+                .withPauseMillis(0);
+
+        PurgeResult result = retentionManager.purge(policy);
+
+        assertEquals(300, result.getDeleted());
+        assertEquals(200, result.getChunkSize());
+    }
+
+    @Test
+    public void testPurgeDatetimeColumn() throws Exception {
+        SchemaBuilder.create(null, "test_users", schema -> {
+            schema.autoIncrementBigInt("id");
+            schema.string("username", 50);
+            schema.timestamps();
+        }).execute(connection, testLogger);
+        executeRawSQL("INSERT INTO test_users (username, created_at, updated_at) VALUES ('old', datetime('now', '-10 days'), datetime('now', '-10 days'))");
+        executeRawSQL("INSERT INTO test_users (username, created_at, updated_at) VALUES ('recent', datetime('now', '-1 hours'), datetime('now', '-1 hours'))");
+
+        retentionManager.addPolicy(RetentionPolicy.of("test_users", "created_at", Duration.ofDays(7)).withPauseMillis(0));
+        List<PurgeResult> results = retentionManager.purgeAll();
+
+        assertEquals(1, results.size());
+        assertEquals(1, results.get(0).getDeleted());
+        assertEquals(1, countRows("test_users"));
+    }
+
+    @Test
+    public void testPurgeDatetimeColumnWithBoundDates() throws Exception {
+        SchemaBuilder.create(null, "test_users", schema -> {
+            schema.autoIncrementBigInt("id");
+            schema.string("username", 50);
+            schema.dateTime("created_at");
+        }).execute(connection, testLogger);
+        // Bound dates are stored as epoch milliseconds, CURRENT_TIMESTAMP values as text
+        requestHelper.insert("test_users", schema -> {
+            schema.string("username", "old");
+            schema.instant("created_at", Instant.now().minus(Duration.ofDays(10)));
+        });
+        requestHelper.insert("test_users", schema -> {
+            schema.string("username", "recent");
+            schema.instant("created_at", Instant.now().minus(Duration.ofHours(1)));
+        });
+        requestHelper.insert("test_users", schema -> {
+            schema.string("username", "oldDate");
+            schema.date("created_at", new Date(System.currentTimeMillis() - Duration.ofDays(20).toMillis()));
+        });
+        executeRawSQL("INSERT INTO test_users (username, created_at) VALUES ('oldText', datetime('now', '-10 days'))");
+        executeRawSQL("INSERT INTO test_users (username, created_at) VALUES ('recentText', datetime('now', '-1 hours'))");
+
+        PurgeResult result = retentionManager.purge(RetentionPolicy.of("test_users", "created_at", Duration.ofDays(7)).withPauseMillis(0));
+
+        assertEquals(3, result.getDeleted());
+        assertEquals(2, countRows("test_users"));
+    }
+
+    @Test
+    public void testInvalidChunkSizes() {
+        assertThrows(IllegalArgumentException.class, () -> RetentionPolicy.of("test_orders", "created_millis", Duration.ofDays(1)).withChunkSize(50, 100, 400));
+    }
+}
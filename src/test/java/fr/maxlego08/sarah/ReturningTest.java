@@ -0,0 +1,104 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.database.DatabaseType;
+import fr.maxlego08.sarah.logger.JULogger;
+import fr.maxlego08.sarah.requests.ReturningRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for inserts and upserts returning the resulting row
+ */
+public class ReturningTest extends DatabaseTestBase {
+
+    public static class AccountDTO {
+        @Column(value = "name", primary = true)
+        private final String name;
+        private final Long balance;
+        private final Boolean active;
+
+        public AccountDTO(String name, Long balance, Boolean active) {
+            this.name = name;
+            this.balance = balance;
+            this.active = active;
+        }
+
+        public String getName() { return name; }
+        public Long getBalance() { return balance; }
+        public Boolean getActive() { return active; }
+    }
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_users", schema -> {
+            schema.autoIncrementBigInt("id");
+            schema.string("username", 50);
+            schema.bool("active").defaultValue(true);
+        }).execute(connection, testLogger);
+
+        SchemaBuilder.create(null, "test_products", schema -> {
+            schema.string("name", 50).primary();
+            schema.bigInt("balance");
+            schema.bool("active").defaultValue(true);
+        }).execute(connection, testLogger);
+    }
+
+    @Test
+    public void testReturningSupportDetection() {
+        assertTrue(ReturningRequest.isReturningSupported(DatabaseType.SQLITE, "3.42.0"));
+        assertTrue(ReturningRequest.isReturningSupported(DatabaseType.SQLITE, "3.35.0"));
+        assertFalse(ReturningRequest.isReturningSupported(DatabaseType.SQLITE, "3.34.1"));
+        assertTrue(ReturningRequest.isReturningSupported(DatabaseType.MARIADB, "10.5.8-MariaDB"));
+        assertTrue(ReturningRequest.isReturningSupported(DatabaseType.MYSQL, "5.5.5-10.11.2-MariaDB-1:10.11.2+maria~ubu2204"));
+        assertFalse(ReturningRequest.isReturningSupported(DatabaseType.MARIADB, "10.4.28-MariaDB"));
+        assertFalse(ReturningRequest.isReturningSupported(DatabaseType.MYSQL, "8.0.33"));
+        assertTrue(connection.isReturningSupported());
+    }
+
+    @Test
+    public void testInsertReturningGeneratedKeyAndDefaults() {
+        Map<String, Object> first = requestHelper.insertReturning("test_users", schema -> schema.string("username", "alice"));
+        Map<String, Object> second = requestHelper.insertReturning("test_users", schema -> schema.string("username", "bob"), "id");
+
+        assertEquals("alice", first.get("username"));
+        assertNotNull(first.get("active"));
+        long firstId = ((Number) first.get("id")).longValue();
+        assertEquals(firstId + 1, ((Number) second.get("id")).longValue());
+        assertEquals(1, second.size());
+    }
+
+    @Test
+    public void testUpsertReturningDto() {
+        AccountDTO inserted = requestHelper.upsertReturning("test_products", AccountDTO.class, new AccountDTO("alice", 10L, true));
+        AccountDTO updated = requestHelper.upsertReturning("test_products", AccountDTO.class, new AccountDTO("alice", 25L, false));
+
+        assertEquals(10L, inserted.getBalance());
+        assertEquals(25L, updated.getBalance());
+        assertFalse(updated.getActive());
+    }
+
+    @Test
+    public void testFallbackWithoutReturningSupport() throws Exception {
+        SqliteConnection withoutReturning = new SqliteConnection(configuration, new File("."), JULogger.from(java.util.logging.Logger.getLogger("TEST"))) {
+            @Override
+            public boolean isReturningSupported() {
+                return false;
+            }
+        };
+        withoutReturning.setFileName(getSqlitePath());
+        RequestHelper helper = new RequestHelper(withoutReturning, testLogger);
+
+        Map<String, Object> user = helper.insertReturning("test_users", schema -> schema.string("username", "carol"));
+        AccountDTO account = helper.upsertReturning("test_products", AccountDTO.class, new AccountDTO("carol", 5L, true));
+
+        assertEquals("carol", user.get("username"));
+        assertNotNull(user.get("id"));
+        assertNotNull(user.get("active"));
+        assertEquals(5L, account.getBalance());
+        withoutReturning.disconnect();
+    }
+}
@@ -0,0 +1,141 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.database.Schema;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for multi-key selects
+ */
+public class SelectByKeysTest extends DatabaseTestBase {
+
+    public static class UserDTO {
+        private final Long id;
+        private final String username;
+
+        public UserDTO(Long id, String username) {
+            this.id = id;
+            this.username = username;
+        }
+
+        public Long getId() { return id; }
+        public String getUsername() { return username; }
+    }
+
+    public static class CompositeDTO {
+        private final String region;
+        private final Long number;
+        private final String label;
+
+        public CompositeDTO(String region, Long number, String label) {
+            this.region = region;
+            this.number = number;
+            this.label = label;
+        }
+
+        public String getRegion() { return region; }
+        public Long getNumber() { return number; }
+        public String getLabel() { return label; }
+    }
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_users", schema -> {
+            schema.bigInt("id").primary();
+            schema.string("username", 50);
+        }).execute(connection, testLogger);
+
+        SchemaBuilder.create(null, "test_composite", schema -> {
+            schema.string("region", 10).primary();
+            schema.bigInt("number").primary();
+            schema.string("label", 50);
+        }).execute(connection, testLogger);
+
+        List<Schema> users = new ArrayList<>();
+        for (long i = 1; i <= 2500; i++) {
+            long id = i;
+            users.add(SchemaBuilder.insert("test_users", schema -> {
+                schema.bigInt("id", id);
+                schema.string("username", "user" + id);
+            }));
+        }
+        requestHelper.insertMultiple(users);
+    }
+
+    @Test
+    public void testSelectByKeys() {
+        Map<Long, UserDTO> results = requestHelper.selectByKeys("test_users", UserDTO.class, "id", Arrays.asList(1L, 42L, 2500L, 9999L));
+
+        assertEquals(3, results.size());
+        assertEquals("user42", results.get(42L).getUsername());
+        assertNull(results.get(9999L));
+    }
+
+    @Test
+    public void testSelectByKeysMultipleChunks() {
+        // 2500 keys need several chunks with the SQLite bind parameter limit
+        List<Long> keys = new ArrayList<>();
+        for (long i = 1; i <= 2500; i++) keys.add(i);
+
+        Map<Long, UserDTO> results = requestHelper.selectByKeys("test_users", UserDTO.class, "id", keys);
+
+        assertEquals(2500, results.size());
+        assertEquals("user2000", results.get(2000L).getUsername());
+    }
+
+    @Test
+    public void testSelectByKeysConcurrently() {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            RequestHelper concurrentHelper = new RequestHelper(connection, testLogger, executorService);
+            List<Long> keys = new ArrayList<>();
+            for (long i = 1; i <= 2500; i++) keys.add(i);
+
+            Map<Long, UserDTO> results = concurrentHelper.selectByKeys("test_users", UserDTO.class, "id", keys);
+
+            assertEquals(2500, results.size());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testSelectByKeysEmpty() {
+        assertTrue(requestHelper.selectByKeys("test_users", UserDTO.class, "id", Collections.<Long>emptyList()).isEmpty());
+    }
+
+    @Test
+    public void testSelectByCompositeKeys() {
+        requestHelper.insert("test_composite", schema -> {
+            schema.string("region", "eu");
+            schema.bigInt("number", 1);
+            schema.string("label", "eu-1");
+        });
+        requestHelper.insert("test_composite", schema -> {
+            schema.string("region", "us");
+            schema.bigInt("number", 1);
+            schema.string("label", "us-1");
+        });
+        requestHelper.insert("test_composite", schema -> {
+            schema.string("region", "eu");
+            schema.bigInt("number", 2);
+            schema.string("label", "eu-2");
+        });
+
+        Map<List<Object>, CompositeDTO> results = requestHelper.selectByKeys("test_composite", CompositeDTO.class,
+                Arrays.asList("region", "number"), Arrays.asList(Arrays.asList("eu", 1L), Arrays.asList("eu", 2L), Arrays.asList("asia", 1L)));
+
+        assertEquals(2, results.size());
+        assertEquals("eu-1", results.get(Arrays.<Object>asList("eu", 1L)).getLabel());
+        assertEquals("eu-2", results.get(Arrays.<Object>asList("eu", 2L)).getLabel());
+    }
+}
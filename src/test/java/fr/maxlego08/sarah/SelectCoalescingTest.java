@@ -0,0 +1,171 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.coalescing.SelectCoalescer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for select coalescing
+ */
+public class SelectCoalescingTest extends DatabaseTestBase {
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_users", schema -> {
+            schema.autoIncrementBigInt("id");
+            schema.string("username", 50);
+        }).execute(connection, testLogger);
+
+        requestHelper.insert("test_users", schema -> schema.string("username", "alice"));
+        requestHelper.insert("test_users", schema -> schema.string("username", "bob"));
+    }
+
+    @Test
+    public void testSelectWithCoalescing() {
+        connection.setSelectCoalescing(true);
+
+        List<Map<String, Object>> results = requestHelper.select("test_users", schema -> schema.where("username", "bob"));
+
+        assertEquals(1, results.size());
+        assertEquals("bob", results.get(0).get("username"));
+        assertEquals(0, connection.getSelectCoalescer().getInFlightCount());
+    }
+
+    @Test
+    public void testConcurrentIdenticalSelectsShareOneQuery() throws Exception {
+        SelectCoalescer coalescer = new SelectCoalescer();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Map<String, Object> row = new HashMap<>();
+        row.put("username", "alice");
+        rows.add(row);
+
+        AtomicReference<List<Map<String, Object>>> leaderResult = new AtomicReference<>();
+        Thread leader = new Thread(() -> {
+            try {
+                leaderResult.set(coalescer.execute("SELECT * FROM test_users", Collections.emptyList(), () -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return rows;
+                }));
+            } catch (Exception exception) {
+                throw new RuntimeException(exception);
+            }
+        });
+        leader.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        AtomicReference<List<Map<String, Object>>> followerResult = new AtomicReference<>();
+        Thread follower = new Thread(() -> {
+            try {
+                followerResult.set(coalescer.execute("SELECT * FROM test_users", Collections.emptyList(), () -> {
+                    executions.incrementAndGet();
+                    return rows;
+                }));
+            } catch (Exception exception) {
+                throw new RuntimeException(exception);
+            }
+        });
+        follower.start();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (follower.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        release.countDown();
+        leader.join(5000);
+        follower.join(5000);
+
+        assertEquals(1, executions.get());
+        assertEquals("alice", followerResult.get().get(0).get("username"));
+        // Both callers receive the same read-only rows, each in its own list
+        assertSame(leaderResult.get().get(0), followerResult.get().get(0));
+        assertNotSame(leaderResult.get(), followerResult.get());
+        assertThrows(UnsupportedOperationException.class, () -> followerResult.get().get(0).put("username", "bob"));
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    @Test
+    public void testLeaderErrorReleasesFollowers() throws Exception {
+        SelectCoalescer coalescer = new SelectCoalescer();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread leader = new Thread(() -> {
+            try {
+                coalescer.execute("SELECT * FROM test_users", Collections.emptyList(), () -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new OutOfMemoryError("Result too large");
+                });
+            } catch (Throwable ignored) {
+            }
+        });
+        leader.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        AtomicReference<Throwable> followerError = new AtomicReference<>();
+        Thread follower = new Thread(() -> {
+            try {
+                coalescer.execute("SELECT * FROM test_users", Collections.emptyList(), ArrayList::new);
+            } catch (Throwable throwable) {
+                followerError.set(throwable);
+            }
+        });
+        follower.start();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (follower.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        release.countDown();
+        leader.join(5000);
+        follower.join(5000);
+
+        assertFalse(follower.isAlive());
+        assertTrue(followerError.get() instanceof OutOfMemoryError);
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    @Test
+    public void testDifferentParametersAreNotShared() throws Exception {
+        SelectCoalescer coalescer = new SelectCoalescer();
+        AtomicInteger executions = new AtomicInteger();
+
+        coalescer.execute("SELECT * FROM test_users WHERE `username` = ?", Collections.singletonList("alice"), () -> {
+            executions.incrementAndGet();
+            return new ArrayList<>();
+        });
+        coalescer.execute("SELECT * FROM test_users WHERE `username` = ?", Collections.singletonList("bob"), () -> {
+            executions.incrementAndGet();
+            return new ArrayList<>();
+        });
+
+        assertEquals(2, executions.get());
+    }
+}
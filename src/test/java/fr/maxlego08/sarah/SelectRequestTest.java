@@ -4,6 +4,8 @@ import fr.maxlego08.sarah.database.Schema;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -153,6 +155,39 @@ public class SelectRequestTest extends DatabaseTestBase {
         assertEquals(2, count);
     }
 
+    @Test
+    public void testExists() {
+        assertTrue(requestHelper.exists("test_users", schema -> schema.where("username", "bob")));
+    }
+
+    @Test
+    public void testExistsNoMatches() {
+        assertFalse(requestHelper.exists("test_users", schema -> schema.where("username", "nonexistent")));
+    }
+
+    @Test
+    public void testApproximateCountWithoutStatistics() {
+        // Without ANALYZE, SQLite has no statistics and an exact count is used
+        assertEquals(3, requestHelper.approximateCount("test_users"));
+    }
+
+    @Test
+    public void testApproximateCountWithStatistics() throws Exception {
+        executeRawSQL("CREATE INDEX idx_test_users_age ON test_users (age)");
+        executeRawSQL("ANALYZE");
+
+        assertEquals(3, requestHelper.approximateCount("test_users"));
+    }
+
+    @Test
+    public void testApproximateCountWithPartialIndex() throws Exception {
+        // The statistics of a partial index count the indexed rows only
+        executeRawSQL("CREATE INDEX idx_test_users_age ON test_users (age) WHERE age > 28");
+        executeRawSQL("ANALYZE");
+
+        assertEquals(3, requestHelper.approximateCount("test_users"));
+    }
+
     @Test
     public void testSelectSpecificColumns() {
         Schema schema = SchemaBuilder.select("test_users");
@@ -173,6 +208,55 @@ public class SelectRequestTest extends DatabaseTestBase {
         }
     }
 
+    @Test
+    public void testSelectWithAliasUsesLabel() throws Exception {
+        Schema schema = SchemaBuilder.select("test_users");
+        schema.addSelect(null, "username", "name");
+        schema.where("username", "alice");
+
+        List<Map<String, Object>> results = schema.executeSelect(connection, testLogger);
+        assertEquals(1, results.size());
+        assertEquals("alice", results.get(0).get("name"));
+        assertFalse(results.get(0).containsKey("username"));
+    }
+
+    @Test
+    public void testSelectedRowsAreReadOnly() {
+        List<Map<String, Object>> results = requestHelper.select("test_users", schema -> {
+        });
+        assertFalse(results.isEmpty());
+
+        Map<String, Object> row = results.get(0);
+        assertEquals(new HashMap<>(row), row);
+        assertThrows(UnsupportedOperationException.class, () -> row.put("username", "changed"));
+    }
+
+    @Test
+    public void testSelectPrimitiveColumns() {
+        long[] ids = requestHelper.selectLongs("test_users", "id", schema -> schema.orderBy("id"));
+        assertArrayEquals(new long[]{1, 2, 3}, ids);
+
+        int[] ages = requestHelper.selectInts("test_users", "age", schema -> schema.where("age", ">", 25));
+        assertEquals(2, ages.length);
+
+        double[] noAges = requestHelper.selectDoubles("test_users", "age", schema -> schema.where("username", "nobody"));
+        assertEquals(0, noAges.length);
+
+        List<String> usernames = requestHelper.selectStrings("test_users", "username", schema -> schema.orderBy("username"));
+        assertEquals(Arrays.asList("alice", "bob", "charlie"), usernames);
+    }
+
+    @Test
+    public void testStreamPrimitiveColumn() {
+        long[] sum = new long[1];
+        assertTrue(requestHelper.selectLongs("test_users", "age", schema -> {
+        }, value -> sum[0] += value));
+        assertEquals(90, sum[0]);
+
+        assertFalse(requestHelper.selectLongs("missing_table", "id", schema -> {
+        }, value -> fail("No value expected")));
+    }
+
     @Test
     public void testSelectDistinct() {
         // Insert duplicate age
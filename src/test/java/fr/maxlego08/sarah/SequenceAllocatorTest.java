@@ -0,0 +1,122 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.sequence.SequenceAllocator;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for hi/lo identifier allocation
+ */
+public class SequenceAllocatorTest extends DatabaseTestBase {
+
+    public static class OrderDTO {
+        @Column(value = "id", primary = true, sequence = "orders")
+        private final Long id;
+        private final String label;
+
+        public OrderDTO(Long id, String label) {
+            this.id = id;
+            this.label = label;
+        }
+
+        public Long getId() { return id; }
+        public String getLabel() { return label; }
+    }
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_orders", schema -> {
+            schema.bigInt("id").primary();
+            schema.string("label", 50);
+        }).execute(connection, testLogger);
+    }
+
+    private long selectNextValue(String sequence) throws Exception {
+        try (Statement stmt = connection.getConnection().createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT next_value FROM " + SequenceAllocator.DEFAULT_TABLE + " WHERE name = '" + sequence + "'");
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+
+    @Test
+    public void testIdsAreReservedByBlocks() throws Exception {
+        SequenceAllocator allocator = new SequenceAllocator(connection, testLogger, SequenceAllocator.DEFAULT_TABLE, 10);
+
+        for (long expected = 1; expected <= 25; expected++) {
+            assertEquals(expected, allocator.nextId("test"));
+        }
+        // Three blocks of 10 were reserved
+        assertEquals(31, selectNextValue("test"));
+    }
+
+    @Test
+    public void testAllocatorsSharingATableGetDisjointBlocks() {
+        SequenceAllocator first = new SequenceAllocator(connection, testLogger, SequenceAllocator.DEFAULT_TABLE, 10);
+        SequenceAllocator second = new SequenceAllocator(connection, testLogger, SequenceAllocator.DEFAULT_TABLE, 10);
+
+        assertEquals(1, first.nextId("test"));
+        assertEquals(11, second.nextId("test"));
+        assertEquals(2, first.nextId("test"));
+        assertArrayEquals(new long[]{12, 13}, second.nextIds("test", 2));
+    }
+
+    @Test
+    public void testConcurrentIdsAreUnique() throws Exception {
+        SequenceAllocator allocator = new SequenceAllocator(connection, testLogger, SequenceAllocator.DEFAULT_TABLE, 50);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        ids.add(allocator.nextId("test"));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(4000, ids.size());
+    }
+
+    @Test
+    public void testInsertMultipleAssignsSequenceIds() throws Exception {
+        executeRawSQL("INSERT INTO test_orders (id, label) VALUES (50, 'existing')");
+        requestHelper.setSequenceAllocator(new SequenceAllocator(connection, testLogger));
+
+        List<OrderDTO> orders = Arrays.asList(new OrderDTO(null, "first"), new OrderDTO(null, "second"), new OrderDTO(500L, "assigned"));
+        requestHelper.insertMultiple("test_orders", OrderDTO.class, orders);
+
+        assertEquals(51L, orders.get(0).getId());
+        assertEquals(52L, orders.get(1).getId());
+        assertEquals(500L, orders.get(2).getId());
+        assertEquals(4, countRows("test_orders"));
+
+        OrderDTO single = new OrderDTO(null, "single");
+        requestHelper.insert("test_orders", OrderDTO.class, single);
+        assertEquals(53L, single.getId());
+    }
+
+    @Test
+    public void testSequenceWithoutAllocatorIsRejected() {
+        assertThrows(IllegalStateException.class, () -> requestHelper.insert("test_orders", OrderDTO.class, new OrderDTO(null, "order")));
+    }
+}
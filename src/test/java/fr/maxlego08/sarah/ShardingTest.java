@@ -0,0 +1,178 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.logger.JULogger;
+import fr.maxlego08.sarah.sharding.ShardFunction;
+import fr.maxlego08.sarah.sharding.ShardedRequestHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for key-based sharding, each shard being a SQLite file
+ */
+public class ShardingTest extends DatabaseTestBase {
+
+    private static final int SHARD_COUNT = 3;
+
+    private final List<DatabaseConnection> shardConnections = new ArrayList<>();
+    private final List<File> shardFiles = new ArrayList<>();
+    private ExecutorService executorService;
+    private ShardedRequestHelper shardedHelper;
+
+    public static class PlayerDTO {
+        private final UUID uniqueId;
+        private final String name;
+        private final Long kills;
+
+        public PlayerDTO(UUID uniqueId, String name, Long kills) {
+            this.uniqueId = uniqueId;
+            this.name = name;
+            this.kills = kills;
+        }
+
+        public UUID getUniqueId() { return uniqueId; }
+        public String getName() { return name; }
+        public Long getKills() { return kills; }
+    }
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        for (int index = 0; index < SHARD_COUNT; index++) {
+            SqliteConnection shard = new SqliteConnection(configuration, new File("."), JULogger.from(java.util.logging.Logger.getLogger("TEST")));
+            shard.setFileName("test_shard_" + index + ".db");
+            shard.connect();
+            this.shardConnections.add(shard);
+            this.shardFiles.add(shard.getFolder().toPath().resolve("test_shard_" + index + ".db").toFile());
+        }
+
+        this.executorService = Executors.newFixedThreadPool(SHARD_COUNT);
+        this.shardedHelper = new ShardedRequestHelper(this.shardConnections, testLogger, "uniqueId", ShardFunction.HASH, this.executorService);
+        this.shardedHelper.forEachShard(shard -> {
+            try {
+                SchemaBuilder.create(null, "test_users", schema -> {
+                    schema.uuid("uniqueId").primary();
+                    schema.string("name", 50);
+                    schema.bigInt("kills");
+                }).execute(shard.getConnection(), testLogger);
+            } catch (Exception exception) {
+                throw new RuntimeException(exception);
+            }
+        });
+    }
+
+    @AfterEach
+    @Override
+    public void tearDown() throws Exception {
+        this.executorService.shutdownNow();
+        for (DatabaseConnection shard : this.shardConnections) {
+            shard.disconnect();
+        }
+        for (File file : this.shardFiles) {
+            file.delete();
+        }
+        super.tearDown();
+    }
+
+    private List<PlayerDTO> createPlayers(int count) {
+        List<PlayerDTO> players = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            players.add(new PlayerDTO(UUID.randomUUID(), "player" + i, (long) i));
+        }
+        return players;
+    }
+
+    @Test
+    public void testSingleKeyOperationsRouteToOneShard() {
+        PlayerDTO player = new PlayerDTO(UUID.randomUUID(), "alice", 5L);
+        shardedHelper.insert("test_users", PlayerDTO.class, player);
+
+        int expectedShard = shardedHelper.getShardIndex(player.getUniqueId());
+        for (int index = 0; index < SHARD_COUNT; index++) {
+            long count = shardedHelper.getShards().get(index).count("test_users", schema -> {});
+            assertEquals(index == expectedShard ? 1 : 0, count);
+        }
+
+        shardedHelper.upsert("test_users", PlayerDTO.class, new PlayerDTO(player.getUniqueId(), "alice", 6L));
+        List<PlayerDTO> results = shardedHelper.forKey(player.getUniqueId()).selectAll("test_users", PlayerDTO.class);
+        assertEquals(1, results.size());
+        assertEquals(6L, results.get(0).getKills());
+
+        shardedHelper.delete("test_users", player.getUniqueId());
+        assertEquals(0, shardedHelper.count("test_users", schema -> {}));
+    }
+
+    @Test
+    public void testInsertMultipleSplitsPerShard() {
+        List<PlayerDTO> players = createPlayers(60);
+        shardedHelper.insertMultiple("test_users", PlayerDTO.class, players);
+
+        assertEquals(60, shardedHelper.count("test_users", schema -> {}));
+        for (PlayerDTO player : players) {
+            RequestHelper shard = shardedHelper.forKey(player.getUniqueId());
+            assertTrue(shard.exists("test_users", schema -> schema.where("uniqueId", player.getUniqueId())));
+        }
+    }
+
+    @Test
+    public void testUpsertAndUpdateMultiple() {
+        List<PlayerDTO> players = createPlayers(20);
+        shardedHelper.upsertMultiple("test_users", PlayerDTO.class, players);
+
+        List<PlayerDTO> updated = new ArrayList<>();
+        for (PlayerDTO player : players) {
+            updated.add(new PlayerDTO(player.getUniqueId(), player.getName(), player.getKills() + 100));
+        }
+        shardedHelper.updateMultiple("test_users", PlayerDTO.class, updated);
+
+        List<PlayerDTO> results = shardedHelper.selectAll("test_users", PlayerDTO.class);
+        assertEquals(20, results.size());
+        for (PlayerDTO result : results) {
+            assertTrue(result.getKills() >= 100);
+        }
+    }
+
+    @Test
+    public void testSelectByKeysFansOutAndMerges() {
+        List<PlayerDTO> players = createPlayers(30);
+        shardedHelper.insertMultiple("test_users", PlayerDTO.class, players);
+
+        List<UUID> keys = Arrays.asList(players.get(0).getUniqueId(), players.get(7).getUniqueId(), players.get(29).getUniqueId(), UUID.randomUUID());
+        Map<UUID, PlayerDTO> results = shardedHelper.selectByKeys("test_users", PlayerDTO.class, keys);
+
+        assertEquals(3, results.size());
+        assertEquals("player7", results.get(players.get(7).getUniqueId()).getName());
+    }
+
+    @Test
+    public void testSelectMergesAllShards() {
+        shardedHelper.insertMultiple("test_users", PlayerDTO.class, createPlayers(30));
+
+        List<PlayerDTO> results = shardedHelper.select("test_users", PlayerDTO.class, schema -> schema.where("kills", ">=", 10));
+        assertEquals(20, results.size());
+    }
+
+    @Test
+    public void testHashShardFunctionIsStable() {
+        UUID uniqueId = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+        int shard = ShardFunction.HASH.getShard(uniqueId, SHARD_COUNT);
+
+        assertEquals(shard, ShardFunction.HASH.getShard(UUID.fromString(uniqueId.toString()), SHARD_COUNT));
+        assertTrue(shard >= 0 && shard < SHARD_COUNT);
+    }
+
+    @Test
+    public void testInvalidShardFunctionIsRejected() {
+        ShardedRequestHelper invalid = new ShardedRequestHelper(this.shardConnections, testLogger, "uniqueId", (key, count) -> count, null);
+        assertThrows(IllegalStateException.class, () -> invalid.getShardIndex("key"));
+    }
+}
@@ -0,0 +1,169 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.exceptions.DatabaseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for streamed BLOB and LONGTEXT columns
+ */
+public class StreamColumnTest extends DatabaseTestBase {
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_snapshots", schema -> {
+            schema.bigInt("id").primary();
+            schema.blob("data").nullable();
+            schema.longText("document").nullable();
+        }).execute(connection, testLogger);
+    }
+
+    private byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    private String largeDocument() {
+        StringBuilder document = new StringBuilder("[");
+        for (int i = 0; i < 20000; i++) {
+            document.append(i > 0 ? "," : "").append("{\"index\":").append(i).append("}");
+        }
+        return document.append("]").toString();
+    }
+
+    @Test
+    public void testWriteAndReadStreams() {
+        byte[] data = randomBytes(1024 * 1024);
+        String document = largeDocument();
+
+        requestHelper.insert("test_snapshots", schema -> {
+            schema.bigInt("id", 1);
+            schema.blob("data", new ByteArrayInputStream(data), data.length);
+            schema.longText("document", new StringReader(document), document.length());
+        });
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertTrue(requestHelper.selectBinaryStream("test_snapshots", "data", schema -> schema.where("id", 1), stream -> {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        }));
+        assertArrayEquals(data, output.toByteArray());
+
+        StringBuilder text = new StringBuilder();
+        assertTrue(requestHelper.selectCharacterStream("test_snapshots", "document", schema -> schema.where("id", 1), reader -> {
+            char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                text.append(buffer, 0, read);
+            }
+        }));
+        assertEquals(document, text.toString());
+    }
+
+    @Test
+    public void testUpsertStream() {
+        byte[] first = randomBytes(1000);
+        byte[] second = new byte[]{4, 5, 6};
+
+        requestHelper.upsert("test_snapshots", schema -> {
+            schema.bigInt("id", 1).primary();
+            schema.blob("data", new ByteArrayInputStream(first), first.length);
+        });
+        requestHelper.upsert("test_snapshots", schema -> {
+            schema.bigInt("id", 1).primary();
+            schema.blob("data", new ByteArrayInputStream(second), second.length);
+        });
+
+        List<byte[]> values = new ArrayList<>();
+        requestHelper.selectBinaryStream("test_snapshots", "data", schema -> {
+        }, stream -> {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            int read;
+            while ((read = stream.read()) != -1) {
+                output.write(read);
+            }
+            values.add(output.toByteArray());
+        });
+
+        assertEquals(1, values.size());
+        assertArrayEquals(second, values.get(0));
+    }
+
+    @Test
+    public void testStreamsAreNotGroupCommitted() throws Exception {
+        byte[] data = randomBytes(64 * 1024);
+        requestHelper.insert("test_snapshots", schema -> schema.bigInt("id", 1));
+        connection.enableGroupCommit(200, 2);
+
+        // The duplicate row would fail a shared group, whose retry cannot read the consumed streams again
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            long id = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    ready.await();
+                    requestHelper.insert("test_snapshots", schema -> {
+                        schema.bigInt("id", id);
+                        schema.blob("data", new ByteArrayInputStream(data), data.length);
+                    });
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                } catch (DatabaseException ignored) {
+                }
+            });
+            workers.add(thread);
+            thread.start();
+        }
+        ready.countDown();
+        for (Thread worker : workers) {
+            worker.join(10000);
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertTrue(requestHelper.selectBinaryStream("test_snapshots", "data", schema -> schema.where("id", 2), stream -> {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        }));
+        assertArrayEquals(data, output.toByteArray());
+    }
+
+    @Test
+    public void testNullValuesAreSkipped() {
+        requestHelper.insert("test_snapshots", schema -> schema.bigInt("id", 1));
+
+        assertTrue(requestHelper.selectBinaryStream("test_snapshots", "data", schema -> {
+        }, stream -> fail("No stream expected")));
+    }
+
+    @Test
+    public void testHandlerFailure() {
+        byte[] data = randomBytes(10);
+        requestHelper.insert("test_snapshots", schema -> {
+            schema.bigInt("id", 1);
+            schema.blob("data", new ByteArrayInputStream(data), data.length);
+        });
+
+        assertFalse(requestHelper.selectBinaryStream("test_snapshots", "data", schema -> {
+        }, stream -> {
+            throw new IOException("Disk full");
+        }));
+    }
+}
@@ -0,0 +1,135 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.lazy.Lazy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for table synchronization
+ */
+public class SyncTest extends DatabaseTestBase {
+
+    public static class ClaimDTO {
+        private final Long id;
+        private final String owner;
+        private final Long size;
+
+        public ClaimDTO(Long id, String owner, Long size) {
+            this.id = id;
+            this.owner = owner;
+            this.size = size;
+        }
+
+        public Long getId() { return id; }
+        public String getOwner() { return owner; }
+        public Long getSize() { return size; }
+    }
+
+    public static class NoteDTO {
+        @Column(value = "id", primary = true)
+        private final Long id;
+        private final String title;
+        @Column(value = "content", type = "longtext")
+        private final Lazy<String> content;
+
+        public NoteDTO(Long id, String title, Lazy<String> content) {
+            this.id = id;
+            this.title = title;
+            this.content = content;
+        }
+    }
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_products", schema -> {
+            schema.bigInt("id").primary();
+            schema.string("owner", 50);
+            schema.bigInt("size");
+        }).execute(connection, testLogger);
+
+        List<ClaimDTO> claims = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            claims.add(new ClaimDTO(i, "owner" + i, i * 10));
+        }
+        requestHelper.insertMultiple("test_products", ClaimDTO.class, claims);
+    }
+
+    @Test
+    public void testSyncWritesOnlyTheDifference() throws Exception {
+        List<ClaimDTO> claims = Arrays.asList(
+                new ClaimDTO(1L, "owner1", 10L),
+                new ClaimDTO(2L, "owner2", 20L),
+                new ClaimDTO(3L, "changed", 30L),
+                new ClaimDTO(6L, "owner6", 60L));
+
+        SyncResult result = requestHelper.sync("test_products", ClaimDTO.class, "id", claims);
+
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(2, result.getDeleted());
+        assertEquals(2, result.getUnchanged());
+
+        Map<Long, ClaimDTO> stored = requestHelper.selectByKeys("test_products", ClaimDTO.class, "id", Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L));
+        assertEquals(4, stored.size());
+        assertEquals("changed", stored.get(3L).getOwner());
+        assertEquals(60L, stored.get(6L).getSize());
+        assertFalse(stored.containsKey(4L));
+        assertFalse(stored.containsKey(5L));
+    }
+
+    @Test
+    public void testSyncWithSameCollectionWritesNothing() throws Exception {
+        List<ClaimDTO> claims = requestHelper.selectAll("test_products", ClaimDTO.class);
+
+        SyncResult result = requestHelper.sync("test_products", ClaimDTO.class, "id", claims);
+
+        assertEquals(0, result.getInserted());
+        assertEquals(0, result.getUpdated());
+        assertEquals(0, result.getDeleted());
+        assertEquals(5, result.getUnchanged());
+    }
+
+    @Test
+    public void testSyncIgnoresUnloadedLazyColumns() throws Exception {
+        SchemaBuilder.create(null, "test_notes", schema -> {
+            schema.bigInt("id").primary();
+            schema.string("title", 50);
+            schema.longText("content").nullable();
+        }).execute(connection, testLogger);
+        requestHelper.insertMultiple("test_notes", NoteDTO.class, Arrays.asList(
+                new NoteDTO(1L, "first", Lazy.of("First content")),
+                new NoteDTO(2L, "second", Lazy.of("Second content")),
+                new NoteDTO(3L, "third", Lazy.of("Third content"))));
+
+        List<NoteDTO> notes = requestHelper.select("test_notes", NoteDTO.class, schema -> schema.orderBy("id"));
+        // A loaded value, an unloaded value and a changed row with an unloaded value
+        List<NoteDTO> changed = Arrays.asList(
+                new NoteDTO(1L, "first", Lazy.of("First content")),
+                notes.get(1),
+                new NoteDTO(3L, "renamed", notes.get(2).content));
+        SyncResult result = requestHelper.sync("test_notes", NoteDTO.class, "id", changed);
+
+        assertEquals(1, result.getUpdated());
+        assertEquals(2, result.getUnchanged());
+        assertFalse(notes.get(1).content.isLoaded());
+
+        List<NoteDTO> stored = requestHelper.select("test_notes", NoteDTO.class, schema -> schema.orderBy("id"));
+        assertEquals("renamed", stored.get(2).title);
+        assertEquals("Third content", stored.get(2).content.get());
+    }
+
+    @Test
+    public void testSyncWithEmptyCollectionDeletesEverything() throws Exception {
+        SyncResult result = requestHelper.sync("test_products", ClaimDTO.class, "id", Collections.emptyList());
+
+        assertEquals(5, result.getDeleted());
+        assertEquals(0, countRows("test_products"));
+    }
+}
@@ -0,0 +1,143 @@
+package fr.maxlego08.sarah;
+
+import fr.maxlego08.sarah.converter.TypeConverters;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the conversion of selected values
+ */
+public class TypeConverterTest extends DatabaseTestBase {
+
+    public enum Rank {
+        MEMBER, ADMIN
+    }
+
+    public static class Coordinates {
+        private final int x;
+        private final int z;
+
+        public Coordinates(int x, int z) {
+            this.x = x;
+            this.z = z;
+        }
+
+        public static Coordinates parse(String value) {
+            String[] parts = value.split(";");
+            return new Coordinates(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        }
+
+        @Override
+        public String toString() {
+            return x + ";" + z;
+        }
+    }
+
+    public static class MemberDTO {
+        private final long id;
+        private final Rank rank;
+        private final int level;
+        private final boolean active;
+        private final BigDecimal balance;
+
+        public MemberDTO(long id, Rank rank, int level, boolean active, BigDecimal balance) {
+            this.id = id;
+            this.rank = rank;
+            this.level = level;
+            this.active = active;
+            this.balance = balance;
+        }
+    }
+
+    public static class HomeDTO {
+        private final long id;
+        @Column(value = "position", type = "string")
+        private final Coordinates position;
+
+        public HomeDTO(long id, Coordinates position) {
+            this.id = id;
+            this.position = position;
+        }
+    }
+
+    @Override
+    protected void afterConnectionSetup() throws Exception {
+        SchemaBuilder.create(null, "test_members", schema -> {
+            schema.bigInt("id").primary();
+            schema.string("rank", 20);
+            schema.integer("level");
+            schema.bool("active");
+            schema.decimal("balance");
+        }).execute(connection, testLogger);
+
+        SchemaBuilder.create(null, "test_homes", schema -> {
+            schema.bigInt("id").primary();
+            schema.string("position", 50);
+        }).execute(connection, testLogger);
+    }
+
+    @Test
+    public void testSelectConvertsColumns() {
+        requestHelper.insert("test_members", MemberDTO.class, new MemberDTO(1, Rank.ADMIN, 12, true, new BigDecimal("10.5")));
+        requestHelper.insert("test_members", MemberDTO.class, new MemberDTO(2, Rank.MEMBER, 3, false, new BigDecimal("0")));
+
+        List<MemberDTO> members = requestHelper.select("test_members", MemberDTO.class, schema -> schema.orderBy("id"));
+
+        assertEquals(2, members.size());
+        assertEquals(Rank.ADMIN, members.get(0).rank);
+        assertEquals(12, members.get(0).level);
+        assertTrue(members.get(0).active);
+        assertEquals(0, new BigDecimal("10.5").compareTo(members.get(0).balance));
+        assertEquals(Rank.MEMBER, members.get(1).rank);
+        assertFalse(members.get(1).active);
+    }
+
+    @Test
+    public void testRegisteredConverter() {
+        TypeConverters.register(Coordinates.class, value -> Coordinates.parse(value.toString()));
+        try {
+            requestHelper.insert("test_homes", HomeDTO.class, new HomeDTO(1, new Coordinates(10, -4)));
+
+            List<HomeDTO> homes = requestHelper.selectAll("test_homes", HomeDTO.class);
+
+            assertEquals(1, homes.size());
+            assertEquals(10, homes.get(0).position.x);
+            assertEquals(-4, homes.get(0).position.z);
+        } finally {
+            TypeConverters.unregister(Coordinates.class);
+        }
+    }
+
+    @Test
+    public void testDirectConversions() {
+        assertEquals(5, TypeConverters.convert(5L, int.class));
+        assertEquals(10L, TypeConverters.convert(new BigDecimal("10"), long.class));
+        assertEquals(2.5, TypeConverters.convert("2.5", double.class));
+        assertEquals(true, TypeConverters.convert(1, boolean.class));
+        assertEquals(false, TypeConverters.convert("0", Boolean.class));
+        assertEquals(Rank.ADMIN, TypeConverters.convert("ADMIN", Rank.class));
+        assertNull(TypeConverters.convert(null, long.class));
+
+        Date expected = Date.from(LocalDateTime.of(2024, 1, 2, 3, 4, 5).atZone(ZoneId.systemDefault()).toInstant());
+        assertEquals(expected, TypeConverters.convert("2024-01-02 03:04:05", Date.class));
+        assertEquals(new Date(expected.getTime() + 250), TypeConverters.convert("2024-01-02 03:04:05.25", Date.class));
+    }
+
+    @Test
+    public void testConvertersAreCached() {
+        assertSame(TypeConverters.find(Long.class, int.class), TypeConverters.find(Long.class, Integer.class));
+        assertSame(TypeConverters.find(String.class, Rank.class), TypeConverters.find(String.class, Rank.class));
+    }
+
+    @Test
+    public void testUnknownEnumConstant() {
+        assertThrows(IllegalArgumentException.class, () -> TypeConverters.convert("OWNER", Rank.class));
+    }
+}
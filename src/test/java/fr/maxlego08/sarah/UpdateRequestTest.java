@@ -1,11 +1,16 @@
 package fr.maxlego08.sarah;
 
 import fr.maxlego08.sarah.database.Schema;
+import fr.maxlego08.sarah.database.SchemaType;
+import fr.maxlego08.sarah.requests.StreamingBatchRequest;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -117,4 +122,136 @@ public class UpdateRequestTest extends DatabaseTestBase {
             assertEquals("user1@example.com", rs.getString("email"));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testUpdateMultipleWithDifferentStatements() throws Exception {
+        List<Schema> schemas = new ArrayList<>();
+        schemas.add(SchemaBuilder.update("test_users", schema -> {
+            schema.string("email", "first@example.com");
+            schema.where("username", "user1");
+        }));
+        schemas.add(SchemaBuilder.update("test_users", schema -> {
+            schema.bool("active", false);
+            schema.where("username", "user2");
+        }));
+        schemas.add(SchemaBuilder.update("test_users", schema -> {
+            schema.string("email", "third@example.com");
+            schema.where("username", "user2");
+        }));
+
+        requestHelper.updateMultiple(schemas);
+
+        try (Statement stmt = connection.getConnection().createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT username, email, active FROM test_users ORDER BY username");
+            assertTrue(rs.next());
+            assertEquals("first@example.com", rs.getString("email"));
+            assertTrue(rs.next());
+            assertEquals("third@example.com", rs.getString("email"));
+            assertFalse(rs.getBoolean("active"));
+            assertFalse(rs.next());
+        }
+    }
+
+    @Test
+    public void testUpdateMultipleKeepsOrder() throws Exception {
+        List<Schema> schemas = new ArrayList<>();
+        schemas.add(SchemaBuilder.update("test_users", schema -> {
+            schema.string("email", "first@example.com");
+            schema.where("age", 99);
+        }));
+        schemas.add(SchemaBuilder.update("test_users", schema -> {
+            schema.bigInt("age", 99);
+            schema.where("username", "user1");
+        }));
+        // Same statement as the first update, it must run after the second one
+        schemas.add(SchemaBuilder.update("test_users", schema -> {
+            schema.string("email", "second@example.com");
+            schema.where("age", 99);
+        }));
+
+        requestHelper.updateMultiple(schemas);
+
+        try (Statement stmt = connection.getConnection().createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT email, age FROM test_users WHERE username = 'user1'");
+            assertTrue(rs.next());
+            assertEquals(99, rs.getInt("age"));
+            assertEquals("second@example.com", rs.getString("email"));
+        }
+    }
+
+    @Test
+    public void testUpdateMultipleBatch() throws Exception {
+        int rows = 50;
+        List<Schema> inserts = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            int index = i;
+            inserts.add(SchemaBuilder.insert("test_users", schema -> {
+                schema.string("username", "batch" + index);
+                schema.bigInt("age", index);
+            }));
+        }
+        new StreamingBatchRequest("test_users", inserts.iterator(), SchemaType.INSERT, StreamingBatchRequest.DEFAULT_CHUNK_SIZE).execute(connection, configuration, testLogger);
+
+        List<Schema> updates = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            int index = i;
+            updates.add(SchemaBuilder.update("test_users", schema -> {
+                schema.bigInt("age", index + 2);
+                schema.where("username", "batch" + index);
+            }));
+        }
+        requestHelper.updateMultiple(updates);
+
+        try (Statement stmt = connection.getConnection().createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM test_users WHERE username LIKE 'batch%' AND age = CAST(SUBSTR(username, 6) AS INTEGER) + 2");
+            assertTrue(rs.next());
+            assertEquals(rows, rs.getInt(1));
+        }
+    }
+
+    @Test
+    @Disabled("Benchmark, run it by hand to compare the per-row loop with the batch")
+    public void testUpdateMultipleBatchAgainstLoop() throws Exception {
+        int rows = 10000;
+        List<Schema> inserts = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            int index = i;
+            inserts.add(SchemaBuilder.insert("test_users", schema -> {
+                schema.string("username", "bench" + index);
+                schema.bigInt("age", index);
+            }));
+        }
+        new StreamingBatchRequest("test_users", inserts.iterator(), SchemaType.INSERT, StreamingBatchRequest.DEFAULT_CHUNK_SIZE).execute(connection, configuration, testLogger);
+        executeRawSQL("CREATE INDEX test_users_username ON test_users (username)");
+
+        long loopStart = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            int index = i;
+            SchemaBuilder.update("test_users", schema -> {
+                schema.bigInt("age", index + 1);
+                schema.where("username", "bench" + index);
+            }).execute(connection, testLogger);
+        }
+        long loopMillis = (System.nanoTime() - loopStart) / 1_000_000;
+
+        List<Schema> updates = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            int index = i;
+            updates.add(SchemaBuilder.update("test_users", schema -> {
+                schema.bigInt("age", index + 2);
+                schema.where("username", "bench" + index);
+            }));
+        }
+        long batchStart = System.nanoTime();
+        requestHelper.updateMultiple(updates);
+        long batchMillis = (System.nanoTime() - batchStart) / 1_000_000;
+
+        testLogger.info("Updated " + rows + " rows: loop " + loopMillis + " ms, batch " + batchMillis + " ms");
+
+        try (Statement stmt = connection.getConnection().createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM test_users WHERE username LIKE 'bench%' AND age = CAST(SUBSTR(username, 6) AS INTEGER) + 2");
+            assertTrue(rs.next());
+            assertEquals(rows, rs.getInt(1));
+        }
+    }
+}
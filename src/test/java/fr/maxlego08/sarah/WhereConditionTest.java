@@ -67,6 +67,15 @@ public class WhereConditionTest extends DatabaseTestBase {
         assertEquals("alice", results.get(0).get("username"));
     }
 
+    @Test
+    public void testWhereInTypedCollection() {
+        List<Map<String, Object>> results = requestHelper.select("test_users", schema -> {
+            schema.whereIn("age", Arrays.asList(25, 35));
+        });
+
+        assertEquals(2, results.size());
+    }
+
     @Test
     public void testWhereGreaterThan() {
         List<Map<String, Object>> results = requestHelper.select("test_users", schema -> {